@@ -0,0 +1,106 @@
+package com.lucas.minhasfinancas.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.lucas.minhasfinancas.MinhasfinancasApplication;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+import com.lucas.minhasfinancas.service.AnaliseService;
+import com.lucas.minhasfinancas.service.LancamentoService;
+import com.lucas.minhasfinancas.service.UsuarioService;
+import com.lucas.minhasfinancas.service.VersaoDadosService;
+
+/**
+ * Contexto Spring sobre o H2 do profile "test", populado com dados sintéticos
+ * gerados a partir de uma semente fixa para que as medições sejam
+ * reproduzíveis.
+ */
+@State(Scope.Benchmark)
+public class DadosSinteticos {
+
+    static final String SENHA = "senha";
+    static final String[] DESCRICOES = { "Salário", "Aluguel", "Mercado", "Farmácia", "Internet", "Academia",
+            "Restaurante", "Combustível", "Energia", "Cinema" };
+
+    @Param("20")
+    public int usuarios;
+
+    @Param("2000")
+    public int lancamentosPorUsuario;
+
+    ConfigurableApplicationContext context;
+    LancamentoService lancamentoService;
+    AnaliseService analiseService;
+    VersaoDadosService versaoDadosService;
+    UsuarioService usuarioService;
+    List<Usuario> usuariosCriados;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        context = new SpringApplicationBuilder(MinhasfinancasApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN", "spring.jpa.show-sql=false")
+                .run();
+
+        lancamentoService = context.getBean(LancamentoService.class);
+        usuarioService = context.getBean(UsuarioService.class);
+        analiseService = context.getBean(AnaliseService.class);
+        versaoDadosService = context.getBean(VersaoDadosService.class);
+        popular(new Random(42));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        context.close();
+    }
+
+    Usuario usuario(int indice) {
+        return usuariosCriados.get(indice % usuariosCriados.size());
+    }
+
+    private void popular(Random random) {
+        usuariosCriados = new ArrayList<>();
+
+        for (int u = 0; u < usuarios; u++) {
+            Usuario usuario = usuarioService.salvarUsuario(Usuario.builder().nome("usuario" + u)
+                    .email("usuario" + u + "@benchmark.com").senha(SENHA).build());
+            usuariosCriados.add(usuario);
+
+            List<Lancamento> lote = new ArrayList<>();
+
+            for (int l = 0; l < lancamentosPorUsuario; l++) {
+                lote.add(Lancamento.builder()
+                        .descricao(DESCRICOES[random.nextInt(DESCRICOES.length)] + " " + l)
+                        .mes(1 + random.nextInt(12))
+                        .ano(2015 + random.nextInt(8))
+                        .valor(BigDecimal.valueOf(1 + random.nextInt(500_000), 2))
+                        .tipo(random.nextBoolean() ? TipoLancamento.RECEITA : TipoLancamento.DESPESA)
+                        .usuario(usuario)
+                        .build());
+
+                if (lote.size() == 1000) {
+                    lancamentoService.salvarEmLote(lote);
+                    lote = new ArrayList<>();
+                }
+            }
+
+            lancamentoService.salvarEmLote(lote);
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.lucas.minhasfinancas.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.AopTestUtils;
+
+import com.lucas.minhasfinancas.api.controller.LancamentoController;
+import com.lucas.minhasfinancas.api.dto.LancamentoDTO;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LancamentoControllerBenchmark {
+
+    private Object controller;
+    private MethodHandle converter;
+
+    /**
+     * O converter é privado; é chamado por MethodHandle sobre o objeto real do
+     * controller, sem passar por proxies.
+     */
+    @Setup(Level.Trial)
+    public void iniciar(DadosSinteticos dados) throws ReflectiveOperationException {
+        controller = AopTestUtils.getUltimateTargetObject(dados.context.getBean(LancamentoController.class));
+        converter = MethodHandles.privateLookupIn(LancamentoController.class, MethodHandles.lookup())
+                .findVirtual(LancamentoController.class, "converter",
+                        MethodType.methodType(Lancamento.class, LancamentoDTO.class));
+    }
+
+    @Benchmark
+    public Object converter(DadosSinteticos dados, Rodizio rodizio) throws Throwable {
+        LancamentoDTO dto = LancamentoDTO.builder().descricao("Salário").mes(6).ano(2022)
+                .valor(BigDecimal.valueOf(1500)).usuario(dados.usuario(rodizio.proximo()).getId()).tipo("RECEITA")
+                .status("PENDENTE").build();
+
+        return converter.invoke(controller, dto);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.lucas.minhasfinancas.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+import com.lucas.minhasfinancas.model.repository.FiltroLancamento;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LancamentoServiceBenchmark {
+
+    private static final Lancamento LANCAMENTO_VALIDO = Lancamento.builder().descricao("Salário").mes(6).ano(2022)
+            .valor(BigDecimal.valueOf(1500)).tipo(TipoLancamento.RECEITA).usuario(Usuario.builder().id(1L).build())
+            .build();
+
+    @Benchmark
+    public Lancamento validarLancamento(DadosSinteticos dados) {
+        dados.lancamentoService.validarLancamento(LANCAMENTO_VALIDO);
+        return LANCAMENTO_VALIDO;
+    }
+
+    /**
+     * Busca por trecho da descrição: candidatos pelo índice de trigramas,
+     * confirmados com lower(descricao) like '%...%'. Cada chamada publica uma
+     * nova versão dos dados do usuário, então a busca nunca é atendida pelo
+     * cache e mede a consulta ao banco.
+     */
+    @Benchmark
+    public List<Lancamento> buscarPorDescricao(DadosSinteticos dados, Rodizio rodizio) {
+        Long idUsuario = dados.usuario(rodizio.proximo()).getId();
+        dados.versaoDadosService.incrementar(idUsuario);
+        return dados.lancamentoService.buscar(FiltroLancamento.builder().descricao("merc").idUsuario(idUsuario)
+                .build());
+    }
+
+    /**
+     * A mesma busca com a versão estável: depois da primeira chamada de cada
+     * usuário, mede o acerto no cache de buscas.
+     */
+    @Benchmark
+    public List<Lancamento> buscarPorDescricaoEmCache(DadosSinteticos dados, Rodizio rodizio) {
+        FiltroLancamento filtro = FiltroLancamento.builder().descricao("merc")
+                .idUsuario(dados.usuario(rodizio.proximo()).getId()).build();
+        return dados.lancamentoService.buscar(filtro);
+    }
+
+    @Benchmark
+    public BigDecimal obterSaldoPorUsuario(DadosSinteticos dados, Rodizio rodizio) {
+        return dados.lancamentoService.obterSaldoPorUsuario(dados.usuario(rodizio.proximo()).getId());
+    }
+
+    /**
+     * Total de um ano sobre a cópia em colunas; depois da primeira carga de
+     * cada usuário, não acessa o banco.
+     */
+    @Benchmark
+    public BigDecimal totalizarAno(DadosSinteticos dados, Rodizio rodizio) {
+        FiltroLancamento filtro = FiltroLancamento.builder().ano(2022)
+                .idUsuario(dados.usuario(rodizio.proximo()).getId()).build();
+        return dados.analiseService.totalizar(filtro);
+    }
+
+}
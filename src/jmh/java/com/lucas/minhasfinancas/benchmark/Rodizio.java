@@ -0,0 +1,19 @@
+package com.lucas.minhasfinancas.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Alterna o usuário consultado a cada chamada, por thread, para que a medição
+ * não fique presa a um único usuário.
+ */
+@State(Scope.Thread)
+public class Rodizio {
+
+    private int proximo;
+
+    int proximo() {
+        return proximo++;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.lucas.minhasfinancas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lucas.minhasfinancas.model.entity.Usuario;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsuarioServiceBenchmark {
+
+    @Benchmark
+    public Usuario autenticar(DadosSinteticos dados, Rodizio rodizio) {
+        Usuario usuario = dados.usuario(rodizio.proximo());
+        return dados.usuarioService.autenticar(usuario.getEmail(), DadosSinteticos.SENHA);
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.lucas.minhasfinancas.admissao;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compartimento (bulkhead) de um tipo de requisição: no máximo
+ * {@code maximoConcorrentes} em processamento e {@code maximoFila}
+ * aguardando vaga, cada uma por até {@code esperaMaximaMillis}. Quem não cabe
+ * na fila ou não consegue vaga a tempo é recusado, de modo que um
+ * compartimento saturado não prende mais threads do que os seus limites.
+ */
+public class Compartimento {
+
+    private final String nome;
+    private final int maximoConcorrentes;
+    private final int maximoFila;
+    private final long esperaMaximaMillis;
+    private final Semaphore vagas;
+    private final AtomicInteger naFila = new AtomicInteger();
+    private final AtomicLong recusadas = new AtomicLong();
+
+    public Compartimento(String nome, int maximoConcorrentes, int maximoFila, long esperaMaximaMillis) {
+        this.nome = nome;
+        this.maximoConcorrentes = maximoConcorrentes;
+        this.maximoFila = maximoFila;
+        this.esperaMaximaMillis = esperaMaximaMillis;
+        this.vagas = new Semaphore(maximoConcorrentes, true);
+    }
+
+    /** Ocupa uma vaga; devolve falso se a requisição deve ser recusada. */
+    public boolean entrar() throws InterruptedException {
+        if (vagas.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+
+        if (naFila.incrementAndGet() > maximoFila) {
+            naFila.decrementAndGet();
+            recusadas.incrementAndGet();
+            return false;
+        }
+
+        try {
+            if (vagas.tryAcquire(esperaMaximaMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+
+            recusadas.incrementAndGet();
+            return false;
+
+        } finally {
+            naFila.decrementAndGet();
+        }
+    }
+
+    public void sair() {
+        vagas.release();
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public int emAndamento() {
+        return maximoConcorrentes - vagas.availablePermits();
+    }
+
+    public int naFila() {
+        return naFila.get();
+    }
+
+    /** Fração das vagas ocupadas, de 0 a 1. */
+    public double saturacao() {
+        return (double) emAndamento() / maximoConcorrentes;
+    }
+
+    public long recusadas() {
+        return recusadas.get();
+    }
+
+}
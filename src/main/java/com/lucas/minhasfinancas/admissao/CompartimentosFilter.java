@@ -0,0 +1,171 @@
+package com.lucas.minhasfinancas.admissao;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Separa leituras (GET: buscar, consultarsaldo, exportação, análises; e a
+ * autenticação, que só consulta o usuário apesar do POST) e escritas
+ * (salvar, atualizar, excluir, status) em compartimentos com limites
+ * próprios, para que uma rajada de buscas pesadas não atrase as gravações.
+ * Uma requisição recusada pelo seu compartimento recebe 503 com Retry-After.
+ * Em respostas assíncronas, como a exportação, a vaga só é liberada no fim
+ * do processamento; as notificações por SSE, que ficam abertas, não ocupam
+ * vaga. No banco, a separação correspondente são os pools de leitura e de
+ * escrita (minhasfinancas.compartimentos.pools-separados).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class CompartimentosFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String NOTIFICACOES = "/api/lancamentos/notificacoes";
+    private static final String AUTENTICAR = "/api/usuarios/autenticar";
+
+    private final boolean habilitado;
+    private final Compartimento leitura;
+    private final Compartimento escrita;
+
+    public CompartimentosFilter(@Value("${minhasfinancas.compartimentos.habilitado:true}") boolean habilitado,
+            @Value("${minhasfinancas.compartimentos.leitura.maximo-concorrentes:20}") int leituraConcorrentes,
+            @Value("${minhasfinancas.compartimentos.leitura.maximo-fila:40}") int leituraFila,
+            @Value("${minhasfinancas.compartimentos.escrita.maximo-concorrentes:20}") int escritaConcorrentes,
+            @Value("${minhasfinancas.compartimentos.escrita.maximo-fila:40}") int escritaFila,
+            @Value("${minhasfinancas.compartimentos.espera-maxima-ms:2000}") long esperaMaximaMillis) {
+        this.habilitado = habilitado;
+        this.leitura = new Compartimento("leitura", leituraConcorrentes, leituraFila, esperaMaximaMillis);
+        this.escrita = new Compartimento("escrita", escritaConcorrentes, escritaFila, esperaMaximaMillis);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String caminho = request.getRequestURI();
+        return !habilitado || caminho.equals(NOTIFICACOES)
+                || !(caminho.startsWith("/api/lancamentos/") || caminho.startsWith("/api/usuarios/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        Compartimento compartimento = HttpMethod.GET.matches(request.getMethod())
+                || request.getRequestURI().equals(AUTENTICAR) ? leitura : escrita;
+
+        try {
+            if (!compartimento.entrar()) {
+                recusar(response);
+                return;
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recusar(response);
+            return;
+        }
+
+        AtomicBoolean liberada = new AtomicBoolean();
+        Runnable liberar = () -> {
+            if (liberada.compareAndSet(false, true)) {
+                compartimento.sair();
+            }
+        };
+
+        try {
+            chain.doFilter(request, response);
+
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new LiberarAoConcluir(liberar));
+            } else {
+                liberar.run();
+            }
+        }
+    }
+
+    public Compartimento getLeitura() {
+        return leitura;
+    }
+
+    public Compartimento getEscrita() {
+        return escrita;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Compartimento compartimento : Arrays.asList(leitura, escrita)) {
+            Gauge.builder("compartimentos.em.andamento", compartimento, Compartimento::emAndamento)
+                    .tag("compartimento", compartimento.getNome())
+                    .description("Requisições em processamento no compartimento").register(registry);
+            Gauge.builder("compartimentos.fila", compartimento, Compartimento::naFila)
+                    .tag("compartimento", compartimento.getNome())
+                    .description("Requisições aguardando vaga no compartimento").register(registry);
+            Gauge.builder("compartimentos.saturacao", compartimento, Compartimento::saturacao)
+                    .tag("compartimento", compartimento.getNome())
+                    .description("Fração das vagas do compartimento ocupadas").register(registry);
+            FunctionCounter.builder("compartimentos.recusadas", compartimento, Compartimento::recusadas)
+                    .tag("compartimento", compartimento.getNome())
+                    .description("Requisições recusadas com 503 pelo compartimento").register(registry);
+        }
+    }
+
+    private static void recusar(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Servidor ocupado. Tente novamente em 1 segundo(s).");
+    }
+
+    private static class LiberarAoConcluir implements AsyncListener {
+
+        private final Runnable liberar;
+
+        LiberarAoConcluir(Runnable liberar) {
+            this.liberar = liberar;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberar.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.lucas.minhasfinancas.admissao;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Controle de admissão das APIs de usuários e lançamentos, antes de qualquer
+ * acesso ao banco. Cada requisição consome uma ficha do balde do endereço do
+ * cliente ou, com {@code por-usuario}, do usuário (parâmetro {@code usuario}
+ * ou id de consultarsaldo), quando identificável. Sem autenticação o usuário
+ * é só o que o cliente informa, então o balde por usuário vem desligado. O
+ * endereço é o {@code remoteAddr}: atrás de um proxy, ele só é o do cliente
+ * com server.forward-headers-strategy configurado. Além disso, no máximo
+ * {@code maximo-concorrentes} requisições são processadas ao mesmo tempo. O
+ * excesso recebe 429 na hora, com Retry-After. Em respostas assíncronas (SSE
+ * e exportação), a vaga cobre só o trecho síncrono da requisição.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ControleAdmissaoFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final Pattern CONSULTAR_SALDO = Pattern.compile("^/api/usuarios/consultarsaldo/(\\d+)$");
+
+    private final LimitadorRequisicoes limitador;
+    private final boolean habilitado;
+    private final boolean porUsuario;
+    private final Semaphore vagas;
+    private final int maximoConcorrentes;
+    private final AtomicLong recusadasPorTaxa = new AtomicLong();
+    private final AtomicLong recusadasPorConcorrencia = new AtomicLong();
+
+    public ControleAdmissaoFilter(@Value("${minhasfinancas.admissao.habilitado:true}") boolean habilitado,
+            @Value("${minhasfinancas.admissao.por-usuario:false}") boolean porUsuario,
+            @Value("${minhasfinancas.admissao.maximo-concorrentes:200}") int maximoConcorrentes,
+            @Value("${minhasfinancas.admissao.taxa-por-segundo:20}") double taxaPorSegundo,
+            @Value("${minhasfinancas.admissao.rajada:40}") int rajada,
+            @Value("${minhasfinancas.admissao.ociosidade-segundos:300}") long ociosidadeSegundos,
+            @Value("${minhasfinancas.admissao.clientes-em-memoria:100000}") long clientesEmMemoria) {
+        this.limitador = new LimitadorRequisicoes(taxaPorSegundo, rajada, ociosidadeSegundos, clientesEmMemoria);
+        this.habilitado = habilitado;
+        this.porUsuario = porUsuario;
+        this.maximoConcorrentes = maximoConcorrentes;
+        this.vagas = new Semaphore(maximoConcorrentes);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String caminho = request.getRequestURI();
+        return !habilitado || !(caminho.startsWith("/api/lancamentos/") || caminho.startsWith("/api/usuarios/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        long espera = limitador.consumir(identificarCliente(request, porUsuario));
+
+        if (espera > 0) {
+            recusadasPorTaxa.incrementAndGet();
+            recusar(response, espera, "Limite de requisições excedido.");
+            return;
+        }
+
+        if (!vagas.tryAcquire()) {
+            recusadasPorConcorrencia.incrementAndGet();
+            recusar(response, 0, "Servidor ocupado.");
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            vagas.release();
+        }
+    }
+
+    public int emAndamento() {
+        return maximoConcorrentes - vagas.availablePermits();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("admissao.em.andamento", this, ControleAdmissaoFilter::emAndamento)
+                .description("Requisições da API em processamento").register(registry);
+        Gauge.builder("admissao.clientes", limitador, LimitadorRequisicoes::quantidadeClientes)
+                .description("Clientes com balde de fichas em memória").register(registry);
+        FunctionCounter.builder("admissao.recusadas", recusadasPorTaxa, AtomicLong::get).tag("motivo", "taxa")
+                .description("Requisições recusadas com 429").register(registry);
+        FunctionCounter.builder("admissao.recusadas", recusadasPorConcorrencia, AtomicLong::get)
+                .tag("motivo", "concorrencia").description("Requisições recusadas com 429").register(registry);
+    }
+
+    /**
+     * Um parâmetro de usuário que não é um número não cria balde: conta para
+     * o endereço do cliente.
+     */
+    static String identificarCliente(HttpServletRequest request, boolean porUsuario) {
+        if (!porUsuario) {
+            return "endereco:" + request.getRemoteAddr();
+        }
+
+        String usuario = request.getParameter("usuario");
+        Matcher consultarSaldo = CONSULTAR_SALDO.matcher(request.getRequestURI());
+
+        if (usuario == null && consultarSaldo.matches()) {
+            usuario = consultarSaldo.group(1);
+        }
+
+        if (usuario != null) {
+            try {
+                return "usuario:" + Long.parseLong(usuario.trim());
+            } catch (NumberFormatException e) {
+                // Segue pelo endereço.
+            }
+        }
+
+        return "endereco:" + request.getRemoteAddr();
+    }
+
+    private static void recusar(HttpServletResponse response, long esperaNanos, String motivo) throws IOException {
+        long segundos = Math.max(1, (esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(motivo + " Tente novamente em " + segundos + " segundo(s).");
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.lucas.minhasfinancas.admissao;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Balde de fichas por cliente: até {@code rajada} requisições seguidas e,
+ * depois, {@code taxa-por-segundo}. O balde é guardado como o instante
+ * teórico da próxima chegada (GCRA), um único AtomicLong atualizado por CAS,
+ * sem travas. Os baldes ficam em um cache do Caffeine, que remove os que
+ * passam o tempo de ociosidade sem uso; um balde ocioso por esse tempo já
+ * estaria cheio.
+ */
+public class LimitadorRequisicoes {
+
+    private final Cache<String, AtomicLong> baldes;
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final long origem = System.nanoTime();
+
+    public LimitadorRequisicoes(double taxaPorSegundo, int rajada, long ociosidadeSegundos,
+            long clientesEmMemoria) {
+        this.intervaloNanos = (long) (TimeUnit.SECONDS.toNanos(1) / taxaPorSegundo);
+        this.toleranciaNanos = (rajada - 1) * intervaloNanos;
+        this.baldes = Caffeine.newBuilder().maximumSize(clientesEmMemoria)
+                .expireAfterAccess(Duration.ofSeconds(ociosidadeSegundos)).build();
+    }
+
+    /**
+     * Consome uma ficha do balde do cliente. Devolve zero se havia ficha ou,
+     * se não havia, quantos nanossegundos faltam para a próxima.
+     */
+    public long consumir(String cliente) {
+        AtomicLong proximaChegada = baldes.get(cliente, chave -> new AtomicLong());
+        long agora = System.nanoTime() - origem;
+
+        while (true) {
+            long atual = proximaChegada.get();
+            long chegada = Math.max(atual, agora);
+            long espera = chegada - agora - toleranciaNanos;
+
+            if (espera > 0) {
+                return espera;
+            }
+
+            if (proximaChegada.compareAndSet(atual, chegada + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public long quantidadeClientes() {
+        return baldes.estimatedSize();
+    }
+
+}
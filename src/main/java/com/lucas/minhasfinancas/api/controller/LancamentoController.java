@@ -1,9 +1,25 @@
 package com.lucas.minhasfinancas.api.controller;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,16 +30,43 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.lucas.minhasfinancas.api.dto.AlteracaoLancamentoDTO;
+import com.lucas.minhasfinancas.api.dto.AlteracoesDTO;
 import com.lucas.minhasfinancas.api.dto.AtualizaStatusDTO;
+import com.lucas.minhasfinancas.api.dto.AtualizaStatusLoteDTO;
+import com.lucas.minhasfinancas.api.dto.FiltroLancamentoDTO;
 import com.lucas.minhasfinancas.api.dto.LancamentoDTO;
+import com.lucas.minhasfinancas.api.dto.NotificacaoDTO;
+import com.lucas.minhasfinancas.api.dto.ResultadoLoteDTO;
+import com.lucas.minhasfinancas.api.dto.ResumoAnualDTO;
+import com.lucas.minhasfinancas.api.dto.ResumoMesDTO;
+import com.lucas.minhasfinancas.api.dto.TotalResumoDTO;
 import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+import com.lucas.minhasfinancas.model.entity.AlteracaoLancamento;
 import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.ResumoMensal;
 import com.lucas.minhasfinancas.model.entity.Usuario;
 import com.lucas.minhasfinancas.model.enums.StatusLancamento;
 import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+import com.lucas.minhasfinancas.model.repository.CursorLancamento;
+import com.lucas.minhasfinancas.model.repository.FiltroLancamento;
+import com.lucas.minhasfinancas.model.repository.PaginaLancamento;
+import com.lucas.minhasfinancas.service.AlteracaoLancamentoService;
+import com.lucas.minhasfinancas.service.AnaliseService;
 import com.lucas.minhasfinancas.service.LancamentoService;
+import com.lucas.minhasfinancas.service.Notificacao;
+import com.lucas.minhasfinancas.service.NotificacaoService;
+import com.lucas.minhasfinancas.service.ResultadoLote;
+import com.lucas.minhasfinancas.service.SaldoMensal;
+import com.lucas.minhasfinancas.service.SalvamentoAgrupadoService;
 import com.lucas.minhasfinancas.service.UsuarioService;
+import com.lucas.minhasfinancas.service.VersaoDadosService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -32,8 +75,21 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class LancamentoController {
 
+    static final String HEADER_PROXIMO_CURSOR = "X-Proximo-Cursor";
+    static final int TAMANHO_PADRAO_PAGINA = 50;
+    static final String FORMATO_NDJSON = "ndjson";
+    static final String FORMATO_CSV = "csv";
+    static final int TAMANHO_MAXIMO_LOTE = 5000;
+    static final int TAMANHO_PADRAO_ALTERACOES = 500;
+
     private final LancamentoService service;
     private final UsuarioService usuarioService;
+    private final AnaliseService analiseService;
+    private final VersaoDadosService versaoDadosService;
+    private final SalvamentoAgrupadoService salvamentoAgrupadoService;
+    private final AlteracaoLancamentoService alteracaoService;
+    private final NotificacaoService notificacaoService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/teste/{nome}")
     public String teste(@RequestParam("nome") String nome) {
@@ -44,37 +100,283 @@ public class LancamentoController {
     public ResponseEntity<?> salvarLancamento(@RequestBody LancamentoDTO dto) {
         try {
             Lancamento lancamento = this.converter(dto);
-            lancamento = service.salvar(lancamento);
-            return new ResponseEntity<Lancamento>(lancamento, HttpStatus.CREATED);
+            lancamento = salvamentoAgrupadoService.salvar(lancamento);
+            return new ResponseEntity<LancamentoDTO>(converter(lancamento), HttpStatus.CREATED);
 
         } catch (RegraDeNegocioException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    @PostMapping("/salvarlote")
+    public ResponseEntity<?> salvarLote(@RequestBody List<LancamentoDTO> dtos) {
+        if (dtos.size() > TAMANHO_MAXIMO_LOTE) {
+            return ResponseEntity.badRequest()
+                    .body("Informe no máximo " + TAMANHO_MAXIMO_LOTE + " lançamentos por lote.");
+        }
+
+        // A referência de cada usuário é resolvida uma única vez, por mais itens
+        // que ele tenha no lote.
+        Map<Long, Optional<Usuario>> usuarios = new HashMap<>();
+        List<Lancamento> convertidos = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        List<ResultadoLote.ErroLote> erros = new ArrayList<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            LancamentoDTO dto = dtos.get(i);
+
+            try {
+                Usuario usuario = dto.getUsuario() == null ? null
+                        : usuarios.computeIfAbsent(dto.getUsuario(), usuarioService::obterReferencia)
+                                .orElseThrow(() -> new RegraDeNegocioException(
+                                        "Usuário não encontrado com Id informado."));
+
+                convertidos.add(converter(dto, usuario));
+                indices.add(i);
+
+            } catch (RegraDeNegocioException e) {
+                erros.add(new ResultadoLote.ErroLote(i, e.getMessage()));
+            } catch (IllegalArgumentException e) {
+                erros.add(new ResultadoLote.ErroLote(i, "Informe um Tipo e um Status de Lançamento válidos."));
+            }
+        }
+
+        ResultadoLote resultado = service.salvarEmLote(convertidos);
+
+        for (ResultadoLote.ErroLote erro : resultado.getErros()) {
+            erros.add(new ResultadoLote.ErroLote(indices.get(erro.getIndice()), erro.getMensagem()));
+        }
+
+        erros.sort(Comparator.comparingInt(ResultadoLote.ErroLote::getIndice));
+        resultado.setErros(erros);
+
+        HttpStatus status = resultado.getSalvos().isEmpty() && !erros.isEmpty() ? HttpStatus.BAD_REQUEST
+                : HttpStatus.CREATED;
+        return new ResponseEntity<ResultadoLoteDTO>(converter(resultado), status);
+    }
+
     @GetMapping("/buscar")
-    public ResponseEntity<?> buscarLancamento(@RequestParam(value = "descricao", required = false) String descricao,
-            @RequestParam(value = "mes", required = false) Integer mes,
-            @RequestParam(value = "ano", required = false) Integer ano,
+    public ResponseEntity<?> buscarLancamento(FiltroLancamentoDTO filtroDTO,
+            @RequestParam(value = "usuario") Long idUsuario,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamanho", required = false) Integer tamanho,
+            WebRequest request) {
+
+        Optional<Usuario> usuario = usuarioService.buscarPorId(idUsuario);
+
+        if (!usuario.isPresent()) {
+            return ResponseEntity.badRequest().body("Não foi possível realizar a consulta. Usuário não encontrado.");
+        }
+
+        try {
+            FiltroLancamento filtro = criarFiltro(filtroDTO, idUsuario);
+            CursorLancamento posicao = cursor != null ? CursorLancamento.decodificar(cursor) : null;
+            service.validarFiltro(filtro);
+
+            // A versão é lida antes da busca; com If-None-Match igual, responde 304 sem consultar.
+            if (request.checkNotModified(String.valueOf(versaoDadosService.obterVersao(idUsuario)))) {
+                return null;
+            }
+
+            if (cursor == null && tamanho == null) {
+                List<Lancamento> lancamentos = service.buscar(filtro);
+                return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate())
+                        .body(converter(lancamentos));
+            }
+
+            PaginaLancamento pagina = service.buscarPagina(filtro, posicao,
+                    tamanho != null ? tamanho : TAMANHO_PADRAO_PAGINA);
+
+            ResponseEntity.BodyBuilder resposta = ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate());
+
+            if (pagina.getProximoCursor() != null) {
+                resposta.header(HEADER_PROXIMO_CURSOR, pagina.getProximoCursor().codificar());
+            }
+
+            return resposta.body(converter(pagina.getLancamentos()));
+
+        } catch (RegraDeNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Sincronização incremental: as alterações nos lançamentos do usuário
+     * depois do cursor, em ordem. O custo é proporcional ao que mudou, não ao
+     * total de lançamentos.
+     */
+    @GetMapping("/alteracoes")
+    public ResponseEntity<?> buscarAlteracoes(@RequestParam(value = "usuario") Long idUsuario,
+            @RequestParam(value = "cursor", defaultValue = "0") Long cursor,
+            @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+
+        Optional<Usuario> usuario = usuarioService.buscarPorId(idUsuario);
+
+        if (!usuario.isPresent()) {
+            return ResponseEntity.badRequest()
+                    .body("Não foi possível buscar as alterações. Usuário não encontrado.");
+        }
+
+        try {
+            int tamanhoPagina = tamanho != null ? tamanho : TAMANHO_PADRAO_ALTERACOES;
+            List<AlteracaoLancamento> alteracoes = alteracaoService.buscarAlteracoes(idUsuario, cursor,
+                    tamanhoPagina);
+
+            return ResponseEntity.ok(AlteracoesDTO.builder()
+                    .alteracoes(alteracoes.stream().map(this::converter).collect(Collectors.toList()))
+                    .cursor(alteracoes.isEmpty() ? cursor : alteracoes.get(alteracoes.size() - 1).getSequencia())
+                    .completo(alteracoes.size() < tamanhoPagina)
+                    .build());
+
+        } catch (RegraDeNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Notificações por SSE: o primeiro evento traz o saldo atual e os
+     * seguintes, após cada alteração confirmada, o novo saldo e as alterações.
+     * Ao reconectar, o cliente busca em /alteracoes o que perdeu desde o
+     * último cursor recebido.
+     */
+    @GetMapping(value = "/notificacoes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> inscreverNotificacoes(@RequestParam(value = "usuario") Long idUsuario) {
+
+        Optional<Usuario> usuario = usuarioService.buscarPorId(idUsuario);
+
+        if (!usuario.isPresent()) {
+            return recusarNotificacoes("Não foi possível abrir as notificações. Usuário não encontrado.");
+        }
+
+        try {
+            SseEmitter emissor = notificacaoService.inscrever(idUsuario, this::converter);
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emissor);
+
+        } catch (RegraDeNegocioException e) {
+            return recusarNotificacoes(e.getMessage());
+        }
+    }
+
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarLancamentos(FiltroLancamentoDTO filtroDTO,
+            @RequestParam(value = "usuario") Long idUsuario,
+            @RequestParam(value = "formato", defaultValue = "ndjson") String formato) {
+
+        Optional<Usuario> usuario = usuarioService.buscarPorId(idUsuario);
+
+        if (!usuario.isPresent()) {
+            return ResponseEntity.badRequest()
+                    .body(mensagem("Não foi possível realizar a exportação. Usuário não encontrado."));
+        }
+
+        FiltroLancamento filtro;
+
+        try {
+            // Validado antes do streaming, enquanto ainda é possível responder 400.
+            filtro = criarFiltro(filtroDTO, idUsuario);
+            service.validarFiltro(filtro);
+
+        } catch (RegraDeNegocioException e) {
+            return ResponseEntity.badRequest().body(mensagem(e.getMessage()));
+        }
+
+        // As linhas são escritas na resposta à medida que são lidas do banco.
+        if (FORMATO_CSV.equalsIgnoreCase(formato)) {
+            StreamingResponseBody corpo = saida -> exportar(filtro, saida, true);
+            return ResponseEntity.ok().contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=lancamentos.csv").body(corpo);
+
+        } else if (FORMATO_NDJSON.equalsIgnoreCase(formato)) {
+            StreamingResponseBody corpo = saida -> exportar(filtro, saida, false);
+            return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=lancamentos.ndjson").body(corpo);
+        }
+
+        return ResponseEntity.badRequest().body(mensagem("Formato de exportação inválido. Use ndjson ou csv."));
+    }
+
+    @GetMapping("/resumoanual")
+    public ResponseEntity<?> obterResumoAnual(@RequestParam(value = "usuario") Long idUsuario,
+            @RequestParam(value = "ano") Integer ano) {
+
+        Optional<Usuario> usuario = usuarioService.buscarPorId(idUsuario);
+
+        if (!usuario.isPresent()) {
+            return ResponseEntity.badRequest().body("Não foi possível realizar a consulta. Usuário não encontrado.");
+        }
+
+        return ResponseEntity.ok(converter(idUsuario, ano, service.obterResumoAnual(idUsuario, ano)));
+    }
+
+    @GetMapping("/analise/total")
+    public ResponseEntity<?> totalizar(FiltroLancamentoDTO filtroDTO,
             @RequestParam(value = "usuario") Long idUsuario) {
 
         Optional<Usuario> usuario = usuarioService.buscarPorId(idUsuario);
 
-        Lancamento lancamentoFiltro = new Lancamento();
-        lancamentoFiltro.setDescricao(descricao);
-        lancamentoFiltro.setMes(mes);
-        lancamentoFiltro.setAno(ano);
+        if (!usuario.isPresent()) {
+            return ResponseEntity.badRequest().body("Não foi possível realizar a consulta. Usuário não encontrado.");
+        }
+
+        try {
+            FiltroLancamento filtro = criarFiltro(filtroDTO, idUsuario);
+            service.validarFiltro(filtro);
+            return ResponseEntity.ok(analiseService.totalizar(filtro));
+
+        } catch (RegraDeNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/analise/saldosmensais")
+    public ResponseEntity<?> obterSaldosMensais(@RequestParam(value = "usuario") Long idUsuario,
+            @RequestParam(value = "anoInicial") Integer anoInicial,
+            @RequestParam(value = "mesInicial", defaultValue = "1") Integer mesInicial,
+            @RequestParam(value = "anoFinal") Integer anoFinal,
+            @RequestParam(value = "mesFinal", defaultValue = "12") Integer mesFinal,
+            @RequestParam(value = "status", required = false) String status) {
+
+        Optional<Usuario> usuario = usuarioService.buscarPorId(idUsuario);
 
         if (!usuario.isPresent()) {
             return ResponseEntity.badRequest().body("Não foi possível realizar a consulta. Usuário não encontrado.");
+        }
+
+        try {
+            StatusLancamento statusSelecionado = status != null ? StatusLancamento.valueOf(status) : null;
+            return new ResponseEntity<List<SaldoMensal>>(analiseService.obterSaldosMensais(idUsuario, anoInicial,
+                    mesInicial, anoFinal, mesFinal, statusSelecionado), HttpStatus.OK);
 
-        } else {
-            lancamentoFiltro.setUsuario(usuario.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Informe um Status de Lançamento válido.");
+
+        } catch (RegraDeNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
+    }
+
+    @GetMapping("/analise/maiores")
+    public ResponseEntity<?> obterMaiores(@RequestParam(value = "usuario") Long idUsuario,
+            @RequestParam(value = "tipo", required = false) String tipo,
+            @RequestParam(value = "quantidade", defaultValue = "10") Integer quantidade) {
+
+        Optional<Usuario> usuario = usuarioService.buscarPorId(idUsuario);
+
+        if (!usuario.isPresent()) {
+            return ResponseEntity.badRequest().body("Não foi possível realizar a consulta. Usuário não encontrado.");
+        }
+
+        try {
+            TipoLancamento tipoSelecionado = tipo != null ? TipoLancamento.valueOf(tipo) : null;
+            return new ResponseEntity<List<LancamentoDTO>>(
+                    converter(analiseService.obterMaiores(idUsuario, tipoSelecionado, quantidade)), HttpStatus.OK);
 
-        List<Lancamento> lancamentos = service.buscar(lancamentoFiltro);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Informe um Tipo de Lançamento válido.");
 
-        return new ResponseEntity<List<Lancamento>>(lancamentos, HttpStatus.OK);
+        } catch (RegraDeNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PutMapping("/atualizarlancamento/{id}")
@@ -84,8 +386,13 @@ public class LancamentoController {
             try {
                 Lancamento lancamento = converter(dto);
                 lancamento.setId(entity.getId());
+
+                if (lancamento.getStatus() == null) {
+                    lancamento.setStatus(entity.getStatus());
+                }
+
                 service.atualizar(lancamento);
-                return ResponseEntity.ok(lancamento);
+                return ResponseEntity.ok(converter(lancamento));
 
             } catch (RegraDeNegocioException e) {
                 return ResponseEntity.badRequest().body(e.getMessage());
@@ -119,7 +426,7 @@ public class LancamentoController {
             try {
                 entity.setStatus(statusSelecionado);
                 service.atualizar(entity);
-                return ResponseEntity.ok(entity);
+                return ResponseEntity.ok(converter(entity));
             } catch (RegraDeNegocioException e) {
                 return ResponseEntity.badRequest().body(e.getMessage());
             }
@@ -127,17 +434,215 @@ public class LancamentoController {
         }).orElseGet(() -> new ResponseEntity<>("Lançamento não encontrado na base de dados", HttpStatus.BAD_REQUEST));
     }
 
+    @PutMapping("/atualizarstatuslote")
+    public ResponseEntity<?> atualizarStatusEmLote(@RequestBody AtualizaStatusLoteDTO dto) {
+        StatusLancamento statusSelecionado;
+
+        try {
+            statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return ResponseEntity.badRequest()
+                    .body("Não foi possível atualizar o status dos lançamentos. Status inválido.");
+        }
+
+        if (dto.getIds() != null && !dto.getIds().isEmpty()) {
+            if (dto.getIds().size() > TAMANHO_MAXIMO_LOTE) {
+                return ResponseEntity.badRequest()
+                        .body("Informe no máximo " + TAMANHO_MAXIMO_LOTE + " lançamentos por lote.");
+            }
+
+            return ResponseEntity.ok(service.atualizarStatusEmLote(dto.getIds(), statusSelecionado));
+        }
+
+        if (dto.getUsuario() == null) {
+            return ResponseEntity.badRequest().body("Informe os lançamentos ou o usuário a ser atualizado.");
+        }
+
+        return ResponseEntity.ok(
+                service.atualizarStatusEmLote(dto.getUsuario(), dto.getMes(), dto.getAno(), statusSelecionado));
+    }
+
+    /**
+     * O corpo de um endpoint SSE é sempre um emissor; a mensagem vai em um
+     * evento "erro". Com status 400, o EventSource não tenta reconectar.
+     */
+    private ResponseEntity<SseEmitter> recusarNotificacoes(String mensagem) {
+        SseEmitter emissor = new SseEmitter();
+
+        try {
+            emissor.send(SseEmitter.event().name("erro").data(mensagem));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        emissor.complete();
+        return ResponseEntity.badRequest().body(emissor);
+    }
+
+    private FiltroLancamento criarFiltro(FiltroLancamentoDTO dto, Long idUsuario) {
+        FiltroLancamento filtro = FiltroLancamento.builder()
+                .idUsuario(idUsuario)
+                .descricao(dto.getDescricao())
+                .mes(dto.getMes())
+                .ano(dto.getAno())
+                .anoInicial(dto.getAnoInicial())
+                .mesInicial(dto.getMesInicial())
+                .anoFinal(dto.getAnoFinal())
+                .mesFinal(dto.getMesFinal())
+                .valorMinimo(dto.getValorMinimo())
+                .valorMaximo(dto.getValorMaximo())
+                .build();
+
+        try {
+            if (dto.getTipo() != null) {
+                filtro.setTipo(TipoLancamento.valueOf(dto.getTipo()));
+            }
+
+            if (dto.getStatus() != null) {
+                filtro.setStatus(StatusLancamento.valueOf(dto.getStatus()));
+            }
+
+        } catch (IllegalArgumentException e) {
+            throw new RegraDeNegocioException("Informe um Tipo e um Status de Lançamento válidos.");
+        }
+
+        return filtro;
+    }
+
+    private void exportar(FiltroLancamento filtro, OutputStream saida, boolean csv) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+
+        if (csv) {
+            writer.write("id,descricao,mes,ano,valor,usuario,tipo,status\n");
+        }
+
+        service.exportar(filtro, lancamento -> {
+            try {
+                LancamentoDTO dto = converter(lancamento);
+                writer.write(csv ? linhaCsv(dto) : objectMapper.writeValueAsString(dto));
+                writer.write('\n');
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        writer.flush();
+    }
+
+    private StreamingResponseBody mensagem(String mensagem) {
+        return saida -> saida.write(mensagem.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String linhaCsv(LancamentoDTO dto) {
+        String descricao = dto.getDescricao() == null ? "" : dto.getDescricao().replace("\"", "\"\"");
+
+        return dto.getId() + ",\"" + descricao + "\"," + dto.getMes() + "," + dto.getAno() + ","
+                + (dto.getValor() == null ? "" : dto.getValor().toPlainString()) + "," + dto.getUsuario() + ","
+                + (dto.getTipo() == null ? "" : dto.getTipo()) + ","
+                + (dto.getStatus() == null ? "" : dto.getStatus());
+    }
+
+    private AlteracaoLancamentoDTO converter(AlteracaoLancamento alteracao) {
+        return AlteracaoLancamentoDTO.builder()
+                .sequencia(alteracao.getSequencia())
+                .operacao(alteracao.getOperacao().name())
+                .lancamento(LancamentoDTO.builder()
+                        .id(alteracao.getIdLancamento())
+                        .descricao(alteracao.getDescricao())
+                        .mes(alteracao.getMes())
+                        .ano(alteracao.getAno())
+                        .valor(alteracao.getValor())
+                        .usuario(alteracao.getIdUsuario())
+                        .tipo(alteracao.getTipo() == null ? null : alteracao.getTipo().name())
+                        .status(alteracao.getStatus() == null ? null : alteracao.getStatus().name())
+                        .build())
+                .build();
+    }
+
+    private NotificacaoDTO converter(Notificacao notificacao) {
+        List<AlteracaoLancamento> alteracoes = notificacao.getAlteracoes();
+
+        return NotificacaoDTO.builder()
+                .saldo(notificacao.getSaldo())
+                .alteracoes(alteracoes.stream().map(this::converter).collect(Collectors.toList()))
+                .cursor(alteracoes.isEmpty() ? null : alteracoes.get(alteracoes.size() - 1).getSequencia())
+                .build();
+    }
+
+    private ResultadoLoteDTO converter(ResultadoLote resultado) {
+        return ResultadoLoteDTO.builder().salvos(converter(resultado.getSalvos())).erros(resultado.getErros())
+                .build();
+    }
+
+    /**
+     * Monta os doze meses do ano, inclusive os que não têm lançamentos.
+     */
+    private ResumoAnualDTO converter(Long idUsuario, Integer ano, List<ResumoMensal> resumos) {
+        List<ResumoMesDTO> meses = new ArrayList<>();
+
+        for (int mes = 1; mes <= 12; mes++) {
+            meses.add(ResumoMesDTO.builder().mes(mes).receitas(BigDecimal.ZERO).despesas(BigDecimal.ZERO)
+                    .saldo(BigDecimal.ZERO).totais(new ArrayList<>()).build());
+        }
+
+        for (ResumoMensal resumo : resumos) {
+            ResumoMesDTO mes = meses.get(resumo.getMes() - 1);
+
+            if (resumo.getTipo() == TipoLancamento.RECEITA) {
+                mes.setReceitas(mes.getReceitas().add(resumo.getTotal()));
+                mes.setSaldo(mes.getSaldo().add(resumo.getTotal()));
+            } else {
+                mes.setDespesas(mes.getDespesas().add(resumo.getTotal()));
+                mes.setSaldo(mes.getSaldo().subtract(resumo.getTotal()));
+            }
+
+            mes.getTotais().add(TotalResumoDTO.builder().tipo(resumo.getTipo().name())
+                    .status(resumo.getStatus().name()).total(resumo.getTotal()).quantidade(resumo.getQuantidade())
+                    .build());
+        }
+
+        return ResumoAnualDTO.builder().usuario(idUsuario).ano(ano).meses(meses).build();
+    }
+
+    private List<LancamentoDTO> converter(List<Lancamento> lancamentos) {
+        return lancamentos.stream().map(this::converter).collect(Collectors.toList());
+    }
+
+    /**
+     * O usuário vai apenas como id. Em um proxy não inicializado, getId não
+     * dispara a carga do usuário.
+     */
+    private LancamentoDTO converter(Lancamento lancamento) {
+        return LancamentoDTO.builder()
+                .id(lancamento.getId())
+                .descricao(lancamento.getDescricao())
+                .mes(lancamento.getMes())
+                .ano(lancamento.getAno())
+                .valor(lancamento.getValor())
+                .usuario(lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId())
+                .tipo(lancamento.getTipo() == null ? null : lancamento.getTipo().name())
+                .status(lancamento.getStatus() == null ? null : lancamento.getStatus().name())
+                .build();
+    }
+
     private Lancamento converter(LancamentoDTO dto) {
+        Usuario usuario = usuarioService.obterReferencia(dto.getUsuario())
+                .orElseThrow(() -> new RegraDeNegocioException("Usuário não encontrado com Id informado."));
+
+        return converter(dto, usuario);
+    }
+
+    /**
+     * O id do DTO nunca é copiado: nas inclusões ele vem do banco e na
+     * atualização, do caminho da requisição.
+     */
+    private Lancamento converter(LancamentoDTO dto, Usuario usuario) {
         Lancamento lancamento = new Lancamento();
-        lancamento.setId(dto.getId());
         lancamento.setDescricao(dto.getDescricao());
         lancamento.setMes(dto.getMes());
         lancamento.setAno(dto.getAno());
         lancamento.setValor(dto.getValor());
-
-        Usuario usuario = usuarioService.buscarPorId(dto.getUsuario())
-                .orElseThrow(() -> new RegraDeNegocioException("Usuário não encontrado com Id informado."));
-
         lancamento.setUsuario(usuario);
 
         if (dto.getTipo() != null) {
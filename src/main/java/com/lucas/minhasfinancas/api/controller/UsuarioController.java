@@ -5,6 +5,7 @@ import java.util.Optional;
 
 import javax.transaction.Transactional;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.lucas.minhasfinancas.api.dto.UsuarioDTO;
 import com.lucas.minhasfinancas.exception.ErroAutenticacao;
@@ -20,6 +22,7 @@ import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
 import com.lucas.minhasfinancas.model.entity.Usuario;
 import com.lucas.minhasfinancas.service.LancamentoService;
 import com.lucas.minhasfinancas.service.UsuarioService;
+import com.lucas.minhasfinancas.service.VersaoDadosService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -30,6 +33,7 @@ public class UsuarioController {
 
     private final UsuarioService service;
     private final LancamentoService lancamentoService;
+    private final VersaoDadosService versaoDadosService;
 
     @PostMapping("/salvarusuario")
     @Transactional
@@ -61,15 +65,20 @@ public class UsuarioController {
     }
 
     @GetMapping("/consultarsaldo/{id}")
-    public ResponseEntity<?> consultarSaldo(@PathVariable Long id) {
+    public ResponseEntity<?> consultarSaldo(@PathVariable Long id, WebRequest request) {
         Optional<Usuario> usuario = service.buscarPorId(id);
 
         if (!usuario.isPresent()) {
             return new ResponseEntity<Usuario>(HttpStatus.NOT_FOUND);
         }
 
+        // A versão é lida antes do saldo; com If-None-Match igual, responde 304 sem consultar.
+        if (request.checkNotModified(String.valueOf(versaoDadosService.obterVersao(id)))) {
+            return null;
+        }
+
         BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
 
-        return ResponseEntity.ok(saldo);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(saldo);
     }
 }
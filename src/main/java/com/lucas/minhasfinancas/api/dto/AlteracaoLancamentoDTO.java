@@ -0,0 +1,13 @@
+package com.lucas.minhasfinancas.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AlteracaoLancamentoDTO {
+
+    private Long sequencia;
+    private String operacao;
+    private LancamentoDTO lancamento;
+}
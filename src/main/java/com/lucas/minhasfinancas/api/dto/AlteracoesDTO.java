@@ -0,0 +1,20 @@
+package com.lucas.minhasfinancas.api.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Página de alterações. O cursor é a sequência da última alteração entregue
+ * (ou o cursor recebido, se não houve nenhuma) e deve ser enviado na próxima
+ * sincronização; com {@code completo} falso, há mais alterações a buscar.
+ */
+@Data
+@Builder
+public class AlteracoesDTO {
+
+    private List<AlteracaoLancamentoDTO> alteracoes;
+    private Long cursor;
+    private boolean completo;
+}
@@ -0,0 +1,31 @@
+package com.lucas.minhasfinancas.api.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Parâmetros de consulta opcionais de buscar e exportar.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroLancamentoDTO {
+
+    private String descricao;
+    private Integer mes;
+    private Integer ano;
+    private Integer anoInicial;
+    private Integer mesInicial;
+    private Integer anoFinal;
+    private Integer mesFinal;
+    private BigDecimal valorMinimo;
+    private BigDecimal valorMaximo;
+    private String tipo;
+    private String status;
+
+}
@@ -0,0 +1,20 @@
+package com.lucas.minhasfinancas.api.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Evento das notificações: o saldo atual e as alterações confirmadas. O
+ * cursor é a sequência da última alteração do evento, ou nulo se não houver.
+ */
+@Data
+@Builder
+public class NotificacaoDTO {
+
+    private BigDecimal saldo;
+    private List<AlteracaoLancamentoDTO> alteracoes;
+    private Long cursor;
+}
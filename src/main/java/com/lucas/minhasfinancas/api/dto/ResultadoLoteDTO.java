@@ -0,0 +1,21 @@
+package com.lucas.minhasfinancas.api.dto;
+
+import java.util.List;
+
+import com.lucas.minhasfinancas.service.ResultadoLote;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+
+    private List<LancamentoDTO> salvos;
+    private List<ResultadoLote.ErroLote> erros;
+
+}
@@ -0,0 +1,20 @@
+package com.lucas.minhasfinancas.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoAnualDTO {
+
+    private Long usuario;
+    private Integer ano;
+    private List<ResumoMesDTO> meses;
+
+}
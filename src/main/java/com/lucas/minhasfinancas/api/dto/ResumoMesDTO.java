@@ -0,0 +1,28 @@
+package com.lucas.minhasfinancas.api.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totais de um mês. Receitas, despesas e saldo consideram todos os status,
+ * assim como o saldo do usuário; o detalhamento por tipo e status vai em
+ * totais.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMesDTO {
+
+    private Integer mes;
+    private BigDecimal receitas;
+    private BigDecimal despesas;
+    private BigDecimal saldo;
+    private List<TotalResumoDTO> totais;
+
+}
@@ -0,0 +1,21 @@
+package com.lucas.minhasfinancas.api.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalResumoDTO {
+
+    private String tipo;
+    private String status;
+    private BigDecimal total;
+    private Long quantidade;
+
+}
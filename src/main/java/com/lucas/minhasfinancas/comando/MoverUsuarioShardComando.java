@@ -0,0 +1,46 @@
+package com.lucas.minhasfinancas.comando;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.lucas.minhasfinancas.roteamento.MigracaoShards;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Move os dados de um usuário para outro shard e encerra a aplicação.
+ * Uso: {@code java -jar minhasfinancas.jar --minhasfinancas.shards.mover-usuario=42
+ * --minhasfinancas.shards.destino=1}, com os shards habilitados.
+ */
+@Component
+@ConditionalOnProperty("minhasfinancas.shards.mover-usuario")
+@RequiredArgsConstructor
+public class MoverUsuarioShardComando implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MoverUsuarioShardComando.class);
+
+    private final MigracaoShards migracaoShards;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${minhasfinancas.shards.mover-usuario}")
+    private Long idUsuario;
+
+    @Value("${minhasfinancas.shards.destino}")
+    private int destino;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Movendo o usuário {} para o shard {}.", idUsuario, destino);
+        migracaoShards.mover(idUsuario, destino);
+
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+}
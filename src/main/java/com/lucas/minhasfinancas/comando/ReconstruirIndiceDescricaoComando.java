@@ -0,0 +1,42 @@
+package com.lucas.minhasfinancas.comando;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.IndiceDescricaoService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Recria o índice de trigramas das descrições a partir dos lançamentos e
+ * encerra a aplicação.
+ * Uso: {@code java -jar minhasfinancas.jar --minhasfinancas.indice-descricao.reconstruir=true}
+ */
+@Component
+@ConditionalOnProperty("minhasfinancas.indice-descricao.reconstruir")
+@RequiredArgsConstructor
+public class ReconstruirIndiceDescricaoComando implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconstruirIndiceDescricaoComando.class);
+
+    private final IndiceDescricaoService indiceDescricaoService;
+    private final Shards shards;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Reconstruindo o índice de descrições dos lançamentos.");
+        shards.emCadaShard(indiceDescricaoService::reconstruirIndice);
+        log.info("Índice de descrições reconstruído.");
+
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+}
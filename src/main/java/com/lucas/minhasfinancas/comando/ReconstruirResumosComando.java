@@ -0,0 +1,41 @@
+package com.lucas.minhasfinancas.comando;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.ResumoService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Recalcula o resumo mensal a partir dos lançamentos e encerra a aplicação.
+ * Uso: {@code java -jar minhasfinancas.jar --minhasfinancas.resumos.reconstruir=true}
+ */
+@Component
+@ConditionalOnProperty("minhasfinancas.resumos.reconstruir")
+@RequiredArgsConstructor
+public class ReconstruirResumosComando implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconstruirResumosComando.class);
+
+    private final ResumoService resumoService;
+    private final Shards shards;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Reconstruindo o resumo mensal dos lançamentos.");
+        shards.emCadaShard(resumoService::reconstruirResumos);
+        log.info("Resumo mensal reconstruído.");
+
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+}
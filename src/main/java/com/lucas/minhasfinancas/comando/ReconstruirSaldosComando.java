@@ -0,0 +1,41 @@
+package com.lucas.minhasfinancas.comando;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.SaldoService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Recalcula a tabela de saldos a partir dos lançamentos e encerra a aplicação.
+ * Uso: {@code java -jar minhasfinancas.jar --minhasfinancas.saldos.reconstruir=true}
+ */
+@Component
+@ConditionalOnProperty("minhasfinancas.saldos.reconstruir")
+@RequiredArgsConstructor
+public class ReconstruirSaldosComando implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconstruirSaldosComando.class);
+
+    private final SaldoService saldoService;
+    private final Shards shards;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Reconstruindo a tabela de saldos por usuário.");
+        shards.emCadaShard(saldoService::reconstruirSaldos);
+        log.info("Tabela de saldos reconstruída.");
+
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.lucas.minhasfinancas.model.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import org.springframework.data.domain.Persistable;
+
+import com.lucas.minhasfinancas.model.enums.OperacaoLancamento;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Registro de uma alteração nos lançamentos de um usuário, gravado na mesma
+ * transação da alteração e nunca modificado depois. A sequência é própria de
+ * cada usuário e a chave primária é (id_usuario, sequencia), então as
+ * alterações depois de um cursor são uma leitura por faixa. Inclusões e
+ * alterações trazem o lançamento inteiro; mudanças de status em lote, só o
+ * novo status; exclusões, só o id.
+ */
+@Entity
+@Table(name = "alteracao_lancamento", schema = "financas")
+@IdClass(AlteracaoLancamento.Chave.class)
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlteracaoLancamento implements Persistable<AlteracaoLancamento.Chave> {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Id
+    private Long sequencia;
+
+    @Column(name = "id_lancamento")
+    private Long idLancamento;
+
+    @Enumerated(value = EnumType.STRING)
+    private OperacaoLancamento operacao;
+
+    private String descricao;
+    private Integer mes;
+    private Integer ano;
+    private BigDecimal valor;
+
+    @Enumerated(value = EnumType.STRING)
+    private TipoLancamento tipo;
+
+    @Enumerated(value = EnumType.STRING)
+    private StatusLancamento status;
+
+    @Override
+    public Chave getId() {
+        return new Chave(idUsuario, sequencia);
+    }
+
+    /**
+     * O registro é só incluído, nunca atualizado.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long idUsuario;
+        private Long sequencia;
+    }
+
+}
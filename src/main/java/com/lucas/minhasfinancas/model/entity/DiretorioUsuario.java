@@ -0,0 +1,36 @@
+package com.lucas.minhasfinancas.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrada do diretório de shards: em qual banco estão os dados do usuário.
+ * Lida e gravada por JDBC em DiretorioUsuarios, no pool do diretório; o
+ * mapeamento aqui só descreve a tabela.
+ */
+@Entity
+@Table(name = "diretorio_usuario", schema = "financas", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_diretorio_usuario_email", columnNames = "email") })
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiretorioUsuario {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    private String email;
+
+    private Integer shard;
+
+}
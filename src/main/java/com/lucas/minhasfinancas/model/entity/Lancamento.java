@@ -7,11 +7,14 @@ import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
@@ -23,24 +26,33 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
-@Table(schema = "financas")
+@Table(schema = "financas", indexes = {
+        @Index(name = "idx_lancamento_usuario_ano_mes_id", columnList = "id_usuario, ano, mes, id"),
+        @Index(name = "idx_lancamento_usuario_tipo_status", columnList = "id_usuario, tipo, status") })
 @Builder
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Lancamento {
 
+    /** Ids reservados a cada chamada da sequence (incremento da lancamento_seq). */
+    public static final int TAMANHO_BLOCO_ID = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+    @SequenceGenerator(name = "lancamento_seq", sequenceName = "lancamento_seq", schema = "financas",
+            allocationSize = TAMANHO_BLOCO_ID)
     private Long id;
     private String descricao;
     private Integer mes;
     private Integer ano;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_usuario")
+    @ToString.Exclude
     private Usuario usuario;
 
     private BigDecimal valor;
@@ -0,0 +1,88 @@
+package com.lucas.minhasfinancas.model.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import org.springframework.data.domain.Persistable;
+
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Total e quantidade de lançamentos de um usuário por (ano, mes, tipo, status),
+ * mantidos a cada alteração de lançamento. A chave primária começa por
+ * (id_usuario, ano), então o resumo de um ano é uma leitura por faixa.
+ */
+@Entity
+@Table(name = "resumo_mensal", schema = "financas")
+@IdClass(ResumoMensal.Chave.class)
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMensal implements Persistable<ResumoMensal.Chave> {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Id
+    private Integer ano;
+
+    @Id
+    private Integer mes;
+
+    @Id
+    @Enumerated(value = EnumType.STRING)
+    private TipoLancamento tipo;
+
+    @Id
+    @Enumerated(value = EnumType.STRING)
+    private StatusLancamento status;
+
+    private BigDecimal total;
+
+    private Long quantidade;
+
+    @Override
+    public Chave getId() {
+        return new Chave(idUsuario, ano, mes, tipo, status);
+    }
+
+    /**
+     * Os totais só mudam pelos UPDATEs incrementais; linhas novas vêm de
+     * {@code criarSeAusente} ou da reconstrução.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long idUsuario;
+        private Integer ano;
+        private Integer mes;
+        private TipoLancamento tipo;
+        private StatusLancamento status;
+    }
+
+}
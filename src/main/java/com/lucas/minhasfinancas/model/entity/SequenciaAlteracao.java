@@ -0,0 +1,49 @@
+package com.lucas.minhasfinancas.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.springframework.data.domain.Persistable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Última sequência de alteração usada por um usuário. O UPDATE que reserva
+ * novas sequências trava a linha até o commit, então as alterações de um
+ * usuário são confirmadas na ordem da sequência e um cursor nunca passa por
+ * cima de uma alteração ainda não confirmada.
+ */
+@Entity
+@Table(name = "sequencia_alteracao", schema = "financas")
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SequenciaAlteracao implements Persistable<Long> {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    private Long ultima;
+
+    @Override
+    public Long getId() {
+        return idUsuario;
+    }
+
+    /**
+     * A última sequência só muda pelo UPDATE que reserva as sequências; a
+     * linha é criada por {@code criarSeAusente}.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+}
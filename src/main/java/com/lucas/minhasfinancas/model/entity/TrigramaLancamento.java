@@ -0,0 +1,88 @@
+package com.lucas.minhasfinancas.model.entity;
+
+import java.io.Serializable;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import org.springframework.data.domain.Persistable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrada do índice de trigramas da descrição dos lançamentos. Cada trigrama
+ * (três caracteres consecutivos da descrição em minúsculas) aponta para o
+ * lançamento que o contém, permitindo resolver buscas por trecho da descrição
+ * sem varrer todos os lançamentos do usuário.
+ */
+@Entity
+@Table(name = "trigrama_lancamento", schema = "financas", indexes = {
+        @Index(name = "idx_trigrama_lancamento_usuario", columnList = "id_usuario, trigrama, id_lancamento"),
+        @Index(name = "idx_trigrama_lancamento_lancamento", columnList = "id_lancamento") })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrigramaLancamento implements Persistable<TrigramaLancamento.Chave> {
+
+    public static final int TAMANHO = 3;
+
+    @EmbeddedId
+    private Chave id;
+
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    /**
+     * As entradas só são inseridas ou removidas, nunca alteradas; assim o save
+     * não precisa consultar a chave antes de inserir.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    /**
+     * Trigramas distintos do texto, sem diferenciar maiúsculas. Textos com menos
+     * de {@value #TAMANHO} caracteres não possuem trigramas.
+     */
+    public static Set<String> extrair(String texto) {
+        Set<String> trigramas = new LinkedHashSet<>();
+
+        if (texto == null) {
+            return trigramas;
+        }
+
+        String normalizado = texto.toLowerCase(Locale.ROOT);
+
+        for (int i = 0; i + TAMANHO <= normalizado.length(); i++) {
+            trigramas.add(normalizado.substring(i, i + TAMANHO));
+        }
+
+        return trigramas;
+    }
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Column(name = "trigrama", length = TAMANHO)
+        private String trigrama;
+
+        @Column(name = "id_lancamento")
+        private Long idLancamento;
+    }
+
+}
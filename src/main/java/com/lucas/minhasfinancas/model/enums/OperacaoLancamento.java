@@ -0,0 +1,8 @@
+package com.lucas.minhasfinancas.model.enums;
+
+public enum OperacaoLancamento {
+    INCLUSAO,
+    ALTERACAO,
+    ALTERACAO_STATUS,
+    EXCLUSAO
+}
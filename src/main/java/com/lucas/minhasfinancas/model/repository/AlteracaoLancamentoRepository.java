@@ -0,0 +1,15 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.lucas.minhasfinancas.model.entity.AlteracaoLancamento;
+
+public interface AlteracaoLancamentoRepository extends JpaRepository<AlteracaoLancamento, AlteracaoLancamento.Chave> {
+
+    List<AlteracaoLancamento> findByIdUsuarioAndSequenciaGreaterThanOrderBySequencia(Long idUsuario, Long sequencia,
+            Pageable pagina);
+
+}
@@ -0,0 +1,43 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Posição da última linha entregue na ordenação (ano, mes, id). A próxima
+ * página começa imediatamente depois dela.
+ */
+@Data
+@AllArgsConstructor
+public class CursorLancamento {
+
+    private Integer ano;
+    private Integer mes;
+    private Long id;
+
+    public static CursorLancamento de(Lancamento lancamento) {
+        return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+    }
+
+    public String codificar() {
+        String valor = ano + ":" + mes + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorLancamento decodificar(String cursor) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            return new CursorLancamento(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]),
+                    Long.valueOf(partes[2]));
+
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new RegraDeNegocioException("Cursor de paginação inválido.");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Projeção com os campos de um lançamento como estão gravados na base,
+ * usada para calcular a diferença entre o estado anterior e o novo.
+ */
+public interface EstadoLancamento {
+
+    Long getIdUsuario();
+
+    TipoLancamento getTipo();
+
+    BigDecimal getValor();
+
+    String getDescricao();
+
+    Integer getAno();
+
+    Integer getMes();
+
+    StatusLancamento getStatus();
+}
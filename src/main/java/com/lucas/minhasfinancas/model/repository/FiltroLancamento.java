@@ -0,0 +1,37 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Critérios de busca de lançamentos. Campos nulos não filtram. O período vai
+ * de (anoInicial, mesInicial) até (anoFinal, mesFinal), inclusive; sem o mês,
+ * vale o ano inteiro. Os valores mínimo e máximo também são inclusivos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroLancamento {
+
+    private Long idUsuario;
+    private String descricao;
+    private Integer mes;
+    private Integer ano;
+    private Integer anoInicial;
+    private Integer mesInicial;
+    private Integer anoFinal;
+    private Integer mesFinal;
+    private BigDecimal valorMinimo;
+    private BigDecimal valorMaximo;
+    private TipoLancamento tipo;
+    private StatusLancamento status;
+
+}
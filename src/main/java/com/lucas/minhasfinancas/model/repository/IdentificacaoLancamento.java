@@ -0,0 +1,11 @@
+package com.lucas.minhasfinancas.model.repository;
+
+/**
+ * Id de um lançamento e do seu usuário.
+ */
+public interface IdentificacaoLancamento {
+
+    Long getId();
+
+    Long getIdUsuario();
+}
@@ -1,18 +1,83 @@
 package com.lucas.minhasfinancas.model.repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
 import com.lucas.minhasfinancas.model.enums.TipoLancamento;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryCustom {
 
     @Query(value = "SELECT sum(l.valor) FROM Lancamento l join l.usuario u WHERE u.id = :idUsuario and l.tipo = :tipo GROUP BY u")
     BigDecimal obterSaldoPorTipoDeLancamentoEUsuario(@Param("idUsuario") Long idUsuario,
             @Param("tipo") TipoLancamento tipo);
 
+    /**
+     * Lê o estado gravado do lançamento sem disparar o flush da sessão, de modo
+     * que alterações ainda pendentes na entidade gerenciada não sejam vistas.
+     */
+    @Query(value = "SELECT l.usuario.id as idUsuario, l.tipo as tipo, l.valor as valor, l.descricao as descricao, "
+            + "l.ano as ano, l.mes as mes, l.status as status FROM Lancamento l WHERE l.id = :id")
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+    Optional<EstadoLancamento> obterEstado(@Param("id") Long id);
+
+    /**
+     * Lançamentos gravados sem status (um PUT sem status gravava NULL) também
+     * mudam; o {@code <>} sozinho nunca é verdadeiro para eles.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE Lancamento l SET l.status = :status "
+            + "WHERE l.id IN :ids AND (l.status <> :status OR l.status IS NULL)")
+    int atualizarStatus(@Param("ids") Collection<Long> ids, @Param("status") StatusLancamento status);
+
+    /**
+     * Totais, por grupo do resumo mensal, dos lançamentos que
+     * {@link #atualizarStatus(Collection, StatusLancamento)} vai alterar.
+     */
+    @Query(value = "SELECT l.usuario.id as idUsuario, l.ano as ano, l.mes as mes, l.tipo as tipo, l.status as status, "
+            + "sum(l.valor) as total, count(l) as quantidade FROM Lancamento l "
+            + "WHERE l.id IN :ids AND (l.status <> :status OR l.status IS NULL) "
+            + "GROUP BY l.usuario.id, l.ano, l.mes, l.tipo, l.status")
+    List<TotalLancamentos> totalizarParaStatus(@Param("ids") Collection<Long> ids,
+            @Param("status") StatusLancamento status);
+
+    /**
+     * Lançamentos que {@link #atualizarStatus(Collection, StatusLancamento)} vai
+     * alterar.
+     */
+    @Query(value = "SELECT l.id as id, l.usuario.id as idUsuario FROM Lancamento l "
+            + "WHERE l.id IN :ids AND (l.status <> :status OR l.status IS NULL)")
+    List<IdentificacaoLancamento> listarParaStatus(@Param("ids") Collection<Long> ids,
+            @Param("status") StatusLancamento status);
+
+    /**
+     * Remove o lançamento com uma única instrução, sem carregar a entidade como
+     * faz o {@code deleteById}.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM Lancamento l WHERE l.id = :id")
+    int excluir(@Param("id") Long id);
+
+    /**
+     * Lê os campos de análise de todos os lançamentos do usuário em blocos. Deve
+     * ser consumido dentro de uma transação e fechado ao final.
+     */
+    @Query(value = "SELECT l.id as id, l.valor as valor, l.ano as ano, l.mes as mes, l.tipo as tipo, "
+            + "l.status as status FROM Lancamento l WHERE l.usuario.id = :idUsuario")
+    @QueryHints({ @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true") })
+    Stream<ValoresLancamento> percorrerValores(@Param("idUsuario") Long idUsuario);
+
 }
@@ -0,0 +1,51 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+
+public interface LancamentoRepositoryCustom {
+
+    /**
+     * Busca os lançamentos que satisfazem o filtro. Termos de descrição com pelo
+     * menos três caracteres são resolvidos primeiro pelo índice de trigramas.
+     */
+    List<Lancamento> buscar(FiltroLancamento filtro);
+
+    /**
+     * Busca até {@code tamanho} lançamentos que satisfazem o filtro, ordenados por
+     * (ano, mes, id) e posicionados depois do cursor informado.
+     */
+    PaginaLancamento buscarPagina(FiltroLancamento filtro, CursorLancamento cursor, int tamanho);
+
+    /**
+     * Percorre todos os lançamentos que satisfazem o filtro, na mesma ordem de
+     * {@link #buscarPagina}, lendo do banco em blocos sem manter as linhas já
+     * entregues na sessão. Deve ser chamado dentro de uma transação.
+     */
+    void percorrer(FiltroLancamento filtro, Consumer<Lancamento> consumidor);
+
+    /**
+     * Altera, em um único UPDATE, o status dos lançamentos do usuário no
+     * mês/ano informados (quando não nulos) que ainda não estão no status
+     * desejado. Retorna a quantidade de linhas alteradas.
+     */
+    int atualizarStatus(Long idUsuario, Integer mes, Integer ano, StatusLancamento status);
+
+    /**
+     * Totais, por grupo do resumo mensal, dos lançamentos que
+     * {@link #atualizarStatus(Long, Integer, Integer, StatusLancamento)} vai
+     * alterar.
+     */
+    List<TotalLancamentos> totalizarParaStatus(Long idUsuario, Integer mes, Integer ano, StatusLancamento status);
+
+    /**
+     * Ids dos lançamentos que
+     * {@link #atualizarStatus(Long, Integer, Integer, StatusLancamento)} vai
+     * alterar.
+     */
+    List<Long> listarParaStatus(Long idUsuario, Integer mes, Integer ano, StatusLancamento status);
+
+}
@@ -0,0 +1,309 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.AbstractQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import org.hibernate.jpa.QueryHints;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.TrigramaLancamento;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.Value;
+
+public class LancamentoRepositoryCustomImpl implements LancamentoRepositoryCustom {
+
+    static final int TAMANHO_BLOCO_LEITURA = 500;
+    static final char ESCAPE_LIKE = '\\';
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Lancamento> buscar(FiltroLancamento filtro) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Lancamento> query = cb.createQuery(Lancamento.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+
+        query.where(filtrar(cb, query, root, filtro).toArray(new Predicate[0]));
+
+        return em.createQuery(query).getResultList();
+    }
+
+    @Override
+    public PaginaLancamento buscarPagina(FiltroLancamento filtro, CursorLancamento cursor, int tamanho) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Lancamento> query = cb.createQuery(Lancamento.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+
+        List<Predicate> predicados = filtrar(cb, query, root, filtro);
+
+        if (cursor != null) {
+            predicados.add(depoisDoCursor(cb, root, cursor));
+        }
+
+        query.where(predicados.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("ano")), cb.asc(root.get("mes")), cb.asc(root.get("id")));
+
+        // Uma linha a mais indica se existe próxima página sem precisar de count.
+        List<Lancamento> lancamentos = em.createQuery(query).setMaxResults(tamanho + 1).getResultList();
+
+        if (lancamentos.size() <= tamanho) {
+            return new PaginaLancamento(lancamentos, null);
+        }
+
+        List<Lancamento> pagina = new ArrayList<>(lancamentos.subList(0, tamanho));
+        return new PaginaLancamento(pagina, CursorLancamento.de(pagina.get(tamanho - 1)));
+    }
+
+    @Override
+    public void percorrer(FiltroLancamento filtro, Consumer<Lancamento> consumidor) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Lancamento> query = cb.createQuery(Lancamento.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+
+        query.where(filtrar(cb, query, root, filtro).toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("ano")), cb.asc(root.get("mes")), cb.asc(root.get("id")));
+
+        try (Stream<Lancamento> lancamentos = em.createQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, TAMANHO_BLOCO_LEITURA)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()) {
+
+            lancamentos.forEach(lancamento -> {
+                consumidor.accept(lancamento);
+                em.detach(lancamento);
+            });
+        }
+    }
+
+    @Override
+    public int atualizarStatus(Long idUsuario, Integer mes, Integer ano, StatusLancamento status) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+        Root<Lancamento> root = update.from(Lancamento.class);
+
+        update.set(root.<StatusLancamento>get("status"), status)
+                .where(paraAtualizarStatus(cb, root, idUsuario, mes, ano, status));
+
+        em.flush();
+        int alterados = em.createQuery(update).executeUpdate();
+        em.clear();
+        return alterados;
+    }
+
+    @Override
+    public List<TotalLancamentos> totalizarParaStatus(Long idUsuario, Integer mes, Integer ano,
+            StatusLancamento status) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Lancamento> root = query.from(Lancamento.class);
+
+        Path<Long> usuario = root.get("usuario").get("id");
+        Path<Integer> anoLancamento = root.get("ano");
+        Path<Integer> mesLancamento = root.get("mes");
+        Path<TipoLancamento> tipo = root.get("tipo");
+        Path<StatusLancamento> statusLancamento = root.get("status");
+        Expression<BigDecimal> total = cb.sum(root.<BigDecimal>get("valor"));
+        Expression<Long> quantidade = cb.count(root);
+
+        query.multiselect(usuario, anoLancamento, mesLancamento, tipo, statusLancamento, total, quantidade)
+                .where(paraAtualizarStatus(cb, root, idUsuario, mes, ano, status))
+                .groupBy(usuario, anoLancamento, mesLancamento, tipo, statusLancamento);
+
+        List<TotalLancamentos> totais = new ArrayList<>();
+
+        for (Tuple linha : em.createQuery(query).getResultList()) {
+            totais.add(new Total(linha.get(usuario), linha.get(anoLancamento), linha.get(mesLancamento),
+                    linha.get(tipo), linha.get(statusLancamento), linha.get(total), linha.get(quantidade)));
+        }
+
+        return totais;
+    }
+
+    @Override
+    public List<Long> listarParaStatus(Long idUsuario, Integer mes, Integer ano, StatusLancamento status) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+
+        query.select(root.get("id")).where(paraAtualizarStatus(cb, root, idUsuario, mes, ano, status));
+
+        return em.createQuery(query).getResultList();
+    }
+
+    private Predicate[] paraAtualizarStatus(CriteriaBuilder cb, Root<Lancamento> root, Long idUsuario, Integer mes,
+            Integer ano, StatusLancamento status) {
+        List<Predicate> predicados = new ArrayList<>();
+        predicados.add(cb.equal(root.get("usuario").get("id"), idUsuario));
+        // Como em LancamentoRepository.atualizarStatus, inclui os gravados sem status.
+        predicados.add(cb.or(cb.notEqual(root.get("status"), status), cb.isNull(root.get("status"))));
+
+        if (mes != null) {
+            predicados.add(cb.equal(root.get("mes"), mes));
+        }
+
+        if (ano != null) {
+            predicados.add(cb.equal(root.get("ano"), ano));
+        }
+
+        return predicados.toArray(new Predicate[0]);
+    }
+
+    /**
+     * Todos os critérios são combinados com AND. O usuário vem sempre primeiro,
+     * de modo que período, tipo e status resolvem como intervalo nos índices
+     * (id_usuario, ano, mes, id) e (id_usuario, tipo, status) de Lancamento.
+     */
+    private List<Predicate> filtrar(CriteriaBuilder cb, AbstractQuery<?> query, Root<Lancamento> root,
+            FiltroLancamento filtro) {
+        List<Predicate> predicados = new ArrayList<>();
+
+        if (filtro.getIdUsuario() != null) {
+            predicados.add(cb.equal(root.get("usuario").get("id"), filtro.getIdUsuario()));
+        }
+
+        if (filtro.getDescricao() != null) {
+            Set<String> trigramas = TrigramaLancamento.extrair(filtro.getDescricao());
+
+            if (!trigramas.isEmpty()) {
+                predicados.add(root.get("id").in(contendoTrigramas(cb, query, trigramas, filtro)));
+            }
+
+            predicados.add(cb.like(cb.lower(root.get("descricao")),
+                    "%" + escaparLike(filtro.getDescricao().toLowerCase(Locale.ROOT)) + "%", ESCAPE_LIKE));
+        }
+
+        if (filtro.getMes() != null) {
+            predicados.add(cb.equal(root.get("mes"), filtro.getMes()));
+        }
+
+        if (filtro.getAno() != null) {
+            predicados.add(cb.equal(root.get("ano"), filtro.getAno()));
+        }
+
+        if (filtro.getAnoInicial() != null) {
+            predicados.add(aPartirDe(cb, root, filtro.getAnoInicial(), filtro.getMesInicial()));
+        }
+
+        if (filtro.getAnoFinal() != null) {
+            predicados.add(ate(cb, root, filtro.getAnoFinal(), filtro.getMesFinal()));
+        }
+
+        if (filtro.getValorMinimo() != null) {
+            predicados.add(cb.greaterThanOrEqualTo(root.get("valor"), filtro.getValorMinimo()));
+        }
+
+        if (filtro.getValorMaximo() != null) {
+            predicados.add(cb.lessThanOrEqualTo(root.get("valor"), filtro.getValorMaximo()));
+        }
+
+        if (filtro.getTipo() != null) {
+            predicados.add(cb.equal(root.get("tipo"), filtro.getTipo()));
+        }
+
+        if (filtro.getStatus() != null) {
+            predicados.add(cb.equal(root.get("status"), filtro.getStatus()));
+        }
+
+        return predicados;
+    }
+
+    /**
+     * O intervalo em ano vem explícito para que o banco use o índice como faixa
+     * e confira o mês só nas linhas do ano de fronteira.
+     */
+    private Predicate aPartirDe(CriteriaBuilder cb, Root<Lancamento> root, Integer ano, Integer mes) {
+        Predicate noAno = cb.greaterThanOrEqualTo(root.get("ano"), ano);
+
+        if (mes == null) {
+            return noAno;
+        }
+
+        return cb.and(noAno, cb.or(cb.greaterThan(root.get("ano"), ano),
+                cb.greaterThanOrEqualTo(root.get("mes"), mes)));
+    }
+
+    private Predicate ate(CriteriaBuilder cb, Root<Lancamento> root, Integer ano, Integer mes) {
+        Predicate noAno = cb.lessThanOrEqualTo(root.get("ano"), ano);
+
+        if (mes == null) {
+            return noAno;
+        }
+
+        return cb.and(noAno, cb.or(cb.lessThan(root.get("ano"), ano),
+                cb.lessThanOrEqualTo(root.get("mes"), mes)));
+    }
+
+    /**
+     * Ids dos lançamentos cuja descrição contém todos os trigramas do termo. É
+     * um superconjunto do resultado (os trigramas podem estar fora de ordem),
+     * por isso o like continua sendo aplicado, mas só sobre esses candidatos.
+     */
+    private Subquery<Long> contendoTrigramas(CriteriaBuilder cb, AbstractQuery<?> query, Set<String> trigramas,
+            FiltroLancamento filtro) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<TrigramaLancamento> trigrama = subquery.from(TrigramaLancamento.class);
+        Path<Long> idLancamento = trigrama.get("id").get("idLancamento");
+        Path<String> valor = trigrama.get("id").get("trigrama");
+
+        List<Predicate> predicados = new ArrayList<>();
+        predicados.add(valor.in(trigramas));
+
+        if (filtro.getIdUsuario() != null) {
+            predicados.add(cb.equal(trigrama.get("idUsuario"), filtro.getIdUsuario()));
+        }
+
+        return subquery.select(idLancamento)
+                .where(predicados.toArray(new Predicate[0]))
+                .groupBy(idLancamento)
+                .having(cb.equal(cb.countDistinct(valor), (long) trigramas.size()));
+    }
+
+    private String escaparLike(String valor) {
+        return valor.replace(String.valueOf(ESCAPE_LIKE), "" + ESCAPE_LIKE + ESCAPE_LIKE)
+                .replace("%", ESCAPE_LIKE + "%")
+                .replace("_", ESCAPE_LIKE + "_");
+    }
+
+    private Predicate depoisDoCursor(CriteriaBuilder cb, Root<Lancamento> root, CursorLancamento cursor) {
+        return cb.or(
+                cb.greaterThan(root.get("ano"), cursor.getAno()),
+                cb.and(cb.equal(root.get("ano"), cursor.getAno()),
+                        cb.greaterThan(root.get("mes"), cursor.getMes())),
+                cb.and(cb.equal(root.get("ano"), cursor.getAno()),
+                        cb.equal(root.get("mes"), cursor.getMes()),
+                        cb.greaterThan(root.get("id"), cursor.getId())));
+    }
+
+    @Value
+    private static class Total implements TotalLancamentos {
+        Long idUsuario;
+        Integer ano;
+        Integer mes;
+        TipoLancamento tipo;
+        StatusLancamento status;
+        BigDecimal total;
+        Long quantidade;
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import java.util.List;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Página de lançamentos. {@code proximoCursor} é nulo na última página.
+ */
+@Data
+@AllArgsConstructor
+public class PaginaLancamento {
+
+    private List<Lancamento> lancamentos;
+    private CursorLancamento proximoCursor;
+
+}
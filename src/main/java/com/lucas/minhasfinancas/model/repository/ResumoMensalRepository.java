@@ -0,0 +1,49 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.lucas.minhasfinancas.model.entity.ResumoMensal;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, ResumoMensal.Chave> {
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE ResumoMensal r SET r.total = r.total + :valor, r.quantidade = r.quantidade + :quantidade "
+            + "WHERE r.idUsuario = :idUsuario AND r.ano = :ano AND r.mes = :mes AND r.tipo = :tipo AND r.status = :status")
+    int somar(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+            @Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status,
+            @Param("valor") BigDecimal valor, @Param("quantidade") Long quantidade);
+
+    /**
+     * Cria o resumo zerado da chave se ainda não existir, esperando o commit
+     * de outra transação que acabou de criá-lo em vez de violar a chave
+     * primária. Tipo e status vão pelo nome, como na coluna.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, quantidade) "
+            + "VALUES (:idUsuario, :ano, :mes, :tipo, :status, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int criarSeAusente(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+            @Param("tipo") String tipo, @Param("status") String status);
+
+    @Query(value = "SELECT r FROM ResumoMensal r WHERE r.idUsuario = :idUsuario AND r.ano = :ano AND r.quantidade > 0 "
+            + "ORDER BY r.mes")
+    List<ResumoMensal> buscarPorAno(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+
+    /**
+     * Lançamentos sem status entram como PENDENTE, como em ResumoServiceImpl;
+     * o status vai pelo nome, como na coluna.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO ResumoMensal (idUsuario, ano, mes, tipo, status, total, quantidade) "
+            + "SELECT l.usuario.id, l.ano, l.mes, l.tipo, coalesce(l.status, 'PENDENTE'), sum(l.valor), count(l) "
+            + "FROM Lancamento l GROUP BY l.usuario.id, l.ano, l.mes, l.tipo, coalesce(l.status, 'PENDENTE')")
+    int recalcularResumos();
+
+}
@@ -0,0 +1,35 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.lucas.minhasfinancas.model.entity.SaldoUsuario;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE SaldoUsuario s SET s.valor = s.valor + :valor WHERE s.idUsuario = :idUsuario")
+    int somarAoSaldo(@Param("idUsuario") Long idUsuario, @Param("valor") BigDecimal valor);
+
+    /**
+     * Cria o saldo zerado do usuário se ainda não existir. Se outra transação
+     * acabou de criá-lo, espera o commit dela e não faz nada, em vez de violar
+     * a chave primária.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO financas.saldo_usuario (id_usuario, valor) VALUES (:idUsuario, 0) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int criarSeAusente(@Param("idUsuario") Long idUsuario);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO SaldoUsuario (idUsuario, valor) "
+            + "SELECT l.usuario.id, sum(CASE WHEN l.tipo = :receita THEN l.valor ELSE -l.valor END) "
+            + "FROM Lancamento l GROUP BY l.usuario.id")
+    int recalcularSaldos(@Param("receita") TipoLancamento receita);
+
+}
@@ -0,0 +1,28 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.lucas.minhasfinancas.model.entity.SequenciaAlteracao;
+
+public interface SequenciaAlteracaoRepository extends JpaRepository<SequenciaAlteracao, Long> {
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE SequenciaAlteracao s SET s.ultima = s.ultima + :quantidade WHERE s.idUsuario = :idUsuario")
+    int avancar(@Param("idUsuario") Long idUsuario, @Param("quantidade") long quantidade);
+
+    /**
+     * Cria a sequência zerada do usuário se ainda não existir; se outra
+     * transação acabou de criá-la, espera o commit dela e não faz nada.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO financas.sequencia_alteracao (id_usuario, ultima) VALUES (:idUsuario, 0) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int criarSeAusente(@Param("idUsuario") Long idUsuario);
+
+    @Query(value = "SELECT s.ultima FROM SequenciaAlteracao s WHERE s.idUsuario = :idUsuario")
+    Long obterUltima(@Param("idUsuario") Long idUsuario);
+
+}
@@ -0,0 +1,27 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Soma e quantidade de um grupo de lançamentos com o mesmo usuário, ano, mês,
+ * tipo e status.
+ */
+public interface TotalLancamentos {
+
+    Long getIdUsuario();
+
+    Integer getAno();
+
+    Integer getMes();
+
+    TipoLancamento getTipo();
+
+    StatusLancamento getStatus();
+
+    BigDecimal getTotal();
+
+    Long getQuantidade();
+}
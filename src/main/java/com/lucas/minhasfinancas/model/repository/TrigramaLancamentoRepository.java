@@ -0,0 +1,16 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.lucas.minhasfinancas.model.entity.TrigramaLancamento;
+
+public interface TrigramaLancamentoRepository extends JpaRepository<TrigramaLancamento, TrigramaLancamento.Chave> {
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM TrigramaLancamento t WHERE t.id.idLancamento = :idLancamento")
+    int removerDoLancamento(@Param("idLancamento") Long idLancamento);
+
+}
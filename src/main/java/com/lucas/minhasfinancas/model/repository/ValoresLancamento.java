@@ -0,0 +1,24 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Projeção com os campos usados nas análises em memória.
+ */
+public interface ValoresLancamento {
+
+    Long getId();
+
+    BigDecimal getValor();
+
+    Integer getAno();
+
+    Integer getMes();
+
+    TipoLancamento getTipo();
+
+    StatusLancamento getStatus();
+}
@@ -0,0 +1,46 @@
+package com.lucas.minhasfinancas.monitoramento;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Quantidade de instruções SQL e tempo gasto no JDBC durante uma requisição.
+ * A contabilização da thread atual é aberta pelo {@link ContabilizacaoSqlFilter}
+ * e alimentada pelo {@link DataSourceContabilizado}.
+ */
+public class ContabilizacaoSql {
+
+    private static final ThreadLocal<ContabilizacaoSql> ATUAL = new ThreadLocal<>();
+
+    private final AtomicInteger instrucoes = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+
+    public static ContabilizacaoSql iniciar() {
+        ContabilizacaoSql contabilizacao = new ContabilizacaoSql();
+        ATUAL.set(contabilizacao);
+        return contabilizacao;
+    }
+
+    public static ContabilizacaoSql atual() {
+        return ATUAL.get();
+    }
+
+    public static void encerrar() {
+        ATUAL.remove();
+    }
+
+    void registrar(long duracaoNanos) {
+        instrucoes.incrementAndGet();
+        nanos.addAndGet(duracaoNanos);
+    }
+
+    public int getInstrucoes() {
+        return instrucoes.get();
+    }
+
+    public long getTempoMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos.get());
+    }
+
+}
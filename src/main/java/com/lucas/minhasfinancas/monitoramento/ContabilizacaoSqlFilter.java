@@ -0,0 +1,102 @@
+package com.lucas.minhasfinancas.monitoramento;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Abre a contabilização de SQL de cada requisição e a devolve nos cabeçalhos
+ * {@value #HEADER_INSTRUCOES} e {@value #HEADER_TEMPO}, escritos logo antes do
+ * corpo da resposta. Em respostas em streaming, os valores cobrem o que foi
+ * executado até o início do corpo.
+ */
+@Component
+public class ContabilizacaoSqlFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_INSTRUCOES = "X-SQL-Instrucoes";
+    public static final String HEADER_TEMPO = "X-SQL-Tempo-Ms";
+
+    private static final Logger log = LoggerFactory.getLogger("minhasfinancas.sql");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        ContabilizacaoSql contabilizacao = ContabilizacaoSql.iniciar();
+        RespostaContabilizada resposta = new RespostaContabilizada(response, contabilizacao);
+
+        try {
+            chain.doFilter(request, resposta);
+        } finally {
+            ContabilizacaoSql.encerrar();
+            resposta.anexarCabecalhos();
+
+            log.debug("{} {} -> {} instruções SQL em {} ms", request.getMethod(), request.getRequestURI(),
+                    contabilizacao.getInstrucoes(), contabilizacao.getTempoMillis());
+        }
+    }
+
+    private static class RespostaContabilizada extends HttpServletResponseWrapper {
+
+        private final ContabilizacaoSql contabilizacao;
+        private boolean anexados;
+
+        RespostaContabilizada(HttpServletResponse response, ContabilizacaoSql contabilizacao) {
+            super(response);
+            this.contabilizacao = contabilizacao;
+        }
+
+        void anexarCabecalhos() {
+            if (anexados || isCommitted()) {
+                return;
+            }
+
+            anexados = true;
+            setHeader(HEADER_INSTRUCOES, String.valueOf(contabilizacao.getInstrucoes()));
+            setHeader(HEADER_TEMPO, String.valueOf(contabilizacao.getTempoMillis()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            anexarCabecalhos();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            anexarCabecalhos();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            anexarCabecalhos();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            anexarCabecalhos();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            anexarCabecalhos();
+            super.sendError(sc, msg);
+        }
+
+    }
+
+}
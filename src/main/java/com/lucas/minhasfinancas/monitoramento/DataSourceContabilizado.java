@@ -0,0 +1,111 @@
+package com.lucas.minhasfinancas.monitoramento;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Envolve os DataSources da aplicação para contar cada execução de instrução
+ * JDBC (execute*, incluindo executeBatch como uma ida ao banco) na
+ * {@link ContabilizacaoSql} da thread e registrar em log as que passarem do
+ * limite configurado.
+ */
+@Component
+public class DataSourceContabilizado implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger("minhasfinancas.sql.lenta");
+
+    private final long limiteConsultaLentaNanos;
+
+    public DataSourceContabilizado(
+            @Value("${minhasfinancas.sql.limite-consulta-lenta-ms:500}") long limiteConsultaLentaMillis) {
+        this.limiteConsultaLentaNanos = TimeUnit.MILLISECONDS.toNanos(limiteConsultaLentaMillis);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return envolver(bean, DataSource.class, null);
+        }
+
+        return bean;
+    }
+
+    private Object envolver(Object alvo, Class<?> tipo, String sql) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { tipo },
+                new Interceptador(alvo, sql));
+    }
+
+    private void registrar(String sql, long inicio) {
+        long duracao = System.nanoTime() - inicio;
+        ContabilizacaoSql contabilizacao = ContabilizacaoSql.atual();
+
+        if (contabilizacao != null) {
+            contabilizacao.registrar(duracao);
+        }
+
+        if (duracao >= limiteConsultaLentaNanos) {
+            log.warn("Instrução SQL lenta ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(duracao), sql);
+        }
+    }
+
+    private class Interceptador implements InvocationHandler {
+
+        private final Object alvo;
+        private final String sql;
+
+        Interceptador(Object alvo, String sql) {
+            this.alvo = alvo;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nome = method.getName();
+            boolean execucao = alvo instanceof Statement && nome.startsWith("execute");
+            long inicio = System.nanoTime();
+            Object resultado;
+
+            try {
+                resultado = method.invoke(alvo, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (execucao) {
+                    registrar(args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql,
+                            inicio);
+                }
+            }
+
+            Class<?> retorno = method.getReturnType();
+
+            if (resultado == null) {
+                return null;
+            } else if (retorno == Connection.class) {
+                return envolver(resultado, Connection.class, null);
+            } else if (retorno == Statement.class || retorno == PreparedStatement.class
+                    || retorno == CallableStatement.class) {
+                return envolver(resultado, retorno,
+                        args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null);
+            }
+
+            return resultado;
+        }
+
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Pools separados, no mesmo banco, para as transações somente leitura e para
+ * as demais. Como o {@link RoteamentoDataSource}, deve ficar atrás de um
+ * LazyConnectionDataSourceProxy.
+ */
+public class CompartimentosDataSource extends AbstractRoutingDataSource {
+
+    static final String LEITURA = "leitura";
+    static final String ESCRITA = "escrita";
+
+    public CompartimentosDataSource(DataSource leitura, DataSource escrita) {
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(LEITURA, leitura);
+        destinos.put(ESCRITA, escrita);
+
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(escrita);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? LEITURA : ESCRITA;
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Divide as conexões ao banco de spring.datasource em dois pools: o de
+ * escrita, configurado por spring.datasource.hikari.*, e o de leitura, por
+ * minhasfinancas.compartimentos.leitura.hikari.*. Leituras pesadas esgotam só
+ * o pool de leitura. A ocupação de cada pool é publicada nas métricas
+ * compartimentos.pool.*, com a tag do compartimento. Com réplicas ou shards, que já têm pools
+ * próprios, esta divisão não é aplicada.
+ */
+@Configuration
+@ConditionalOnExpression("${minhasfinancas.compartimentos.pools-separados:false}"
+        + " and !${minhasfinancas.replicas.habilitado:false} and !${minhasfinancas.shards.habilitado:false}")
+public class CompartimentosDataSourceConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource escrita = criarPool(properties, CompartimentosDataSource.ESCRITA);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(escrita));
+
+        HikariDataSource leitura = criarPool(properties, CompartimentosDataSource.LEITURA);
+        binder.bind("minhasfinancas.compartimentos.leitura.hikari", Bindable.ofInstance(leitura));
+
+        CompartimentosDataSource compartimentos = new CompartimentosDataSource(leitura, escrita);
+        compartimentos.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(compartimentos);
+    }
+
+    /**
+     * Os pools não são beans e não recebem as métricas hikaricp.*; o
+     * registro não é passado a eles para não criar dependência do DataSource
+     * com os MeterBinders que usam o banco.
+     */
+    @Bean
+    public MeterBinder metricasPoolsCompartimentos() {
+        return registry -> pools.forEach(pool -> {
+            Gauge.builder("compartimentos.pool.ativas", pool, p -> medir(p, HikariPoolMXBean::getActiveConnections))
+                    .tag("compartimento", pool.getPoolName())
+                    .description("Conexões em uso no pool do compartimento").register(registry);
+            Gauge.builder("compartimentos.pool.pendentes", pool,
+                    p -> medir(p, HikariPoolMXBean::getThreadsAwaitingConnection))
+                    .tag("compartimento", pool.getPoolName())
+                    .description("Threads aguardando conexão do pool do compartimento").register(registry);
+            Gauge.builder("compartimentos.pool.maximo", pool, HikariDataSource::getMaximumPoolSize)
+                    .tag("compartimento", pool.getPoolName())
+                    .description("Tamanho máximo do pool do compartimento").register(registry);
+        });
+    }
+
+    /** Os pools não são beans, então são fechados aqui. */
+    @PreDestroy
+    public void fecharPools() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private HikariDataSource criarPool(DataSourceProperties properties, String nome) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(nome);
+        pools.add(pool);
+        return pool;
+    }
+
+    /** Antes da primeira conexão, o pool ainda não foi iniciado e não há o que medir. */
+    private static double medir(HikariDataSource pool, ToIntFunction<HikariPoolMXBean> medida) {
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        return mxBean != null ? medida.applyAsInt(mxBean) : 0;
+    }
+
+}
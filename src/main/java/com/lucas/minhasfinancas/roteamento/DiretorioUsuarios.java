@@ -0,0 +1,97 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+
+/**
+ * Diretório que diz em qual shard está cada usuário, por id e por email
+ * (tabela financas.diretorio_usuario). Usa um pool próprio, fora das
+ * transações dos shards: cada operação é confirmada na hora. O email é único
+ * no diretório, o que garante a unicidade entre todos os shards. O shard por
+ * id fica em cache; depois de uma migração feita por outro processo, a
+ * entrada antiga vale até expirar.
+ */
+public class DiretorioUsuarios {
+
+    private final JdbcTemplate jdbc;
+    private final Cache<Long, Integer> shardPorUsuario;
+
+    public DiretorioUsuarios(DataSource dataSource, long tamanhoMaximo, Duration expiracao) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.shardPorUsuario = Caffeine.newBuilder().maximumSize(tamanhoMaximo).expireAfterWrite(expiracao).build();
+    }
+
+    public Optional<Integer> obterShard(Long idUsuario) {
+        Integer shard = shardPorUsuario.getIfPresent(idUsuario);
+
+        if (shard == null) {
+            List<Integer> shards = jdbc.queryForList(
+                    "SELECT shard FROM financas.diretorio_usuario WHERE id_usuario = ?", Integer.class, idUsuario);
+
+            if (shards.isEmpty()) {
+                return Optional.empty();
+            }
+
+            shard = shards.get(0);
+            shardPorUsuario.put(idUsuario, shard);
+        }
+
+        return Optional.of(shard);
+    }
+
+    public Optional<Long> buscarIdPorEmail(String email) {
+        return jdbc.queryForList("SELECT id_usuario FROM financas.diretorio_usuario WHERE email = ?", Long.class,
+                email).stream().findFirst();
+    }
+
+    public boolean existeEmail(String email) {
+        return buscarIdPorEmail(email).isPresent();
+    }
+
+    /**
+     * Registra o usuário recém-gravado no shard. Se a transação do shard for
+     * desfeita, a entrada é removida, liberando o email.
+     */
+    public void registrar(Long idUsuario, String email, int shard) {
+        try {
+            jdbc.update("INSERT INTO financas.diretorio_usuario (id_usuario, email, shard) VALUES (?, ?, ?)",
+                    idUsuario, email, shard);
+        } catch (DuplicateKeyException e) {
+            throw new RegraDeNegocioException("Já existe um usuário cadastrado com esse email.");
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        remover(idUsuario);
+                    }
+                }
+            });
+        }
+    }
+
+    public void mover(Long idUsuario, int shard) {
+        jdbc.update("UPDATE financas.diretorio_usuario SET shard = ? WHERE id_usuario = ?", shard, idUsuario);
+        shardPorUsuario.invalidate(idUsuario);
+    }
+
+    public void remover(Long idUsuario) {
+        jdbc.update("DELETE FROM financas.diretorio_usuario WHERE id_usuario = ?", idUsuario);
+        shardPorUsuario.invalidate(idUsuario);
+    }
+
+}
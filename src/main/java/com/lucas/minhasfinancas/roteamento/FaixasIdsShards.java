@@ -0,0 +1,56 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+
+/**
+ * Confere que a sequence dos lançamentos de cada shard gera uma faixa de ids
+ * que não cruza a dos outros. O id de um lançamento não diz o shard, então a
+ * busca por id e a alteração de status por ids procuram em todos; com o mesmo
+ * id em dois shards, alterariam ou devolveriam o lançamento errado. A faixa
+ * de um shard vai de MINVALUE menos o bloco que o Hibernate reserva por
+ * chamada até MAXVALUE, então cada shard precisa dos dois limites.
+ */
+public final class FaixasIdsShards {
+
+    static final String CONSULTA = "SELECT minimum_value, maximum_value FROM information_schema.sequences "
+            + "WHERE lower(sequence_schema) = 'financas' AND lower(sequence_name) = 'lancamento_seq'";
+
+    private FaixasIdsShards() {
+    }
+
+    /** Lança IllegalStateException se a sequence faltar ou se duas faixas se cruzarem. */
+    public static void verificar(List<DataSource> shards) {
+        List<long[]> faixas = new ArrayList<>();
+
+        for (int shard = 0; shard < shards.size(); shard++) {
+            List<Map<String, Object>> sequences = new JdbcTemplate(shards.get(shard)).queryForList(CONSULTA);
+
+            if (sequences.isEmpty()) {
+                throw new IllegalStateException("O shard " + shard + " não tem a sequence financas.lancamento_seq.");
+            }
+
+            // No Postgres as colunas são texto; no H2, números.
+            long minimo = Long.parseLong(String.valueOf(sequences.get(0).get("minimum_value")));
+            long maximo = Long.parseLong(String.valueOf(sequences.get(0).get("maximum_value")));
+            long[] faixa = { minimo - (Lancamento.TAMANHO_BLOCO_ID - 1), maximo };
+
+            for (int outro = 0; outro < faixas.size(); outro++) {
+                if (faixa[0] <= faixas.get(outro)[1] && faixas.get(outro)[0] <= faixa[1]) {
+                    throw new IllegalStateException("As sequences financas.lancamento_seq dos shards " + outro
+                            + " e " + shard + " geram ids na mesma faixa; defina MINVALUE e MAXVALUE disjuntos.");
+                }
+            }
+
+            faixas.add(faixa);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Garante que um usuário leia as próprias escritas mesmo com réplicas
+ * atrasadas. Depois de uma alteração nos lançamentos de um usuário, as
+ * leituras dele vão ao primário durante a janela configurada. A leitura
+ * identifica o usuário na transação somente leitura corrente, antes da
+ * primeira instrução, para que o {@link RoteamentoDataSource} escolha a
+ * conexão.
+ */
+@Component
+public class LeituraAposEscrita {
+
+    private static final Object USUARIO_DA_LEITURA = new Object();
+
+    private final Cache<Long, Boolean> escritasRecentes;
+
+    public LeituraAposEscrita(@Value("${minhasfinancas.replicas.janela-leitura-propria-ms:5000}") long janelaMillis) {
+        this.escritasRecentes = Caffeine.newBuilder().expireAfterWrite(Duration.ofMillis(janelaMillis)).build();
+    }
+
+    /**
+     * Abre a janela na hora e a renova no commit, para cobrir tanto a leitura
+     * feita durante o commit quanto o atraso da réplica depois dele.
+     */
+    public void registrarEscrita(Collection<Long> idsUsuarios) {
+        Set<Long> ids = new HashSet<>(idsUsuarios);
+        ids.forEach(id -> escritasRecentes.put(id, Boolean.TRUE));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(id -> escritasRecentes.put(id, Boolean.TRUE));
+                }
+            });
+        }
+    }
+
+    public void identificarLeitor(Long idUsuario) {
+        if (idUsuario == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(USUARIO_DA_LEITURA)) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(USUARIO_DA_LEITURA, idUsuario);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(USUARIO_DA_LEITURA);
+            }
+        });
+    }
+
+    public boolean exigePrimario() {
+        Object idUsuario = TransactionSynchronizationManager.getResource(USUARIO_DA_LEITURA);
+        return idUsuario != null && escritasRecentes.getIfPresent(idUsuario) != null;
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+
+/**
+ * Move os dados de um usuário para outro shard, em três transações: copia as
+ * linhas dele para o destino, aponta o diretório para o destino e apaga as
+ * linhas da origem. A cópia começa apagando o que houver do usuário no
+ * destino, então uma migração interrompida pode ser repetida. Escritas do
+ * usuário durante a migração podem se perder, e outras instâncias só veem o
+ * novo shard quando a entrada do diretório expira do cache delas: a migração
+ * é para janelas de manutenção.
+ */
+@Component
+@ConditionalOnProperty("minhasfinancas.shards.habilitado")
+public class MigracaoShards {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracaoShards.class);
+
+    /** Tabelas com dados do usuário e a coluna que o identifica, na ordem das chaves estrangeiras. */
+    private static final String[][] TABELAS = {
+            { "usuario", "id" },
+            { "lancamento", "id_usuario" },
+            { "saldo_usuario", "id_usuario" },
+            { "resumo_mensal", "id_usuario" },
+            { "trigrama_lancamento", "id_usuario" },
+            { "sequencia_alteracao", "id_usuario" },
+            { "alteracao_lancamento", "id_usuario" } };
+
+    private final Shards shards;
+    private final JdbcTemplate jdbc;
+
+    public MigracaoShards(Shards shards, DataSource dataSource) {
+        this.shards = shards;
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    public void mover(Long idUsuario, int destino) {
+        int origem = shards.diretorio().obterShard(idUsuario)
+                .orElseThrow(() -> new RegraDeNegocioException("Usuário não encontrado no diretório."));
+
+        if (origem == destino) {
+            log.info("Usuário {} já está no shard {}.", idUsuario, destino);
+            return;
+        }
+
+        Map<String, List<Map<String, Object>>> linhas = shards.noShard(origem, true, () -> ler(idUsuario));
+
+        shards.noShard(destino, false, () -> {
+            apagar(idUsuario);
+            gravar(linhas);
+            return null;
+        });
+
+        shards.diretorio().mover(idUsuario, destino);
+
+        shards.noShard(origem, false, () -> {
+            apagar(idUsuario);
+            return null;
+        });
+
+        log.info("Usuário {} movido do shard {} para o shard {}: {} lançamentos.", idUsuario, origem, destino,
+                linhas.get("lancamento").size());
+    }
+
+    private Map<String, List<Map<String, Object>>> ler(Long idUsuario) {
+        Map<String, List<Map<String, Object>>> linhas = new LinkedHashMap<>();
+
+        for (String[] tabela : TABELAS) {
+            linhas.put(tabela[0], jdbc.queryForList(
+                    "SELECT * FROM financas." + tabela[0] + " WHERE " + tabela[1] + " = ?", idUsuario));
+        }
+
+        return linhas;
+    }
+
+    private void gravar(Map<String, List<Map<String, Object>>> linhas) {
+        linhas.forEach((tabela, registros) -> {
+            if (registros.isEmpty()) {
+                return;
+            }
+
+            List<String> colunas = new ArrayList<>(registros.get(0).keySet());
+            String sql = "INSERT INTO financas." + tabela + " (" + String.join(", ", colunas) + ") VALUES ("
+                    + colunas.stream().map(coluna -> "?").collect(Collectors.joining(", ")) + ")";
+
+            jdbc.batchUpdate(sql, registros.stream()
+                    .map(registro -> colunas.stream().map(registro::get).toArray())
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    private void apagar(Long idUsuario) {
+        for (int i = TABELAS.length - 1; i >= 0; i--) {
+            jdbc.update("DELETE FROM financas." + TABELAS[i][0] + " WHERE " + TABELAS[i][1] + " = ?", idUsuario);
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envia as transações somente leitura às réplicas, em rodízio, e todo o resto
+ * ao primário. Deve ficar atrás de um LazyConnectionDataSourceProxy: a conexão
+ * só é escolhida na primeira instrução, quando a transação já está marcada
+ * como somente leitura.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARIO = "primario";
+    static final String REPLICA = "replica-";
+
+    private final int replicas;
+    private final LeituraAposEscrita leituraAposEscrita;
+    private final AtomicInteger rodizio = new AtomicInteger();
+
+    public RoteamentoDataSource(DataSource primario, List<DataSource> replicas,
+            LeituraAposEscrita leituraAposEscrita) {
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(PRIMARIO, primario);
+
+        for (int i = 0; i < replicas.size(); i++) {
+            destinos.put(REPLICA + i, replicas.get(i));
+        }
+
+        this.replicas = replicas.size();
+        this.leituraAposEscrita = leituraAposEscrita;
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas == 0 || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || leituraAposEscrita.exigePrimario()) {
+            return PRIMARIO;
+        }
+
+        return REPLICA + Math.floorMod(rodizio.getAndIncrement(), replicas);
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Substitui o DataSource da aplicação por um roteador entre o primário
+ * (spring.datasource.*) e as réplicas de minhasfinancas.replicas.urls, que
+ * usam o mesmo usuário, senha e driver. Os pools das réplicas aceitam as
+ * propriedades de minhasfinancas.replicas.hikari.*, como os do primário
+ * aceitam as de spring.datasource.hikari.*.
+ */
+@Configuration
+@ConditionalOnProperty("minhasfinancas.replicas.habilitado")
+public class RoteamentoDataSourceConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+            LeituraAposEscrita leituraAposEscrita, @Value("${minhasfinancas.replicas.urls}") String[] urls) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primario = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primario.setPoolName("primario");
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primario));
+        pools.add(primario);
+
+        List<DataSource> replicas = new ArrayList<>();
+
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                    .url(urls[i].trim()).build();
+            replica.setPoolName(RoteamentoDataSource.REPLICA + i);
+            replica.setReadOnly(true);
+            binder.bind("minhasfinancas.replicas.hikari", Bindable.ofInstance(replica));
+            replicas.add(replica);
+            pools.add(replica);
+        }
+
+        RoteamentoDataSource roteamento = new RoteamentoDataSource(primario, replicas, leituraAposEscrita);
+        roteamento.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    /** Os pools não são beans, então são fechados aqui. */
+    @PreDestroy
+    public void fecharPools() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+}
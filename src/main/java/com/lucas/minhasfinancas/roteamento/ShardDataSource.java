@@ -0,0 +1,44 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envia cada transação ao shard vinculado a ela por {@link Shards}; sem
+ * vínculo, ao shard 0. Como o {@link RoteamentoDataSource}, deve ficar atrás
+ * de um LazyConnectionDataSourceProxy, para que o shard seja escolhido na
+ * primeira instrução e não na abertura da transação.
+ */
+public class ShardDataSource extends AbstractRoutingDataSource {
+
+    static final String SHARD = "shard-";
+    static final Object SHARD_DA_TRANSACAO = new Object();
+
+    public ShardDataSource(List<DataSource> shards) {
+        Map<Object, Object> destinos = new HashMap<>();
+
+        for (int i = 0; i < shards.size(); i++) {
+            destinos.put(i, shards.get(i));
+        }
+
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(shards.get(0));
+    }
+
+    static Integer shardDaTransacao() {
+        return (Integer) TransactionSynchronizationManager.getResource(SHARD_DA_TRANSACAO);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = shardDaTransacao();
+        return shard != null ? shard : 0;
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+
+/**
+ * Escolha do shard de cada operação. O shard 0 é o banco de
+ * spring.datasource e os demais vêm de minhasfinancas.shards.urls; o de cada
+ * usuário está no {@link DiretorioUsuarios}. Os serviços vinculam o shard à
+ * transação corrente antes da primeira instrução, e uma transação nunca muda
+ * de shard. Com os shards desabilitados, tudo aqui é neutro: não há vínculo e
+ * as operações por shard rodam uma vez, no banco único.
+ */
+@Component
+public class Shards {
+
+    private final boolean habilitado;
+    private final int quantidade;
+    private final ObjectProvider<DiretorioUsuarios> diretorio;
+    private final TransactionTemplate leitura;
+    private final TransactionTemplate escrita;
+
+    public Shards(@Value("${minhasfinancas.shards.habilitado:false}") boolean habilitado,
+            @Value("${minhasfinancas.shards.urls:}") String[] urls, ObjectProvider<DiretorioUsuarios> diretorio,
+            PlatformTransactionManager transactionManager) {
+        this.habilitado = habilitado;
+        this.quantidade = habilitado ? urls.length + 1 : 1;
+        this.diretorio = diretorio;
+        this.escrita = new TransactionTemplate(transactionManager);
+        this.escrita.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leitura.setReadOnly(true);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public DiretorioUsuarios diretorio() {
+        if (!habilitado) {
+            throw new IllegalStateException("Os shards não estão habilitados.");
+        }
+
+        return diretorio.getObject();
+    }
+
+    /**
+     * Shard de um usuário já cadastrado. Um usuário fora do diretório fica no
+     * shard 0, onde a chave estrangeira recusa a gravação.
+     */
+    public int shardDoUsuario(Long idUsuario) {
+        if (!habilitado) {
+            return 0;
+        }
+
+        return diretorio().obterShard(idUsuario).orElse(0);
+    }
+
+    /** Shard de um novo usuário, pelo hash do email. */
+    public int alocar(String email) {
+        return Math.floorMod(email.toLowerCase(Locale.ROOT).hashCode(), quantidade);
+    }
+
+    /**
+     * Vincula à transação corrente o shard do usuário. Sem usuário não há como
+     * escolher o banco, então a operação é recusada.
+     */
+    public void usar(Long idUsuario) {
+        if (!habilitado) {
+            return;
+        }
+
+        if (idUsuario == null) {
+            throw new RegraDeNegocioException("Informe o usuário da operação.");
+        }
+
+        usarShard(shardDoUsuario(idUsuario));
+    }
+
+    /** Vincula o shard comum a todos os usuários, que não podem estar em shards diferentes. */
+    public void usar(Collection<Long> idsUsuarios) {
+        if (!habilitado || idsUsuarios.isEmpty()) {
+            return;
+        }
+
+        int shard = -1;
+
+        for (Long idUsuario : idsUsuarios) {
+            int shardUsuario = shardDoUsuario(Objects.requireNonNull(idUsuario));
+
+            if (shard >= 0 && shard != shardUsuario) {
+                throw new RegraDeNegocioException("Os lançamentos do lote são de usuários de shards diferentes.");
+            }
+
+            shard = shardUsuario;
+        }
+
+        usarShard(shard);
+    }
+
+    /**
+     * Executa a operação em uma transação nova, no shard informado. O vínculo
+     * de uma transação externa é suspenso junto com ela.
+     */
+    public <T> T noShard(int shard, boolean somenteLeitura, Supplier<T> operacao) {
+        if (shard < 0 || shard >= quantidade) {
+            throw new RegraDeNegocioException("Informe um shard entre 0 e " + (quantidade - 1) + ".");
+        }
+
+        Object externo = TransactionSynchronizationManager
+                .unbindResourceIfPossible(ShardDataSource.SHARD_DA_TRANSACAO);
+
+        try {
+            return (somenteLeitura ? leitura : escrita).execute(status -> {
+                usarShard(shard);
+                return operacao.get();
+            });
+        } finally {
+            if (externo != null) {
+                TransactionSynchronizationManager.bindResource(ShardDataSource.SHARD_DA_TRANSACAO, externo);
+            }
+        }
+    }
+
+    /**
+     * Executa a operação em cada shard, cada vez em uma transação nova, e
+     * devolve os resultados na ordem dos shards. Desabilitado, executa uma vez
+     * na transação corrente.
+     */
+    public <T> List<T> emCadaShard(boolean somenteLeitura, Supplier<T> operacao) {
+        if (!habilitado) {
+            return Collections.singletonList(operacao.get());
+        }
+
+        List<T> resultados = new ArrayList<>(quantidade);
+
+        for (int shard = 0; shard < quantidade; shard++) {
+            resultados.add(noShard(shard, somenteLeitura, operacao));
+        }
+
+        return resultados;
+    }
+
+    /** Como {@link #emCadaShard(boolean, Supplier)}, para escritas sem resultado. */
+    public void emCadaShard(Runnable operacao) {
+        emCadaShard(false, () -> {
+            operacao.run();
+            return null;
+        });
+    }
+
+    /** Vincula o shard à transação corrente, que não pode estar usando outro. */
+    public void usarShard(int shard) {
+        if (!habilitado) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("O shard só pode ser escolhido dentro de uma transação.");
+        }
+
+        Integer atual = ShardDataSource.shardDaTransacao();
+
+        if (atual != null) {
+            if (atual != shard) {
+                throw new IllegalStateException(
+                        "A transação já usa o shard " + atual + " e não pode usar o shard " + shard + ".");
+            }
+
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(ShardDataSource.SHARD_DA_TRANSACAO, shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ShardDataSource.SHARD_DA_TRANSACAO);
+            }
+        });
+    }
+
+}
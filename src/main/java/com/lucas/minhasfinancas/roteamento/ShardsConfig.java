@@ -0,0 +1,94 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Substitui o DataSource da aplicação por um roteador entre os shards: o
+ * shard 0 é spring.datasource e os demais são as URLs de
+ * minhasfinancas.shards.urls, com o mesmo usuário, senha e driver. Os pools
+ * dos shards aceitam as propriedades de spring.datasource.hikari.*. O
+ * diretório tem um pool pequeno próprio, em minhasfinancas.shards.diretorio.url
+ * (por padrão, o banco do shard 0). Não é combinado com as réplicas de
+ * {@link RoteamentoDataSourceConfig}.
+ */
+@Configuration
+@ConditionalOnProperty("minhasfinancas.shards.habilitado")
+public class ShardsConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final List<DataSource> shards = new ArrayList<>();
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+            @Value("${minhasfinancas.shards.urls}") String[] urls) {
+        Binder binder = Binder.get(environment);
+
+        for (int i = 0; i <= urls.length; i++) {
+            HikariDataSource shard = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(shard));
+
+            if (i > 0) {
+                shard.setJdbcUrl(urls[i - 1].trim());
+            }
+
+            shard.setPoolName(ShardDataSource.SHARD + i);
+            shards.add(shard);
+            pools.add(shard);
+        }
+
+        ShardDataSource roteamento = new ShardDataSource(shards);
+        roteamento.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    @Bean
+    public DiretorioUsuarios diretorioUsuarios(DataSourceProperties properties,
+            @Value("${minhasfinancas.shards.diretorio.url:${spring.datasource.url}}") String url,
+            @Value("${minhasfinancas.shards.diretorio.tamanho-pool:4}") int tamanhoPool,
+            @Value("${minhasfinancas.shards.diretorio.usuarios-em-memoria:100000}") long usuariosEmMemoria,
+            @Value("${minhasfinancas.shards.diretorio.expiracao-segundos:60}") long expiracaoSegundos) {
+        HikariDataSource diretorio = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url)
+                .build();
+        diretorio.setPoolName("diretorio");
+        diretorio.setMaximumPoolSize(tamanhoPool);
+        pools.add(diretorio);
+
+        return new DiretorioUsuarios(diretorio, usuariosEmMemoria, Duration.ofSeconds(expiracaoSegundos));
+    }
+
+    /**
+     * Na subida, recusa shards cujas sequences de lançamentos possam gerar o
+     * mesmo id (ver {@link FaixasIdsShards}).
+     */
+    @Bean
+    @ConditionalOnProperty(value = "minhasfinancas.shards.verificar-faixas-ids", matchIfMissing = true)
+    public ApplicationRunner verificarFaixasIdsShards() {
+        return argumentos -> FaixasIdsShards.verificar(shards);
+    }
+
+    /** Os pools não são beans, então são fechados aqui. */
+    @PreDestroy
+    public void fecharPools() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.lucas.minhasfinancas.service;
+
+import java.util.List;
+
+import com.lucas.minhasfinancas.model.entity.AlteracaoLancamento;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.repository.EstadoLancamento;
+import com.lucas.minhasfinancas.model.repository.IdentificacaoLancamento;
+
+public interface AlteracaoLancamentoService {
+
+    void registrarInclusao(Lancamento lancamento);
+
+    void registrarInclusoes(List<Lancamento> lancamentos);
+
+    void registrarAtualizacao(EstadoLancamento estadoAnterior, Lancamento lancamento);
+
+    void registrarExclusao(Long idLancamento, EstadoLancamento estadoAnterior);
+
+    void registrarStatus(List<IdentificacaoLancamento> lancamentos, StatusLancamento status);
+
+    void registrarStatus(Long idUsuario, List<Long> idsLancamentos, StatusLancamento status);
+
+    /**
+     * Até {@code tamanho} alterações do usuário com sequência maior que o
+     * cursor, em ordem de sequência.
+     */
+    List<AlteracaoLancamento> buscarAlteracoes(Long idUsuario, long cursor, int tamanho);
+}
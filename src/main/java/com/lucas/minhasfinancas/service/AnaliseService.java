@@ -0,0 +1,26 @@
+package com.lucas.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+import com.lucas.minhasfinancas.model.repository.FiltroLancamento;
+
+public interface AnaliseService {
+
+    ColunasLancamentos obterColunas(Long idUsuario);
+
+    BigDecimal totalizar(FiltroLancamento filtro);
+
+    List<SaldoMensal> obterSaldosMensais(Long idUsuario, int anoInicial, int mesInicial, int anoFinal, int mesFinal,
+            StatusLancamento status);
+
+    List<Lancamento> obterMaiores(Long idUsuario, TipoLancamento tipo, int quantidade);
+
+    void invalidar(Long idUsuario);
+
+    void invalidar(Collection<Long> idsUsuarios);
+}
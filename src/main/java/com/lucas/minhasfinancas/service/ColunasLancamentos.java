@@ -0,0 +1,247 @@
+package com.lucas.minhasfinancas.service;
+
+import java.util.Arrays;
+
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Cópia em colunas dos lançamentos de um usuário para análises em memória. O
+ * valor fica em centavos (long), o período como aaaamm (int) e tipo e status
+ * pelo ordinal (byte), em arrays primitivos paralelos. As agregações percorrem
+ * esses arrays sem criar objetos por linha. Imutável depois de construída.
+ */
+public final class ColunasLancamentos {
+
+    /** Critério de tipo ou status que aceita qualquer valor. */
+    public static final byte QUALQUER = -1;
+
+    /**
+     * Tipo ou status nulo no lançamento. Nunca é igual a um critério: só
+     * {@link #QUALQUER} aceita a linha.
+     */
+    static final byte AUSENTE = -2;
+
+    private final long[] ids;
+    private final long[] centavos;
+    private final int[] anoMes;
+    private final byte[] tipos;
+    private final byte[] status;
+    private final int tamanho;
+
+    private ColunasLancamentos(Construtor construtor) {
+        this.tamanho = construtor.tamanho;
+        this.ids = Arrays.copyOf(construtor.ids, tamanho);
+        this.centavos = Arrays.copyOf(construtor.centavos, tamanho);
+        this.anoMes = Arrays.copyOf(construtor.anoMes, tamanho);
+        this.tipos = Arrays.copyOf(construtor.tipos, tamanho);
+        this.status = Arrays.copyOf(construtor.status, tamanho);
+    }
+
+    public static Construtor construtor() {
+        return new Construtor();
+    }
+
+    public static int anoMes(int ano, int mes) {
+        return ano * 100 + mes;
+    }
+
+    public static byte codigo(TipoLancamento tipo) {
+        return tipo == null ? QUALQUER : (byte) tipo.ordinal();
+    }
+
+    public static byte codigo(StatusLancamento status) {
+        return status == null ? QUALQUER : (byte) status.ordinal();
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public long getId(int linha) {
+        return ids[linha];
+    }
+
+    public long getCentavos(int linha) {
+        return centavos[linha];
+    }
+
+    public int getAnoMes(int linha) {
+        return anoMes[linha];
+    }
+
+    public TipoLancamento getTipo(int linha) {
+        return tipos[linha] == AUSENTE ? null : TipoLancamento.values()[tipos[linha]];
+    }
+
+    public StatusLancamento getStatus(int linha) {
+        return status[linha] == AUSENTE ? null : StatusLancamento.values()[status[linha]];
+    }
+
+    /**
+     * Soma, em centavos, dos lançamentos dentro do período e da faixa de valor
+     * (inclusivos), do tipo e status informados ({@link #QUALQUER} para todos).
+     */
+    public long somar(int anoMesInicial, int anoMesFinal, long centavosMinimo, long centavosMaximo, byte tipo,
+            byte status) {
+        long soma = 0;
+
+        for (int i = 0; i < tamanho; i++) {
+            if (aceita(i, anoMesInicial, anoMesFinal, centavosMinimo, centavosMaximo, tipo, status)) {
+                soma = Math.addExact(soma, centavos[i]);
+            }
+        }
+
+        return soma;
+    }
+
+    /**
+     * Receitas e despesas, em centavos, de cada mês do período. A posição
+     * [m][0] guarda as receitas e [m][1] as despesas do m-ésimo mês a partir de
+     * anoMesInicial. Lançamentos sem tipo não entram em nenhuma das duas.
+     */
+    public long[][] somarPorMes(int anoMesInicial, int anoMesFinal, byte status) {
+        long[][] meses = new long[mesesEntre(anoMesInicial, anoMesFinal) + 1][2];
+        byte receita = codigo(TipoLancamento.RECEITA);
+
+        for (int i = 0; i < tamanho; i++) {
+            if (tipos[i] != AUSENTE
+                    && aceita(i, anoMesInicial, anoMesFinal, Long.MIN_VALUE, Long.MAX_VALUE, QUALQUER, status)) {
+                long[] mes = meses[mesesEntre(anoMesInicial, anoMes[i])];
+                int coluna = tipos[i] == receita ? 0 : 1;
+                mes[coluna] = Math.addExact(mes[coluna], centavos[i]);
+            }
+        }
+
+        return meses;
+    }
+
+    /**
+     * Linhas dos {@code quantidade} maiores lançamentos do tipo informado, do
+     * maior para o menor valor. Usa um heap de mínimo sobre os índices, então
+     * custa O(n log quantidade) e não ordena a coluna inteira.
+     */
+    public int[] maiores(int quantidade, byte tipo) {
+        int[] heap = new int[Math.min(quantidade, tamanho)];
+        int ocupados = 0;
+
+        for (int i = 0; i < tamanho && heap.length > 0; i++) {
+            if (tipo != QUALQUER && tipos[i] != tipo) {
+                continue;
+            }
+
+            if (ocupados < heap.length) {
+                heap[ocupados] = i;
+                subir(heap, ocupados++);
+            } else if (centavos[i] > centavos[heap[0]]) {
+                heap[0] = i;
+                descer(heap, 0, ocupados);
+            }
+        }
+
+        int[] ordenados = new int[ocupados];
+
+        for (int fim = ocupados - 1; fim >= 0; fim--) {
+            ordenados[fim] = heap[0];
+            heap[0] = heap[fim];
+            descer(heap, 0, fim);
+        }
+
+        return ordenados;
+    }
+
+    public static int mesesEntre(int anoMesInicial, int anoMesFinal) {
+        return (anoMesFinal / 100 - anoMesInicial / 100) * 12 + anoMesFinal % 100 - anoMesInicial % 100;
+    }
+
+    private boolean aceita(int i, int anoMesInicial, int anoMesFinal, long centavosMinimo, long centavosMaximo,
+            byte tipo, byte status) {
+        return anoMes[i] >= anoMesInicial && anoMes[i] <= anoMesFinal
+                && centavos[i] >= centavosMinimo && centavos[i] <= centavosMaximo
+                && (tipo == QUALQUER || tipos[i] == tipo)
+                && (status == QUALQUER || this.status[i] == status);
+    }
+
+    private void subir(int[] heap, int posicao) {
+        while (posicao > 0) {
+            int pai = (posicao - 1) / 2;
+
+            if (centavos[heap[pai]] <= centavos[heap[posicao]]) {
+                return;
+            }
+
+            trocar(heap, pai, posicao);
+            posicao = pai;
+        }
+    }
+
+    private void descer(int[] heap, int posicao, int ocupados) {
+        while (true) {
+            int menor = posicao;
+            int esquerda = 2 * posicao + 1;
+            int direita = esquerda + 1;
+
+            if (esquerda < ocupados && centavos[heap[esquerda]] < centavos[heap[menor]]) {
+                menor = esquerda;
+            }
+
+            if (direita < ocupados && centavos[heap[direita]] < centavos[heap[menor]]) {
+                menor = direita;
+            }
+
+            if (menor == posicao) {
+                return;
+            }
+
+            trocar(heap, menor, posicao);
+            posicao = menor;
+        }
+    }
+
+    private static void trocar(int[] heap, int a, int b) {
+        int troca = heap[a];
+        heap[a] = heap[b];
+        heap[b] = troca;
+    }
+
+    /**
+     * Acumula as linhas em arrays que crescem por duplicação.
+     */
+    public static final class Construtor {
+
+        private long[] ids = new long[64];
+        private long[] centavos = new long[64];
+        private int[] anoMes = new int[64];
+        private byte[] tipos = new byte[64];
+        private byte[] status = new byte[64];
+        private int tamanho;
+
+        private Construtor() {
+        }
+
+        public Construtor adicionar(long id, long centavos, int anoMes, TipoLancamento tipo,
+                StatusLancamento status) {
+            if (tamanho == ids.length) {
+                int capacidade = tamanho * 2;
+                this.ids = Arrays.copyOf(this.ids, capacidade);
+                this.centavos = Arrays.copyOf(this.centavos, capacidade);
+                this.anoMes = Arrays.copyOf(this.anoMes, capacidade);
+                this.tipos = Arrays.copyOf(this.tipos, capacidade);
+                this.status = Arrays.copyOf(this.status, capacidade);
+            }
+
+            this.ids[tamanho] = id;
+            this.centavos[tamanho] = centavos;
+            this.anoMes[tamanho] = anoMes;
+            this.tipos[tamanho] = tipo == null ? AUSENTE : codigo(tipo);
+            this.status[tamanho] = status == null ? AUSENTE : codigo(status);
+            tamanho++;
+            return this;
+        }
+
+        public ColunasLancamentos construir() {
+            return new ColunasLancamentos(this);
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.lucas.minhasfinancas.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Quantia em centavos guardada em um long, para somas na aplicação sem a
+ * alocação de BigDecimal a cada operação. A conversão de e para BigDecimal é
+ * exata: valores com mais de duas casas decimais ou fora da faixa de um long
+ * são recusados com ArithmeticException, assim como o estouro nas operações.
+ */
+public final class Dinheiro implements Comparable<Dinheiro> {
+
+    public static final int CASAS_DECIMAIS = 2;
+    public static final Dinheiro ZERO = new Dinheiro(0);
+
+    private final long centavos;
+
+    private Dinheiro(long centavos) {
+        this.centavos = centavos;
+    }
+
+    public static Dinheiro de(BigDecimal valor) {
+        return deCentavos(paraCentavos(valor));
+    }
+
+    public static Dinheiro deCentavos(long centavos) {
+        return centavos == 0 ? ZERO : new Dinheiro(centavos);
+    }
+
+    /**
+     * Centavos do valor, sem arredondar: setScale sem RoundingMode falha se
+     * houver casas decimais além da segunda diferentes de zero.
+     */
+    public static long paraCentavos(BigDecimal valor) {
+        return valor.setScale(CASAS_DECIMAIS).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal paraBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, CASAS_DECIMAIS);
+    }
+
+    public long getCentavos() {
+        return centavos;
+    }
+
+    public Dinheiro somar(Dinheiro outro) {
+        return deCentavos(Math.addExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro subtrair(Dinheiro outro) {
+        return deCentavos(Math.subtractExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro negar() {
+        return deCentavos(Math.negateExact(centavos));
+    }
+
+    public int signum() {
+        return Long.signum(centavos);
+    }
+
+    public BigDecimal paraBigDecimal() {
+        return paraBigDecimal(centavos);
+    }
+
+    @Override
+    public int compareTo(Dinheiro outro) {
+        return Long.compare(centavos, outro.centavos);
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        return outro instanceof Dinheiro && ((Dinheiro) outro).centavos == centavos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centavos);
+    }
+
+    @Override
+    public String toString() {
+        return paraBigDecimal().toPlainString();
+    }
+
+}
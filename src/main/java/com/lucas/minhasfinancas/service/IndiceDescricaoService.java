@@ -0,0 +1,18 @@
+package com.lucas.minhasfinancas.service;
+
+import java.util.List;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+
+public interface IndiceDescricaoService {
+
+    void indexar(Lancamento lancamento);
+
+    void indexar(List<Lancamento> lancamentos);
+
+    void reindexar(Lancamento lancamento);
+
+    void remover(Long idLancamento);
+
+    void reconstruirIndice();
+}
@@ -3,25 +3,44 @@ package com.lucas.minhasfinancas.service;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.ResumoMensal;
 import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.repository.CursorLancamento;
+import com.lucas.minhasfinancas.model.repository.FiltroLancamento;
+import com.lucas.minhasfinancas.model.repository.PaginaLancamento;
 
 public interface LancamentoService {
 
     Lancamento salvar(Lancamento lancamento);
 
+    ResultadoLote salvarEmLote(List<Lancamento> lancamentos);
+
     Lancamento atualizar(Lancamento lancamento);
 
     void deletar(Lancamento lancamento);
 
-    List<Lancamento> buscar(Lancamento lancamentoFiltro);
+    List<Lancamento> buscar(FiltroLancamento filtro);
+
+    PaginaLancamento buscarPagina(FiltroLancamento filtro, CursorLancamento cursor, int tamanho);
+
+    void exportar(FiltroLancamento filtro, Consumer<Lancamento> consumidor);
 
     void atualizarStatus(Lancamento lancamento, StatusLancamento status);
 
+    int atualizarStatusEmLote(List<Long> ids, StatusLancamento status);
+
+    int atualizarStatusEmLote(Long idUsuario, Integer mes, Integer ano, StatusLancamento status);
+
     void validarLancamento(Lancamento lancamento);
 
+    void validarFiltro(FiltroLancamento filtro);
+
     Optional<Lancamento> buscarPorId(Long id);
 
     BigDecimal obterSaldoPorUsuario(Long idUsuario);
+
+    List<ResumoMensal> obterResumoAnual(Long idUsuario, Integer ano);
 }
@@ -0,0 +1,25 @@
+package com.lucas.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.lucas.minhasfinancas.model.entity.AlteracaoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Saldo do usuário lido após o commit de uma alteração, com as alterações
+ * confirmadas nela. A primeira notificação de uma inscrição traz só o saldo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Notificacao {
+
+    private Long idUsuario;
+    private BigDecimal saldo;
+    private List<AlteracaoLancamento> alteracoes;
+
+}
@@ -0,0 +1,26 @@
+package com.lucas.minhasfinancas.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.lucas.minhasfinancas.model.entity.AlteracaoLancamento;
+
+public interface NotificacaoService {
+
+    /**
+     * Abre uma inscrição nas notificações do usuário. Cada notificação é
+     * convertida e enviada como um evento do emissor devolvido.
+     */
+    SseEmitter inscrever(Long idUsuario, Function<Notificacao, ?> conversor);
+
+    /** Como {@link #inscrever(Long, Function)}, com um emissor criado pelo chamador. */
+    void inscrever(Long idUsuario, SseEmitter emissor, Function<Notificacao, ?> conversor);
+
+    /**
+     * Publica as alterações aos inscritos dos usuários envolvidos depois do
+     * commit da transação corrente, ou na hora, fora de uma transação.
+     */
+    void notificar(List<AlteracaoLancamento> alteracoes);
+}
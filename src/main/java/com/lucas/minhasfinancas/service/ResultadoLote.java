@@ -0,0 +1,33 @@
+package com.lucas.minhasfinancas.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado da gravação de um lote: os lançamentos gravados e, para cada item
+ * rejeitado, sua posição no lote e o motivo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLote {
+
+    private List<Lancamento> salvos = new ArrayList<>();
+    private List<ErroLote> erros = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErroLote {
+
+        private int indice;
+        private String mensagem;
+
+    }
+}
@@ -0,0 +1,26 @@
+package com.lucas.minhasfinancas.service;
+
+import java.util.List;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.ResumoMensal;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.repository.EstadoLancamento;
+import com.lucas.minhasfinancas.model.repository.TotalLancamentos;
+
+public interface ResumoService {
+
+    void registrarLancamento(Lancamento lancamento);
+
+    void registrarLancamentos(List<Lancamento> lancamentos);
+
+    void atualizarLancamento(EstadoLancamento estadoAnterior, Lancamento lancamento);
+
+    void estornarLancamento(EstadoLancamento estadoAnterior);
+
+    void alterarStatus(List<TotalLancamentos> totais, StatusLancamento status);
+
+    List<ResumoMensal> obterResumoAnual(Long idUsuario, Integer ano);
+
+    void reconstruirResumos();
+}
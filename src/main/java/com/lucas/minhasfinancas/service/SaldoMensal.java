@@ -0,0 +1,23 @@
+package com.lucas.minhasfinancas.service;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Receitas, despesas e saldo de um mês.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoMensal {
+
+    private Integer ano;
+    private Integer mes;
+    private BigDecimal receitas;
+    private BigDecimal despesas;
+    private BigDecimal saldo;
+
+}
@@ -0,0 +1,22 @@
+package com.lucas.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.repository.EstadoLancamento;
+
+public interface SaldoService {
+
+    void registrarLancamento(Lancamento lancamento);
+
+    void registrarLancamentos(List<Lancamento> lancamentos);
+
+    void atualizarLancamento(EstadoLancamento estadoAnterior, Lancamento lancamento);
+
+    void estornarLancamento(EstadoLancamento estadoAnterior);
+
+    BigDecimal obterSaldo(Long idUsuario);
+
+    void reconstruirSaldos();
+}
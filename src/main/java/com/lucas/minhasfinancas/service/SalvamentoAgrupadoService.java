@@ -0,0 +1,8 @@
+package com.lucas.minhasfinancas.service;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+
+public interface SalvamentoAgrupadoService {
+
+    Lancamento salvar(Lancamento lancamento);
+}
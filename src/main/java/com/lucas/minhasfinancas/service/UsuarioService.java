@@ -13,4 +13,6 @@ public interface UsuarioService {
     void validarEmail(String email);
 
     Optional<Usuario> buscarPorId(Long id);
+
+    Optional<Usuario> obterReferencia(Long id);
 }
@@ -0,0 +1,12 @@
+package com.lucas.minhasfinancas.service;
+
+import java.util.Collection;
+
+public interface VersaoDadosService {
+
+    long obterVersao(Long idUsuario);
+
+    void incrementar(Long idUsuario);
+
+    void incrementar(Collection<Long> idsUsuarios);
+}
@@ -0,0 +1,192 @@
+package com.lucas.minhasfinancas.service.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+import com.lucas.minhasfinancas.model.entity.AlteracaoLancamento;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.enums.OperacaoLancamento;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.repository.AlteracaoLancamentoRepository;
+import com.lucas.minhasfinancas.model.repository.EstadoLancamento;
+import com.lucas.minhasfinancas.model.repository.IdentificacaoLancamento;
+import com.lucas.minhasfinancas.model.repository.SequenciaAlteracaoRepository;
+import com.lucas.minhasfinancas.roteamento.LeituraAposEscrita;
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.AlteracaoLancamentoService;
+import com.lucas.minhasfinancas.service.NotificacaoService;
+
+/**
+ * Registro das alterações de lançamentos para a sincronização incremental
+ * dos clientes. Os métodos de registro participam da transação da alteração:
+ * o registro é confirmado ou desfeito junto com ela.
+ */
+@Service
+public class AlteracaoLancamentoServiceImpl implements AlteracaoLancamentoService {
+
+    public static final int TAMANHO_MAXIMO_PAGINA = 1000;
+
+    private AlteracaoLancamentoRepository repository;
+    private SequenciaAlteracaoRepository sequenciaRepository;
+    private Shards shards;
+    private LeituraAposEscrita leituraAposEscrita;
+    private NotificacaoService notificacaoService;
+
+    @Autowired
+    public AlteracaoLancamentoServiceImpl(AlteracaoLancamentoRepository repository,
+            SequenciaAlteracaoRepository sequenciaRepository, Shards shards, LeituraAposEscrita leituraAposEscrita,
+            NotificacaoService notificacaoService) {
+        this.repository = repository;
+        this.sequenciaRepository = sequenciaRepository;
+        this.shards = shards;
+        this.leituraAposEscrita = leituraAposEscrita;
+        this.notificacaoService = notificacaoService;
+    }
+
+    @Override
+    @Transactional
+    public void registrarInclusao(Lancamento lancamento) {
+        gravar(Collections.singletonList(completa(OperacaoLancamento.INCLUSAO, lancamento)));
+    }
+
+    @Override
+    @Transactional
+    public void registrarInclusoes(List<Lancamento> lancamentos) {
+        gravar(lancamentos.stream().map(lancamento -> completa(OperacaoLancamento.INCLUSAO, lancamento))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Um lançamento que passou para outro usuário sai do histórico do anterior
+     * como exclusão e entra no do novo como inclusão.
+     */
+    @Override
+    @Transactional
+    public void registrarAtualizacao(EstadoLancamento estadoAnterior, Lancamento lancamento) {
+        if (estadoAnterior == null) {
+            registrarInclusao(lancamento);
+
+        } else if (!estadoAnterior.getIdUsuario().equals(lancamento.getUsuario().getId())) {
+            gravar(Arrays.asList(exclusao(estadoAnterior.getIdUsuario(), lancamento.getId()),
+                    completa(OperacaoLancamento.INCLUSAO, lancamento)));
+
+        } else {
+            gravar(Collections.singletonList(completa(OperacaoLancamento.ALTERACAO, lancamento)));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void registrarExclusao(Long idLancamento, EstadoLancamento estadoAnterior) {
+        gravar(Collections.singletonList(exclusao(estadoAnterior.getIdUsuario(), idLancamento)));
+    }
+
+    @Override
+    @Transactional
+    public void registrarStatus(List<IdentificacaoLancamento> lancamentos, StatusLancamento status) {
+        gravar(lancamentos.stream()
+                .map(lancamento -> mudancaDeStatus(lancamento.getIdUsuario(), lancamento.getId(), status))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional
+    public void registrarStatus(Long idUsuario, List<Long> idsLancamentos, StatusLancamento status) {
+        gravar(idsLancamentos.stream().map(idLancamento -> mudancaDeStatus(idUsuario, idLancamento, status))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AlteracaoLancamento> buscarAlteracoes(Long idUsuario, long cursor, int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+            throw new RegraDeNegocioException(
+                    "Informe um tamanho de página entre 1 e " + TAMANHO_MAXIMO_PAGINA + ".");
+        }
+
+        if (cursor < 0) {
+            throw new RegraDeNegocioException("Informe um cursor válido.");
+        }
+
+        shards.usar(idUsuario);
+        leituraAposEscrita.identificarLeitor(idUsuario);
+        return repository.findByIdUsuarioAndSequenciaGreaterThanOrderBySequencia(idUsuario, cursor,
+                PageRequest.of(0, tamanho));
+    }
+
+    /**
+     * Reserva as sequências de cada usuário com um UPDATE, em ordem de id de
+     * usuário para que lotes concorrentes não se travem mutuamente, e grava os
+     * registros em lote. Os inscritos nas notificações recebem as alterações
+     * depois do commit.
+     */
+    private void gravar(List<AlteracaoLancamento> alteracoes) {
+        if (alteracoes.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<AlteracaoLancamento>> porUsuario = alteracoes.stream()
+                .collect(Collectors.groupingBy(AlteracaoLancamento::getIdUsuario, TreeMap::new, Collectors.toList()));
+
+        porUsuario.forEach((idUsuario, doUsuario) -> {
+            long sequencia = reservar(idUsuario, doUsuario.size()) - doUsuario.size();
+
+            for (AlteracaoLancamento alteracao : doUsuario) {
+                alteracao.setSequencia(++sequencia);
+            }
+        });
+
+        repository.saveAll(alteracoes);
+        notificacaoService.notificar(alteracoes);
+    }
+
+    /**
+     * Retorna a última das {@code quantidade} sequências reservadas. Na
+     * primeira alteração do usuário a linha é criada zerada e o UPDATE é
+     * repetido, de modo que duas primeiras alterações simultâneas recebem
+     * faixas distintas.
+     */
+    private long reservar(Long idUsuario, int quantidade) {
+        if (sequenciaRepository.avancar(idUsuario, quantidade) == 0) {
+            sequenciaRepository.criarSeAusente(idUsuario);
+            sequenciaRepository.avancar(idUsuario, quantidade);
+        }
+
+        return sequenciaRepository.obterUltima(idUsuario);
+    }
+
+    private AlteracaoLancamento completa(OperacaoLancamento operacao, Lancamento lancamento) {
+        return AlteracaoLancamento.builder()
+                .idUsuario(lancamento.getUsuario().getId())
+                .idLancamento(lancamento.getId())
+                .operacao(operacao)
+                .descricao(lancamento.getDescricao())
+                .mes(lancamento.getMes())
+                .ano(lancamento.getAno())
+                .valor(lancamento.getValor())
+                .tipo(lancamento.getTipo())
+                .status(lancamento.getStatus())
+                .build();
+    }
+
+    private AlteracaoLancamento mudancaDeStatus(Long idUsuario, Long idLancamento, StatusLancamento status) {
+        return AlteracaoLancamento.builder().idUsuario(idUsuario).idLancamento(idLancamento)
+                .operacao(OperacaoLancamento.ALTERACAO_STATUS).status(status).build();
+    }
+
+    private AlteracaoLancamento exclusao(Long idUsuario, Long idLancamento) {
+        return AlteracaoLancamento.builder().idUsuario(idUsuario).idLancamento(idLancamento)
+                .operacao(OperacaoLancamento.EXCLUSAO).build();
+    }
+
+}
@@ -0,0 +1,233 @@
+package com.lucas.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+import com.lucas.minhasfinancas.model.repository.FiltroLancamento;
+import com.lucas.minhasfinancas.model.repository.LancamentoRepository;
+import com.lucas.minhasfinancas.model.repository.ValoresLancamento;
+import com.lucas.minhasfinancas.roteamento.LeituraAposEscrita;
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.AnaliseService;
+import com.lucas.minhasfinancas.service.ColunasLancamentos;
+import com.lucas.minhasfinancas.service.Dinheiro;
+import com.lucas.minhasfinancas.service.SaldoMensal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Análises sobre a cópia em colunas dos lançamentos de cada usuário. A cópia é
+ * carregada na primeira análise, fica em um cache com referências soft
+ * (softValues), que o GC libera sob pressão de memória, e é descartada depois
+ * do commit de qualquer alteração nos lançamentos do usuário.
+ */
+@Service
+public class AnaliseServiceImpl implements AnaliseService, MeterBinder {
+
+    public static final int TAMANHO_MAXIMO_PERIODO = 1200;
+    public static final int QUANTIDADE_MAXIMA_MAIORES = 100;
+
+    private final LancamentoRepository repository;
+    private final LeituraAposEscrita leituraAposEscrita;
+    private final Shards shards;
+    private final TransactionTemplate leitura;
+    private final Cache<Long, ColunasLancamentos> colunas;
+
+    @Autowired
+    public AnaliseServiceImpl(LancamentoRepository repository, LeituraAposEscrita leituraAposEscrita, Shards shards,
+            PlatformTransactionManager transactionManager,
+            @Value("${minhasfinancas.analise.usuarios-em-memoria:1000}") long usuariosEmMemoria) {
+        this.repository = repository;
+        this.leituraAposEscrita = leituraAposEscrita;
+        this.shards = shards;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.colunas = Caffeine.newBuilder().maximumSize(usuariosEmMemoria).softValues().recordStats().build();
+    }
+
+    /**
+     * Só a carga abre transação; quando a cópia já está em memória, a análise
+     * não usa conexão com o banco.
+     */
+    @Override
+    public ColunasLancamentos obterColunas(Long idUsuario) {
+        return colunas.get(idUsuario, id -> leitura.execute(status -> carregar(id)));
+    }
+
+    @Override
+    public BigDecimal totalizar(FiltroLancamento filtro) {
+        if (filtro.getIdUsuario() == null) {
+            throw new RegraDeNegocioException("Informe um Usuário");
+        }
+
+        if (filtro.getDescricao() != null) {
+            throw new RegraDeNegocioException("A descrição não pode ser usada como filtro de análise.");
+        }
+
+        if (filtro.getMes() != null && filtro.getAno() == null) {
+            throw new RegraDeNegocioException("Informe o ano junto com o mês.");
+        }
+
+        int inicio = Integer.MIN_VALUE;
+        int fim = Integer.MAX_VALUE;
+
+        if (filtro.getAnoInicial() != null) {
+            inicio = ColunasLancamentos.anoMes(filtro.getAnoInicial(),
+                    filtro.getMesInicial() != null ? filtro.getMesInicial() : 1);
+        }
+
+        if (filtro.getAnoFinal() != null) {
+            fim = ColunasLancamentos.anoMes(filtro.getAnoFinal(),
+                    filtro.getMesFinal() != null ? filtro.getMesFinal() : 12);
+        }
+
+        if (filtro.getAno() != null) {
+            inicio = Math.max(inicio,
+                    ColunasLancamentos.anoMes(filtro.getAno(), filtro.getMes() != null ? filtro.getMes() : 1));
+            fim = Math.min(fim,
+                    ColunasLancamentos.anoMes(filtro.getAno(), filtro.getMes() != null ? filtro.getMes() : 12));
+        }
+
+        long centavosMinimo = filtro.getValorMinimo() == null ? Long.MIN_VALUE
+                : filtro.getValorMinimo().movePointRight(Dinheiro.CASAS_DECIMAIS).setScale(0, RoundingMode.CEILING).longValueExact();
+        long centavosMaximo = filtro.getValorMaximo() == null ? Long.MAX_VALUE
+                : filtro.getValorMaximo().movePointRight(Dinheiro.CASAS_DECIMAIS).setScale(0, RoundingMode.FLOOR).longValueExact();
+
+        long soma = obterColunas(filtro.getIdUsuario()).somar(inicio, fim, centavosMinimo, centavosMaximo,
+                ColunasLancamentos.codigo(filtro.getTipo()), ColunasLancamentos.codigo(filtro.getStatus()));
+
+        return Dinheiro.paraBigDecimal(soma);
+    }
+
+    @Override
+    public List<SaldoMensal> obterSaldosMensais(Long idUsuario, int anoInicial, int mesInicial, int anoFinal,
+            int mesFinal, StatusLancamento status) {
+        int inicio = ColunasLancamentos.anoMes(anoInicial, mesInicial);
+        int fim = ColunasLancamentos.anoMes(anoFinal, mesFinal);
+
+        if (mesInicial < 1 || mesInicial > 12 || mesFinal < 1 || mesFinal > 12 || inicio > fim
+                || ColunasLancamentos.mesesEntre(inicio, fim) >= TAMANHO_MAXIMO_PERIODO) {
+            throw new RegraDeNegocioException(
+                    "Informe um período válido de até " + TAMANHO_MAXIMO_PERIODO + " meses.");
+        }
+
+        long[][] meses = obterColunas(idUsuario).somarPorMes(inicio, fim, ColunasLancamentos.codigo(status));
+        List<SaldoMensal> saldos = new ArrayList<>(meses.length);
+
+        for (int i = 0; i < meses.length; i++) {
+            int ano = anoInicial + (mesInicial - 1 + i) / 12;
+            int mes = (mesInicial - 1 + i) % 12 + 1;
+            saldos.add(new SaldoMensal(ano, mes, Dinheiro.paraBigDecimal(meses[i][0]),
+                    Dinheiro.paraBigDecimal(meses[i][1]),
+                    Dinheiro.paraBigDecimal(Math.subtractExact(meses[i][0], meses[i][1]))));
+        }
+
+        return saldos;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Lancamento> obterMaiores(Long idUsuario, TipoLancamento tipo, int quantidade) {
+        if (quantidade < 1 || quantidade > QUANTIDADE_MAXIMA_MAIORES) {
+            throw new RegraDeNegocioException("Informe uma quantidade entre 1 e " + QUANTIDADE_MAXIMA_MAIORES + ".");
+        }
+
+        shards.usar(idUsuario);
+        leituraAposEscrita.identificarLeitor(idUsuario);
+        ColunasLancamentos colunasUsuario = obterColunas(idUsuario);
+        int[] linhas = colunasUsuario.maiores(quantidade, ColunasLancamentos.codigo(tipo));
+        Long[] ids = new Long[linhas.length];
+
+        for (int i = 0; i < linhas.length; i++) {
+            ids[i] = colunasUsuario.getId(linhas[i]);
+        }
+
+        Map<Long, Lancamento> lancamentos = repository.findAllById(Arrays.asList(ids)).stream()
+                .collect(Collectors.toMap(Lancamento::getId, Function.identity()));
+
+        // Mantém a ordem por valor; um lançamento removido depois da cópia é ignorado.
+        List<Lancamento> maiores = new ArrayList<>(ids.length);
+
+        for (Long id : ids) {
+            if (lancamentos.containsKey(id)) {
+                maiores.add(lancamentos.get(id));
+            }
+        }
+
+        return maiores;
+    }
+
+    @Override
+    public void invalidar(Long idUsuario) {
+        invalidar(Collections.singleton(idUsuario));
+    }
+
+    /**
+     * Dentro de uma transação, o descarte espera o commit, para que uma carga
+     * concorrente não guarde de novo o estado anterior à alteração.
+     */
+    @Override
+    public void invalidar(Collection<Long> idsUsuarios) {
+        Set<Long> ids = new HashSet<>(idsUsuarios);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            colunas.invalidateAll(ids);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                colunas.invalidateAll(ids);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, colunas, "lancamentos.colunas");
+    }
+
+    private ColunasLancamentos carregar(Long idUsuario) {
+        shards.usar(idUsuario);
+        leituraAposEscrita.identificarLeitor(idUsuario);
+        ColunasLancamentos.Construtor construtor = ColunasLancamentos.construtor();
+
+        try (Stream<ValoresLancamento> valores = repository.percorrerValores(idUsuario)) {
+            valores.forEach(valor -> construtor.adicionar(valor.getId(),
+                    Dinheiro.paraCentavos(valor.getValor()),
+                    ColunasLancamentos.anoMes(valor.getAno(), valor.getMes()), valor.getTipo(), valor.getStatus()));
+        }
+
+        return construtor.construir();
+    }
+
+}
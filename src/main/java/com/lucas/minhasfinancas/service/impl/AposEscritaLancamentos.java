@@ -0,0 +1,43 @@
+package com.lucas.minhasfinancas.service.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.stereotype.Component;
+
+import com.lucas.minhasfinancas.roteamento.LeituraAposEscrita;
+import com.lucas.minhasfinancas.service.AnaliseService;
+import com.lucas.minhasfinancas.service.VersaoDadosService;
+
+/**
+ * O que toda escrita de lançamentos faz depois de gravar: descarta a cópia de
+ * análise e avança a versão dos dados dos usuários afetados, ambos depois do
+ * commit, e manda as próximas leituras deles ao primário.
+ */
+@Component
+public class AposEscritaLancamentos {
+
+    private final AnaliseService analiseService;
+    private final VersaoDadosService versaoDadosService;
+    private final LeituraAposEscrita leituraAposEscrita;
+
+    public AposEscritaLancamentos(AnaliseService analiseService, VersaoDadosService versaoDadosService,
+            LeituraAposEscrita leituraAposEscrita) {
+        this.analiseService = analiseService;
+        this.versaoDadosService = versaoDadosService;
+        this.leituraAposEscrita = leituraAposEscrita;
+    }
+
+    public void registrar(Long idUsuario) {
+        analiseService.invalidar(idUsuario);
+        versaoDadosService.incrementar(idUsuario);
+        leituraAposEscrita.registrarEscrita(Collections.singleton(idUsuario));
+    }
+
+    public void registrar(Collection<Long> idsUsuarios) {
+        analiseService.invalidar(idsUsuarios);
+        versaoDadosService.incrementar(idsUsuarios);
+        leituraAposEscrita.registrarEscrita(idsUsuarios);
+    }
+
+}
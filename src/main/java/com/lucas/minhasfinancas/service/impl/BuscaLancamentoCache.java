@@ -0,0 +1,133 @@
+package com.lucas.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.repository.FiltroLancamento;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache dos resultados de busca por usuário e filtro normalizado. Cada
+ * resultado guarda a versão dos dados do usuário lida antes da consulta; um
+ * resultado de versão diferente da atual é tratado como falta e substituído.
+ * Assim, qualquer alteração nos lançamentos do usuário, ao avançar a versão,
+ * invalida todas as suas buscas de uma vez. O tamanho é limitado por uma
+ * estimativa dos bytes ocupados, publicada junto com as métricas cache.*.
+ */
+@Component
+public class BuscaLancamentoCache implements MeterBinder {
+
+    /** Estimativa de um Lancamento e da sua entrada na lista, sem a descrição. */
+    static final int BYTES_POR_LANCAMENTO = 200;
+    static final int BYTES_POR_RESULTADO = 150;
+
+    private final Cache<FiltroLancamento, Resultado> resultados;
+
+    public BuscaLancamentoCache(
+            @Value("${minhasfinancas.cache.buscas.tamanho-maximo-bytes:33554432}") long tamanhoMaximoBytes) {
+        this.resultados = Caffeine.newBuilder().maximumWeight(tamanhoMaximoBytes)
+                .weigher((FiltroLancamento filtro, Resultado resultado) -> resultado.bytes).recordStats().build();
+    }
+
+    public List<Lancamento> buscar(FiltroLancamento filtro, long versao,
+            Function<FiltroLancamento, List<Lancamento>> carregar) {
+        FiltroLancamento chave = normalizar(filtro);
+        Resultado resultado = resultados.getIfPresent(chave);
+
+        if (resultado != null && resultado.versao == versao) {
+            return resultado.lancamentos;
+        }
+
+        Resultado carregado = new Resultado(versao, Collections.unmodifiableList(carregar.apply(filtro)));
+
+        // Uma carga mais lenta, de versão anterior, não sobrescreve uma mais nova.
+        resultados.asMap().merge(chave, carregado,
+                (atual, novo) -> novo.versao >= atual.versao ? novo : atual);
+
+        return carregado.lancamentos;
+    }
+
+    public void invalidarTodos() {
+        resultados.invalidateAll();
+    }
+
+    public long bytesOcupados() {
+        return resultados.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    public CacheStats estatisticas() {
+        return resultados.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, resultados, "lancamentos.buscas");
+        Gauge.builder("cache.bytes.estimados", this, BuscaLancamentoCache::bytesOcupados)
+                .tag("cache", "lancamentos.buscas").baseUnit("bytes")
+                .description("Estimativa da memória ocupada pelos resultados em cache").register(registry);
+    }
+
+    /**
+     * Reduz filtros equivalentes à mesma chave: a descrição é comparada sem
+     * diferenciar maiúsculas, os valores sem zeros à direita e um período sem
+     * mês vale do mês 1 ao 12.
+     */
+    static FiltroLancamento normalizar(FiltroLancamento filtro) {
+        return FiltroLancamento.builder()
+                .idUsuario(filtro.getIdUsuario())
+                .descricao(filtro.getDescricao() != null ? filtro.getDescricao().toLowerCase(Locale.ROOT) : null)
+                .mes(filtro.getMes())
+                .ano(filtro.getAno())
+                .anoInicial(filtro.getAnoInicial())
+                .mesInicial(filtro.getAnoInicial() != null && filtro.getMesInicial() == null ? Integer.valueOf(1)
+                        : filtro.getMesInicial())
+                .anoFinal(filtro.getAnoFinal())
+                .mesFinal(filtro.getAnoFinal() != null && filtro.getMesFinal() == null ? Integer.valueOf(12)
+                        : filtro.getMesFinal())
+                .valorMinimo(semZerosADireita(filtro.getValorMinimo()))
+                .valorMaximo(semZerosADireita(filtro.getValorMaximo()))
+                .tipo(filtro.getTipo())
+                .status(filtro.getStatus())
+                .build();
+    }
+
+    private static BigDecimal semZerosADireita(BigDecimal valor) {
+        return valor != null ? valor.stripTrailingZeros() : null;
+    }
+
+    private static class Resultado {
+
+        private final long versao;
+        private final List<Lancamento> lancamentos;
+        private final int bytes;
+
+        Resultado(long versao, List<Lancamento> lancamentos) {
+            this.versao = versao;
+            this.lancamentos = lancamentos;
+
+            long estimativa = BYTES_POR_RESULTADO;
+
+            for (Lancamento lancamento : lancamentos) {
+                estimativa += BYTES_POR_LANCAMENTO
+                        + (lancamento.getDescricao() != null ? 2L * lancamento.getDescricao().length() : 0);
+            }
+
+            this.bytes = (int) Math.min(estimativa, Integer.MAX_VALUE);
+        }
+    }
+
+}
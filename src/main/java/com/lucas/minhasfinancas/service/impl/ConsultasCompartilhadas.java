@@ -0,0 +1,90 @@
+package com.lucas.minhasfinancas.service.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Consultas idênticas em andamento ao mesmo tempo rodam uma vez só: quem
+ * chega com a chave de uma consulta em andamento aguarda o resultado (ou o
+ * erro) dela em vez de repetir a consulta. A chave deve incluir a versão dos
+ * dados do usuário, para que quem chega depois de uma alteração não receba
+ * um resultado anterior a ela. O registro é um ConcurrentHashMap, sem trava
+ * global: usuários diferentes não esperam uns pelos outros.
+ */
+@Component
+public class ConsultasCompartilhadas implements MeterBinder {
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+    private final AtomicLong compartilhadas = new AtomicLong();
+
+    /**
+     * Dentro de uma transação a consulta roda na hora, já que pode ver
+     * alterações ainda não confirmadas da própria transação.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T executar(Object chave, Supplier<T> consulta) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return consulta.get();
+        }
+
+        CompletableFuture<Object> nova = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emAndamento.putIfAbsent(chave, nova);
+
+        if (existente != null) {
+            compartilhadas.incrementAndGet();
+            return (T) aguardar(existente);
+        }
+
+        try {
+            T resultado = consulta.get();
+            nova.complete(resultado);
+            return resultado;
+
+        } catch (RuntimeException | Error e) {
+            nova.completeExceptionally(e);
+            throw e;
+
+        } finally {
+            emAndamento.remove(chave, nova);
+        }
+    }
+
+    public long quantidadeCompartilhadas() {
+        return compartilhadas.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("consultas.compartilhadas", this, ConsultasCompartilhadas::quantidadeCompartilhadas)
+                .description("Chamadas atendidas por uma consulta idêntica já em andamento").register(registry);
+    }
+
+    private static Object aguardar(CompletableFuture<Object> consulta) {
+        try {
+            return consulta.join();
+
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+}
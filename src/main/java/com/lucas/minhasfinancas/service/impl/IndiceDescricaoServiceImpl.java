@@ -0,0 +1,105 @@
+package com.lucas.minhasfinancas.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.TrigramaLancamento;
+import com.lucas.minhasfinancas.model.repository.FiltroLancamento;
+import com.lucas.minhasfinancas.model.repository.LancamentoRepository;
+import com.lucas.minhasfinancas.model.repository.TrigramaLancamentoRepository;
+import com.lucas.minhasfinancas.service.IndiceDescricaoService;
+
+/**
+ * Mantém o índice de trigramas das descrições. Assim como o saldo, os métodos
+ * de escrita participam da transação de quem os chama.
+ */
+@Service
+public class IndiceDescricaoServiceImpl implements IndiceDescricaoService {
+
+    static final int TAMANHO_BLOCO_RECONSTRUCAO = 500;
+
+    private TrigramaLancamentoRepository repository;
+    private LancamentoRepository lancamentoRepository;
+    private EntityManager entityManager;
+
+    @Autowired
+    public IndiceDescricaoServiceImpl(TrigramaLancamentoRepository repository,
+            LancamentoRepository lancamentoRepository, EntityManager entityManager) {
+        this.repository = repository;
+        this.lancamentoRepository = lancamentoRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public void indexar(Lancamento lancamento) {
+        repository.saveAll(trigramas(lancamento));
+    }
+
+    @Override
+    @Transactional
+    public void indexar(List<Lancamento> lancamentos) {
+        List<TrigramaLancamento> trigramas = new ArrayList<>();
+
+        for (Lancamento lancamento : lancamentos) {
+            trigramas.addAll(trigramas(lancamento));
+        }
+
+        repository.saveAll(trigramas);
+    }
+
+    @Override
+    @Transactional
+    public void reindexar(Lancamento lancamento) {
+        remover(lancamento.getId());
+        indexar(lancamento);
+    }
+
+    @Override
+    @Transactional
+    public void remover(Long idLancamento) {
+        repository.removerDoLancamento(idLancamento);
+    }
+
+    @Override
+    @Transactional
+    public void reconstruirIndice() {
+        repository.deleteAllInBatch();
+
+        List<TrigramaLancamento> bloco = new ArrayList<>();
+
+        lancamentoRepository.percorrer(new FiltroLancamento(), lancamento -> {
+            bloco.addAll(trigramas(lancamento));
+
+            // Cada bloco gravado sai do contexto de persistência; sem o clear,
+            // ele guardaria todos os trigramas da base até o fim da transação.
+            if (bloco.size() >= TAMANHO_BLOCO_RECONSTRUCAO) {
+                repository.saveAll(bloco);
+                repository.flush();
+                entityManager.clear();
+                bloco.clear();
+            }
+        });
+
+        repository.saveAll(bloco);
+    }
+
+    private List<TrigramaLancamento> trigramas(Lancamento lancamento) {
+        List<TrigramaLancamento> trigramas = new ArrayList<>();
+        Long idUsuario = lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+
+        for (String trigrama : TrigramaLancamento.extrair(lancamento.getDescricao())) {
+            trigramas.add(new TrigramaLancamento(new TrigramaLancamento.Chave(trigrama, lancamento.getId()), idUsuario));
+        }
+
+        return trigramas;
+    }
+
+}
@@ -1,40 +1,138 @@
 package com.lucas.minhasfinancas.service.impl;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
-import org.springframework.data.domain.ExampleMatcher.StringMatcher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
 import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.ResumoMensal;
 import com.lucas.minhasfinancas.model.enums.StatusLancamento;
-import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+import com.lucas.minhasfinancas.model.repository.CursorLancamento;
+import com.lucas.minhasfinancas.model.repository.EstadoLancamento;
+import com.lucas.minhasfinancas.model.repository.FiltroLancamento;
+import com.lucas.minhasfinancas.model.repository.IdentificacaoLancamento;
 import com.lucas.minhasfinancas.model.repository.LancamentoRepository;
+import com.lucas.minhasfinancas.model.repository.PaginaLancamento;
+import com.lucas.minhasfinancas.model.repository.TotalLancamentos;
+import com.lucas.minhasfinancas.roteamento.LeituraAposEscrita;
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.AlteracaoLancamentoService;
+import com.lucas.minhasfinancas.service.Dinheiro;
+import com.lucas.minhasfinancas.service.IndiceDescricaoService;
 import com.lucas.minhasfinancas.service.LancamentoService;
+import com.lucas.minhasfinancas.service.ResultadoLote;
+import com.lucas.minhasfinancas.service.ResumoService;
+import com.lucas.minhasfinancas.service.SaldoService;
+import com.lucas.minhasfinancas.service.VersaoDadosService;
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService {
 
+    public static final int TAMANHO_MAXIMO_PAGINA = 500;
+
+    /** Prefixos das chaves de {@link ConsultasCompartilhadas}. */
+    private static final String BUSCAR = "buscar";
+    private static final String OBTER_SALDO = "obterSaldo";
+
     private LancamentoRepository repository;
+    private SaldoService saldoService;
+    private IndiceDescricaoService indiceDescricaoService;
+    private ResumoService resumoService;
+    private AlteracaoLancamentoService alteracaoService;
+    private VersaoDadosService versaoDadosService;
+    private AposEscritaLancamentos aposEscrita;
+    private BuscaLancamentoCache buscaCache;
+    private ConsultasCompartilhadas consultas;
+    private LeituraAposEscrita leituraAposEscrita;
+    private Shards shards;
+    private TransactionTemplate leitura;
 
     @Autowired
-    public LancamentoServiceImpl(LancamentoRepository repository) {
+    public LancamentoServiceImpl(LancamentoRepository repository, SaldoService saldoService,
+            IndiceDescricaoService indiceDescricaoService, ResumoService resumoService,
+            AlteracaoLancamentoService alteracaoService, VersaoDadosService versaoDadosService,
+            AposEscritaLancamentos aposEscrita, BuscaLancamentoCache buscaCache, ConsultasCompartilhadas consultas,
+            LeituraAposEscrita leituraAposEscrita, Shards shards, PlatformTransactionManager transactionManager) {
         this.repository = repository;
+        this.saldoService = saldoService;
+        this.indiceDescricaoService = indiceDescricaoService;
+        this.resumoService = resumoService;
+        this.alteracaoService = alteracaoService;
+        this.versaoDadosService = versaoDadosService;
+        this.aposEscrita = aposEscrita;
+        this.buscaCache = buscaCache;
+        this.consultas = consultas;
+        this.leituraAposEscrita = leituraAposEscrita;
+        this.shards = shards;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
     }
 
     @Override
     @Transactional
     public Lancamento salvar(Lancamento lancamento) {
         validarLancamento(lancamento);
+        shards.usar(lancamento.getUsuario().getId());
+        // Inclusão nunca usa o id do cliente: com ele, o save sobrescreveria
+        // um lançamento existente, talvez de outro usuário.
+        lancamento.setId(null);
         lancamento.setStatus(StatusLancamento.PENDENTE);
-        return repository.save(lancamento);
+        Lancamento lancamentoSalvo = repository.save(lancamento);
+        saldoService.registrarLancamento(lancamentoSalvo);
+        resumoService.registrarLancamento(lancamentoSalvo);
+        alteracaoService.registrarInclusao(lancamentoSalvo);
+        indiceDescricaoService.indexar(lancamentoSalvo);
+        aposEscrita.registrar(lancamentoSalvo.getUsuario().getId());
+        return lancamentoSalvo;
+    }
+
+    @Override
+    @Transactional
+    public ResultadoLote salvarEmLote(List<Lancamento> lancamentos) {
+        ResultadoLote resultado = new ResultadoLote();
+
+        for (int i = 0; i < lancamentos.size(); i++) {
+            Lancamento lancamento = lancamentos.get(i);
+
+            try {
+                validarLancamento(lancamento);
+                lancamento.setId(null);
+                lancamento.setStatus(StatusLancamento.PENDENTE);
+                resultado.getSalvos().add(lancamento);
+
+            } catch (RegraDeNegocioException e) {
+                resultado.getErros().add(new ResultadoLote.ErroLote(i, e.getMessage()));
+            }
+        }
+
+        Set<Long> idsUsuarios = resultado.getSalvos().stream().map(salvo -> salvo.getUsuario().getId())
+                .collect(Collectors.toSet());
+        shards.usar(idsUsuarios);
+
+        // Os ids vêm da sequence, nunca do cliente, então os INSERTs ficam
+        // pendentes até o flush e são enviados em lotes JDBC
+        // (hibernate.jdbc.batch_size).
+        resultado.setSalvos(repository.saveAll(resultado.getSalvos()));
+        repository.flush();
+        saldoService.registrarLancamentos(resultado.getSalvos());
+        resumoService.registrarLancamentos(resultado.getSalvos());
+        alteracaoService.registrarInclusoes(resultado.getSalvos());
+        indiceDescricaoService.indexar(resultado.getSalvos());
+        aposEscrita.registrar(idsUsuarios);
+
+        return resultado;
     }
 
     @Override
@@ -42,31 +140,145 @@ public class LancamentoServiceImpl implements LancamentoService {
     public Lancamento atualizar(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId());
         validarLancamento(lancamento);
-        return repository.save(lancamento);
+        shards.usar(lancamento.getUsuario().getId());
+        Optional<EstadoLancamento> estadoAnterior = repository.obterEstado(lancamento.getId());
+
+        // Sem status informado, o lançamento mantém o que já tinha; o status
+        // faz parte da chave do resumo mensal e não pode ficar nulo.
+        if (lancamento.getStatus() == null) {
+            lancamento.setStatus(estadoAnterior.map(EstadoLancamento::getStatus).orElse(StatusLancamento.PENDENTE));
+        }
+
+        Lancamento lancamentoAtualizado = repository.save(lancamento);
+        saldoService.atualizarLancamento(estadoAnterior.orElse(null), lancamentoAtualizado);
+        resumoService.atualizarLancamento(estadoAnterior.orElse(null), lancamentoAtualizado);
+        alteracaoService.registrarAtualizacao(estadoAnterior.orElse(null), lancamentoAtualizado);
+
+        if (!estadoAnterior.map(estado -> Objects.equals(estado.getDescricao(), lancamentoAtualizado.getDescricao())
+                && Objects.equals(estado.getIdUsuario(), lancamentoAtualizado.getUsuario().getId())).orElse(false)) {
+            indiceDescricaoService.reindexar(lancamentoAtualizado);
+        }
+
+        estadoAnterior.ifPresent(estado -> aposEscrita.registrar(estado.getIdUsuario()));
+        aposEscrita.registrar(lancamentoAtualizado.getUsuario().getId());
+
+        return lancamentoAtualizado;
     }
 
     @Override
     @Transactional
     public void deletar(Lancamento lancamento) {
         Objects.nonNull(lancamento.getId());
-        repository.deleteById(lancamento.getId());
+        shards.usar(lancamento.getUsuario() != null ? lancamento.getUsuario().getId() : null);
+        repository.obterEstado(lancamento.getId())
+                .filter(estado -> repository.excluir(lancamento.getId()) > 0)
+                .ifPresent(estado -> {
+                    saldoService.estornarLancamento(estado);
+                    resumoService.estornarLancamento(estado);
+                    alteracaoService.registrarExclusao(lancamento.getId(), estado);
+                    indiceDescricaoService.remover(lancamento.getId());
+                    aposEscrita.registrar(estado.getIdUsuario());
+                });
+    }
+
+    /**
+     * Com usuário informado, o resultado vem do cache enquanto a versão dos
+     * dados dele não mudar, e buscas equivalentes simultâneas fazem uma
+     * consulta só; apenas a consulta abre transação.
+     */
+    @Override
+    public List<Lancamento> buscar(FiltroLancamento filtro) {
+        validarFiltro(filtro);
+
+        if (filtro.getIdUsuario() == null) {
+            return leitura.execute(status -> {
+                shards.usar(filtro.getIdUsuario());
+                return repository.buscar(filtro);
+            });
+        }
+
+        long versao = versaoDadosService.obterVersao(filtro.getIdUsuario());
+        return buscaCache.buscar(filtro, versao, busca -> consultas.executar(
+                Arrays.asList(BUSCAR, BuscaLancamentoCache.normalizar(busca), versao),
+                () -> leitura.execute(status -> {
+                    shards.usar(busca.getIdUsuario());
+                    leituraAposEscrita.identificarLeitor(busca.getIdUsuario());
+                    return repository.buscar(busca);
+                })));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
-        Example<Lancamento> example = Example.of(lancamentoFiltro,
-                ExampleMatcher.matching().withIgnoreCase().withStringMatcher(StringMatcher.CONTAINING));
+    public PaginaLancamento buscarPagina(FiltroLancamento filtro, CursorLancamento cursor, int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+            throw new RegraDeNegocioException(
+                    "Informe um tamanho de página entre 1 e " + TAMANHO_MAXIMO_PAGINA + ".");
+        }
 
-        return repository.findAll(example);
+        validarFiltro(filtro);
+        shards.usar(filtro.getIdUsuario());
+        leituraAposEscrita.identificarLeitor(filtro.getIdUsuario());
+        return repository.buscarPagina(filtro, cursor, tamanho);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void exportar(FiltroLancamento filtro, Consumer<Lancamento> consumidor) {
+        validarFiltro(filtro);
+        shards.usar(filtro.getIdUsuario());
+        leituraAposEscrita.identificarLeitor(filtro.getIdUsuario());
+        repository.percorrer(filtro, consumidor);
+    }
+
+    @Override
+    @Transactional
     public void atualizarStatus(Lancamento lancamento, StatusLancamento status) {
         lancamento.setStatus(status);
         atualizar(lancamento);
     }
 
+    @Override
+    @Transactional
+    public int atualizarStatusEmLote(List<Long> ids, StatusLancamento status) {
+        Objects.requireNonNull(status);
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // Com shards, cada um altera os lançamentos da lista que guarda, em uma
+        // transação própria: a alteração não é atômica entre shards, e um erro
+        // em um shard não desfaz o que os anteriores já confirmaram.
+        return shards.emCadaShard(false, () -> atualizarStatusNoShard(ids, status)).stream()
+                .mapToInt(Integer::intValue).sum();
+    }
+
+    private int atualizarStatusNoShard(List<Long> ids, StatusLancamento status) {
+        List<TotalLancamentos> totais = repository.totalizarParaStatus(ids, status);
+        List<IdentificacaoLancamento> lancamentos = repository.listarParaStatus(ids, status);
+        int alterados = repository.atualizarStatus(ids, status);
+        resumoService.alterarStatus(totais, status);
+        alteracaoService.registrarStatus(lancamentos, status);
+        aposEscrita.registrar(totais.stream().map(TotalLancamentos::getIdUsuario).collect(Collectors.toSet()));
+        return alterados;
+    }
+
+    @Override
+    @Transactional
+    public int atualizarStatusEmLote(Long idUsuario, Integer mes, Integer ano, StatusLancamento status) {
+        Objects.requireNonNull(idUsuario);
+        Objects.requireNonNull(status);
+        shards.usar(idUsuario);
+
+        List<TotalLancamentos> totais = repository.totalizarParaStatus(idUsuario, mes, ano, status);
+        List<Long> ids = repository.listarParaStatus(idUsuario, mes, ano, status);
+        int alterados = repository.atualizarStatus(idUsuario, mes, ano, status);
+        resumoService.alterarStatus(totais, status);
+        alteracaoService.registrarStatus(idUsuario, ids, status);
+        aposEscrita.registrar(idUsuario);
+        return alterados;
+    }
+
     @Override
     public void validarLancamento(Lancamento lancamento) {
 
@@ -91,33 +303,85 @@ public class LancamentoServiceImpl implements LancamentoService {
             throw new RegraDeNegocioException("Informe um Valor válido.");
         }
 
+        if (lancamento.getValor().stripTrailingZeros().scale() > Dinheiro.CASAS_DECIMAIS) {
+            throw new RegraDeNegocioException("Informe um Valor com no máximo duas casas decimais.");
+        }
+
         if (lancamento.getTipo() == null) {
             throw new RegraDeNegocioException("Informe um Tipo de Lançamento.");
         }
     }
 
     @Override
-    public Optional<Lancamento> buscarPorId(Long id) {
-        return repository.findById(id);
+    public void validarFiltro(FiltroLancamento filtro) {
+        if ((filtro.getMesInicial() != null && filtro.getAnoInicial() == null)
+                || (filtro.getMesFinal() != null && filtro.getAnoFinal() == null)) {
+            throw new RegraDeNegocioException("Informe o ano junto com o mês do período.");
+        }
+
+        if (filtro.getAnoInicial() != null && filtro.getAnoFinal() != null
+                && anoMes(filtro.getAnoInicial(), filtro.getMesInicial(), 1) > anoMes(filtro.getAnoFinal(),
+                        filtro.getMesFinal(), 12)) {
+            throw new RegraDeNegocioException("O início do período deve ser anterior ao fim.");
+        }
+
+        if (filtro.getValorMinimo() != null && filtro.getValorMaximo() != null
+                && filtro.getValorMinimo().compareTo(filtro.getValorMaximo()) > 0) {
+            throw new RegraDeNegocioException("O valor mínimo deve ser menor ou igual ao valor máximo.");
+        }
     }
 
+    private int anoMes(Integer ano, Integer mes, int mesPadrao) {
+        return ano * 100 + (mes != null ? mes : mesPadrao);
+    }
+
+    /**
+     * Com shards, o id é procurado em cada um, já que não diz o usuário; as
+     * faixas disjuntas das sequences (FaixasIdsShards) garantem que ele está
+     * em um só.
+     */
     @Override
-    @Transactional(readOnly = true)
-    public BigDecimal obterSaldoPorUsuario(Long idUsuario) {
-        BigDecimal receitas = repository.obterSaldoPorTipoDeLancamentoEUsuario(idUsuario,
-                TipoLancamento.RECEITA);
+    public Optional<Lancamento> buscarPorId(Long id) {
+        List<Lancamento> encontrados = shards.emCadaShard(true, () -> repository.findById(id)).stream()
+                .filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList());
 
-        BigDecimal despesas = repository.obterSaldoPorTipoDeLancamentoEUsuario(idUsuario,
-                TipoLancamento.DESPESA);
+        if (encontrados.size() > 1) {
+            throw new IllegalStateException("O lançamento " + id + " existe em mais de um shard.");
+        }
 
-        if (receitas == null) {
-            receitas = BigDecimal.ZERO;
+        return encontrados.stream().findFirst();
+    }
 
-        } else if (despesas == null) {
-            despesas = BigDecimal.ZERO;
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumoMensal> obterResumoAnual(Long idUsuario, Integer ano) {
+        Objects.requireNonNull(idUsuario);
+        Objects.requireNonNull(ano);
+        shards.usar(idUsuario);
+        leituraAposEscrita.identificarLeitor(idUsuario);
+        return resumoService.obterResumoAnual(idUsuario, ano);
+    }
+
+    /**
+     * Consultas simultâneas do saldo do mesmo usuário, na mesma versão dos
+     * dados, fazem uma leitura só, em transação própria.
+     */
+    @Override
+    public BigDecimal obterSaldoPorUsuario(Long idUsuario) {
+        if (idUsuario == null) {
+            return lerSaldo(null);
         }
 
-        return receitas.subtract(despesas);
+        long versao = versaoDadosService.obterVersao(idUsuario);
+        return consultas.executar(Arrays.asList(OBTER_SALDO, idUsuario, versao), () -> lerSaldo(idUsuario));
+    }
+
+    private BigDecimal lerSaldo(Long idUsuario) {
+        return leitura.execute(status -> {
+            shards.usar(idUsuario);
+            leituraAposEscrita.identificarLeitor(idUsuario);
+            return saldoService.obterSaldo(idUsuario);
+        });
     }
 
 }
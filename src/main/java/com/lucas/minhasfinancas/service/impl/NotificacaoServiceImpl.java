@@ -0,0 +1,488 @@
+package com.lucas.minhasfinancas.service.impl;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+import com.lucas.minhasfinancas.model.entity.AlteracaoLancamento;
+import com.lucas.minhasfinancas.roteamento.LeituraAposEscrita;
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.Notificacao;
+import com.lucas.minhasfinancas.service.NotificacaoService;
+import com.lucas.minhasfinancas.service.SaldoService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Notificações por SSE das alterações de lançamentos. Nenhuma thread fica
+ * presa a uma inscrição: a requisição é assíncrona e os envios são feitos por
+ * um pool pequeno. Após o commit, o saldo de cada usuário com inscritos é lido
+ * uma vez, por um publicador escolhido pelo id do usuário (o que mantém a
+ * ordem das notificações de um mesmo usuário), e a notificação entra na fila
+ * limitada de cada inscrito. Um inscrito com a fila cheia é encerrado; o
+ * navegador reconecta, recebe o saldo atual e busca em /alteracoes o que
+ * perdeu. As inscrições ficam na memória da instância que as recebeu.
+ * <p>
+ * O envio ao navegador é uma escrita bloqueante: um cliente que não lê a
+ * conexão prende a thread até o tempo limite de escrita do servidor. Um vigia
+ * encerra o inscrito cujo envio passa de {@code envioTempoLimiteMillis},
+ * interrompe a thread e, enquanto ela não volta, acrescenta outra ao pool
+ * (até {@code maximoEnviosTravados}), para que os demais inscritos continuem
+ * recebendo.
+ */
+@Service
+public class NotificacaoServiceImpl implements NotificacaoService, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacaoServiceImpl.class);
+
+    static final String EVENTO = "notificacao";
+
+    private final SaldoService saldoService;
+    private final Shards shards;
+    private final LeituraAposEscrita leituraAposEscrita;
+    private final long tempoLimiteMillis;
+    private final int capacidadePorInscrito;
+    private final int maximoPorUsuario;
+    private final int threadsEnvio;
+    private final long envioTempoLimiteNanos;
+    private final int maximoEnviosTravados;
+    private final ThreadPoolExecutor[] publicadores;
+    private final ThreadPoolExecutor envios;
+    private final ScheduledExecutorService vigia;
+
+    private final Map<Long, Set<Inscrito>> inscritos = new ConcurrentHashMap<>();
+    private final AtomicInteger quantidade = new AtomicInteger();
+    private final AtomicLong descartados = new AtomicLong();
+    private final Set<Inscrito> enviosEmAndamento = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger enviosTravados = new AtomicInteger();
+
+    @Autowired
+    public NotificacaoServiceImpl(SaldoService saldoService, Shards shards, LeituraAposEscrita leituraAposEscrita,
+            @Value("${minhasfinancas.notificacoes.tempo-limite-ms:1800000}") long tempoLimiteMillis,
+            @Value("${minhasfinancas.notificacoes.capacidade-por-inscrito:16}") int capacidadePorInscrito,
+            @Value("${minhasfinancas.notificacoes.maximo-por-usuario:5}") int maximoPorUsuario,
+            @Value("${minhasfinancas.notificacoes.publicadores:2}") int publicadores,
+            @Value("${minhasfinancas.notificacoes.threads-envio:4}") int threadsEnvio,
+            @Value("${minhasfinancas.notificacoes.capacidade-fila:10000}") int capacidadeFila,
+            @Value("${minhasfinancas.notificacoes.envio-tempo-limite-ms:5000}") long envioTempoLimiteMillis,
+            @Value("${minhasfinancas.notificacoes.maximo-envios-travados:16}") int maximoEnviosTravados) {
+        this.saldoService = saldoService;
+        this.shards = shards;
+        this.leituraAposEscrita = leituraAposEscrita;
+        this.tempoLimiteMillis = tempoLimiteMillis;
+        this.capacidadePorInscrito = capacidadePorInscrito;
+        this.maximoPorUsuario = maximoPorUsuario;
+        this.threadsEnvio = threadsEnvio;
+        this.envioTempoLimiteNanos = TimeUnit.MILLISECONDS.toNanos(envioTempoLimiteMillis);
+        this.maximoEnviosTravados = maximoEnviosTravados;
+        this.publicadores = new ThreadPoolExecutor[publicadores];
+
+        for (int i = 0; i < publicadores; i++) {
+            this.publicadores[i] = executor("notificacoes-publicador-" + i + "-", 1, capacidadeFila);
+        }
+
+        this.envios = executor("notificacoes-envio-", threadsEnvio, capacidadeFila);
+
+        CustomizableThreadFactory fabricaVigia = new CustomizableThreadFactory("notificacoes-vigia-");
+        fabricaVigia.setDaemon(true);
+        long intervaloMillis = Math.max(envioTempoLimiteMillis / 4, 10);
+        this.vigia = Executors.newSingleThreadScheduledExecutor(fabricaVigia);
+        this.vigia.scheduleWithFixedDelay(this::encerrarEnviosTravados, intervaloMillis, intervaloMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        for (ThreadPoolExecutor publicador : publicadores) {
+            publicador.shutdownNow();
+        }
+
+        envios.shutdownNow();
+        vigia.shutdownNow();
+        inscritos.values().stream().flatMap(Set::stream).collect(Collectors.toList())
+                .forEach(inscrito -> {
+                    remover(inscrito);
+                    fechar(inscrito);
+                });
+    }
+
+    @Override
+    public SseEmitter inscrever(Long idUsuario, Function<Notificacao, ?> conversor) {
+        SseEmitter emissor = new SseEmitter(tempoLimiteMillis);
+        inscrever(idUsuario, emissor, conversor);
+        return emissor;
+    }
+
+    @Override
+    public void inscrever(Long idUsuario, SseEmitter emissor, Function<Notificacao, ?> conversor) {
+        if (idUsuario == null) {
+            throw new RegraDeNegocioException("Informe o usuário da inscrição.");
+        }
+
+        Inscrito inscrito = new Inscrito(idUsuario, emissor, conversor, capacidadePorInscrito);
+        AtomicBoolean aceito = new AtomicBoolean();
+
+        inscritos.compute(idUsuario, (id, atuais) -> {
+            Set<Inscrito> doUsuario = atuais != null ? atuais : ConcurrentHashMap.newKeySet();
+
+            if (doUsuario.size() < maximoPorUsuario) {
+                doUsuario.add(inscrito);
+                aceito.set(true);
+            }
+
+            return doUsuario.isEmpty() ? null : doUsuario;
+        });
+
+        if (!aceito.get()) {
+            throw new RegraDeNegocioException(
+                    "O usuário já tem " + maximoPorUsuario + " inscrições abertas nas notificações.");
+        }
+
+        quantidade.incrementAndGet();
+        emissor.onCompletion(() -> remover(inscrito));
+        emissor.onTimeout(() -> remover(inscrito));
+        emissor.onError(erro -> remover(inscrito));
+
+        publicar(idUsuario, Collections.emptyList(), inscrito);
+    }
+
+    /**
+     * Sem inscritos para os usuários envolvidos, não faz nada: o custo na
+     * transação de quem altera é só a consulta ao mapa de inscrições.
+     */
+    @Override
+    public void notificar(List<AlteracaoLancamento> alteracoes) {
+        Map<Long, List<AlteracaoLancamento>> porUsuario = alteracoes.stream()
+                .filter(alteracao -> inscritos.containsKey(alteracao.getIdUsuario()))
+                .collect(Collectors.groupingBy(AlteracaoLancamento::getIdUsuario, LinkedHashMap::new,
+                        Collectors.toList()));
+
+        if (porUsuario.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            porUsuario.forEach((idUsuario, doUsuario) -> publicar(idUsuario, doUsuario, null));
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                porUsuario.forEach((idUsuario, doUsuario) -> publicar(idUsuario, doUsuario, null));
+            }
+        });
+    }
+
+    public int quantidadeInscritos() {
+        return quantidade.get();
+    }
+
+    public long quantidadeDescartados() {
+        return descartados.get();
+    }
+
+    public int quantidadeEnviosTravados() {
+        return enviosTravados.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("notificacoes.inscritos", this, NotificacaoServiceImpl::quantidadeInscritos)
+                .description("Inscrições abertas nas notificações de lançamentos").register(registry);
+        FunctionCounter.builder("notificacoes.descartados", this, NotificacaoServiceImpl::quantidadeDescartados)
+                .description("Inscrições encerradas por não acompanharem as notificações").register(registry);
+        Gauge.builder("notificacoes.envios.travados", this, NotificacaoServiceImpl::quantidadeEnviosTravados)
+                .description("Threads de envio presas em inscrições encerradas pelo tempo limite").register(registry);
+    }
+
+    /**
+     * Entrega a notificação a um inscrito ou, com {@code destino} nulo, a todos
+     * os do usuário. Sem espaço para a publicação, os inscritos são encerrados.
+     */
+    private void publicar(Long idUsuario, List<AlteracaoLancamento> alteracoes, Inscrito destino) {
+        try {
+            publicadores[Math.floorMod(idUsuario.hashCode(), publicadores.length)]
+                    .execute(() -> entregar(idUsuario, alteracoes, destino));
+
+        } catch (RejectedExecutionException e) {
+            destinos(idUsuario, destino).forEach(this::descartar);
+        }
+    }
+
+    private void entregar(Long idUsuario, List<AlteracaoLancamento> alteracoes, Inscrito destino) {
+        Collection<Inscrito> destinos = destinos(idUsuario, destino);
+
+        if (destinos.isEmpty()) {
+            return;
+        }
+
+        Notificacao notificacao;
+
+        try {
+            notificacao = new Notificacao(idUsuario, lerSaldo(idUsuario), alteracoes);
+
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível ler o saldo do usuário {} para as notificações.", idUsuario, e);
+            destinos.forEach(this::descartar);
+            return;
+        }
+
+        for (Inscrito inscrito : destinos) {
+            if (inscrito.fila.offer(notificacao)) {
+                agendarEnvio(inscrito);
+            } else {
+                descartar(inscrito);
+            }
+        }
+    }
+
+    /** Lido após o commit, no shard do usuário e, dentro da janela, no primário. */
+    private BigDecimal lerSaldo(Long idUsuario) {
+        return shards.noShard(shards.shardDoUsuario(idUsuario), true, () -> {
+            leituraAposEscrita.identificarLeitor(idUsuario);
+            return saldoService.obterSaldo(idUsuario);
+        });
+    }
+
+    /** No máximo um envio por inscrito fica agendado ou em andamento. */
+    private void agendarEnvio(Inscrito inscrito) {
+        if (!inscrito.agendado.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            envios.execute(() -> enviar(inscrito));
+
+        } catch (RejectedExecutionException e) {
+            inscrito.agendado.set(false);
+            descartar(inscrito);
+        }
+    }
+
+    private void enviar(Inscrito inscrito) {
+        synchronized (inscrito) {
+            if (inscrito.encerrado) {
+                inscrito.agendado.set(false);
+                return;
+            }
+
+            inscrito.enviando = Thread.currentThread();
+            inscrito.inicioEnvio = System.nanoTime();
+        }
+
+        enviosEmAndamento.add(inscrito);
+
+        try {
+            for (Notificacao notificacao = inscrito.fila.poll(); notificacao != null && !inscrito.encerrado;
+                    notificacao = inscrito.fila.poll()) {
+                inscrito.inicioEnvio = System.nanoTime();
+                inscrito.emissor.send(SseEmitter.event().name(EVENTO).data(inscrito.conversor.apply(notificacao)));
+            }
+
+        } catch (IOException | IllegalStateException e) {
+            // Conexão fechada pelo cliente ou emissor já encerrado.
+            remover(inscrito);
+            return;
+
+        } finally {
+            liberarThreadDeEnvio(inscrito);
+            inscrito.agendado.set(false);
+        }
+
+        // Uma notificação que chegou entre o último poll e a liberação do agendamento.
+        if (!inscrito.encerrado && !inscrito.fila.isEmpty()) {
+            agendarEnvio(inscrito);
+        }
+    }
+
+    /**
+     * Executado pelo vigia: encerra os inscritos com envio acima do tempo
+     * limite e repõe no pool as threads que eles prendem.
+     */
+    private void encerrarEnviosTravados() {
+        long agora = System.nanoTime();
+
+        for (Inscrito inscrito : enviosEmAndamento) {
+            if (agora - inscrito.inicioEnvio < envioTempoLimiteNanos) {
+                continue;
+            }
+
+            synchronized (inscrito) {
+                if (inscrito.enviando == null || inscrito.encerrado) {
+                    continue;
+                }
+
+                inscrito.compensado = ajustarThreadsDeEnvio(1);
+                inscrito.enviando.interrupt();
+            }
+
+            log.warn("Envio de notificação ao usuário {} passou de {} ms; inscrição encerrada.", inscrito.idUsuario,
+                    TimeUnit.NANOSECONDS.toMillis(envioTempoLimiteNanos));
+            descartar(inscrito);
+        }
+    }
+
+    /**
+     * Desfaz o que o vigia fez com a thread: limpa uma interrupção que tenha
+     * chegado depois do envio e retira a thread extra do pool. Fecha o
+     * emissor de um inscrito encerrado durante o envio.
+     */
+    private void liberarThreadDeEnvio(Inscrito inscrito) {
+        enviosEmAndamento.remove(inscrito);
+        boolean encerrado;
+
+        synchronized (inscrito) {
+            inscrito.enviando = null;
+            encerrado = inscrito.encerrado;
+        }
+
+        Thread.interrupted();
+
+        if (inscrito.compensado) {
+            inscrito.compensado = false;
+            ajustarThreadsDeEnvio(-1);
+        }
+
+        if (encerrado) {
+            inscrito.emissor.complete();
+        }
+    }
+
+    /** Devolve falso se o pool já tem o máximo de threads extras. */
+    private boolean ajustarThreadsDeEnvio(int delta) {
+        synchronized (envios) {
+            if (delta > 0 && enviosTravados.get() >= maximoEnviosTravados) {
+                return false;
+            }
+
+            int threads = threadsEnvio + enviosTravados.addAndGet(delta);
+
+            // O núcleo nunca pode passar do máximo.
+            if (delta > 0) {
+                envios.setMaximumPoolSize(threads);
+                envios.setCorePoolSize(threads);
+            } else {
+                envios.setCorePoolSize(threads);
+                envios.setMaximumPoolSize(threads);
+            }
+
+            return true;
+        }
+    }
+
+    private void descartar(Inscrito inscrito) {
+        if (remover(inscrito)) {
+            descartados.incrementAndGet();
+            fechar(inscrito);
+        }
+    }
+
+    /**
+     * O complete() do emissor espera o send em andamento terminar; com um
+     * envio em curso, quem fecha o emissor é a thread do envio, ao terminar.
+     */
+    private void fechar(Inscrito inscrito) {
+        boolean emEnvio;
+
+        synchronized (inscrito) {
+            inscrito.encerrado = true;
+            emEnvio = inscrito.enviando != null;
+        }
+
+        if (!emEnvio) {
+            inscrito.emissor.complete();
+        }
+    }
+
+    private boolean remover(Inscrito inscrito) {
+        AtomicBoolean removido = new AtomicBoolean();
+
+        inscritos.computeIfPresent(inscrito.idUsuario, (id, doUsuario) -> {
+            removido.set(doUsuario.remove(inscrito));
+            return doUsuario.isEmpty() ? null : doUsuario;
+        });
+
+        if (removido.get()) {
+            quantidade.decrementAndGet();
+        }
+
+        return removido.get();
+    }
+
+    private Collection<Inscrito> destinos(Long idUsuario, Inscrito destino) {
+        if (destino != null) {
+            return Collections.singletonList(destino);
+        }
+
+        Set<Inscrito> doUsuario = inscritos.get(idUsuario);
+        return doUsuario != null ? new ArrayList<>(doUsuario) : Collections.emptyList();
+    }
+
+    private static ThreadPoolExecutor executor(String prefixo, int threads, int capacidadeFila) {
+        CustomizableThreadFactory fabrica = new CustomizableThreadFactory(prefixo);
+        fabrica.setDaemon(true);
+
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(capacidadeFila), fabrica);
+    }
+
+    private static class Inscrito {
+
+        private final Long idUsuario;
+        private final SseEmitter emissor;
+        private final Function<Notificacao, ?> conversor;
+        private final BlockingQueue<Notificacao> fila;
+        private final AtomicBoolean agendado = new AtomicBoolean();
+
+        /** Thread do envio em andamento; alterada sob o monitor do inscrito. */
+        private Thread enviando;
+        private volatile long inicioEnvio;
+        private volatile boolean encerrado;
+        private volatile boolean compensado;
+
+        Inscrito(Long idUsuario, SseEmitter emissor, Function<Notificacao, ?> conversor, int capacidade) {
+            this.idUsuario = idUsuario;
+            this.emissor = emissor;
+            this.conversor = conversor;
+            this.fila = new ArrayBlockingQueue<>(capacidade);
+        }
+    }
+
+}
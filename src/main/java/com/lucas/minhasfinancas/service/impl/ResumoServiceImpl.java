@@ -0,0 +1,151 @@
+package com.lucas.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.ResumoMensal;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.repository.EstadoLancamento;
+import com.lucas.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.lucas.minhasfinancas.model.repository.TotalLancamentos;
+import com.lucas.minhasfinancas.service.Dinheiro;
+import com.lucas.minhasfinancas.service.ResumoService;
+
+/**
+ * Mantém o resumo mensal por usuário. Como o saldo, os métodos de escrita
+ * participam da transação de quem os chama e aplicam apenas a diferença.
+ */
+@Service
+public class ResumoServiceImpl implements ResumoService {
+
+    private ResumoMensalRepository repository;
+
+    @Autowired
+    public ResumoServiceImpl(ResumoMensalRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    @Transactional
+    public void registrarLancamento(Lancamento lancamento) {
+        somar(chave(lancamento), Dinheiro.de(lancamento.getValor()), 1);
+    }
+
+    @Override
+    @Transactional
+    public void registrarLancamentos(List<Lancamento> lancamentos) {
+        Map<ResumoMensal.Chave, Parcial> parciais = new LinkedHashMap<>();
+
+        for (Lancamento lancamento : lancamentos) {
+            Parcial parcial = parciais.computeIfAbsent(chave(lancamento), chave -> new Parcial());
+            parcial.centavos = Math.addExact(parcial.centavos, Dinheiro.paraCentavos(lancamento.getValor()));
+            parcial.quantidade++;
+        }
+
+        parciais.forEach((chave, parcial) -> somar(chave, Dinheiro.deCentavos(parcial.centavos),
+                parcial.quantidade));
+    }
+
+    @Override
+    @Transactional
+    public void atualizarLancamento(EstadoLancamento estadoAnterior, Lancamento lancamento) {
+        if (estadoAnterior == null) {
+            registrarLancamento(lancamento);
+            return;
+        }
+
+        ResumoMensal.Chave anterior = chave(estadoAnterior);
+        ResumoMensal.Chave atual = chave(lancamento);
+
+        if (anterior.equals(atual)) {
+            somar(atual, Dinheiro.de(lancamento.getValor()).subtrair(Dinheiro.de(estadoAnterior.getValor())), 0);
+        } else {
+            somar(anterior, Dinheiro.de(estadoAnterior.getValor()).negar(), -1);
+            somar(atual, Dinheiro.de(lancamento.getValor()), 1);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void estornarLancamento(EstadoLancamento estadoAnterior) {
+        somar(chave(estadoAnterior), Dinheiro.de(estadoAnterior.getValor()).negar(), -1);
+    }
+
+    @Override
+    @Transactional
+    public void alterarStatus(List<TotalLancamentos> totais, StatusLancamento status) {
+        for (TotalLancamentos total : totais) {
+            Dinheiro valor = Dinheiro.de(total.getTotal());
+            somar(new ResumoMensal.Chave(total.getIdUsuario(), total.getAno(), total.getMes(), total.getTipo(),
+                    statusDoResumo(total.getStatus())), valor.negar(), -total.getQuantidade());
+            somar(new ResumoMensal.Chave(total.getIdUsuario(), total.getAno(), total.getMes(), total.getTipo(),
+                    status), valor, total.getQuantidade());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumoMensal> obterResumoAnual(Long idUsuario, Integer ano) {
+        return repository.buscarPorAno(idUsuario, ano);
+    }
+
+    @Override
+    @Transactional
+    public void reconstruirResumos() {
+        repository.deleteAllInBatch();
+        repository.recalcularResumos();
+    }
+
+    private void somar(ResumoMensal.Chave chave, Dinheiro valor, long quantidade) {
+        if (valor.signum() == 0 && quantidade == 0) {
+            return;
+        }
+
+        BigDecimal total = valor.paraBigDecimal();
+
+        // Como no saldo, a primeira escrita da chave cria a linha zerada e
+        // repete o UPDATE, de modo que escritas simultâneas somam as duas.
+        if (repository.somar(chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipo(),
+                chave.getStatus(), total, quantidade) == 0) {
+            repository.criarSeAusente(chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipo().name(),
+                    chave.getStatus().name());
+            repository.somar(chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipo(),
+                    chave.getStatus(), total, quantidade);
+        }
+    }
+
+    private ResumoMensal.Chave chave(Lancamento lancamento) {
+        return new ResumoMensal.Chave(lancamento.getUsuario().getId(), lancamento.getAno(), lancamento.getMes(),
+                lancamento.getTipo(), statusDoResumo(lancamento.getStatus()));
+    }
+
+    private ResumoMensal.Chave chave(EstadoLancamento estado) {
+        return new ResumoMensal.Chave(estado.getIdUsuario(), estado.getAno(), estado.getMes(), estado.getTipo(),
+                statusDoResumo(estado.getStatus()));
+    }
+
+    /**
+     * Lançamentos gravados sem status (um PUT sem status gravava NULL) entram
+     * no resumo como PENDENTE, o status de todo lançamento novo; a
+     * reconstrução (recalcularResumos) faz o mesmo.
+     */
+    private static StatusLancamento statusDoResumo(StatusLancamento status) {
+        return status != null ? status : StatusLancamento.PENDENTE;
+    }
+
+    /**
+     * Total e quantidade acumulados de uma chave durante o agrupamento do lote.
+     */
+    private static class Parcial {
+        long centavos;
+        long quantidade;
+    }
+
+}
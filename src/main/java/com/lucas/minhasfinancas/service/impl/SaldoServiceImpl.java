@@ -0,0 +1,114 @@
+package com.lucas.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.SaldoUsuario;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+import com.lucas.minhasfinancas.model.repository.EstadoLancamento;
+import com.lucas.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.lucas.minhasfinancas.service.Dinheiro;
+import com.lucas.minhasfinancas.service.SaldoService;
+
+/**
+ * Mantém a tabela de saldos por usuário. Os métodos de escrita participam da
+ * transação de quem os chama, de modo que o saldo é alterado junto com o
+ * lançamento. O saldo considera todos os lançamentos do usuário,
+ * independentemente do status, assim como a consulta agregada original. As
+ * diferenças são calculadas em {@link Dinheiro} e só viram BigDecimal no UPDATE.
+ */
+@Service
+public class SaldoServiceImpl implements SaldoService {
+
+    private SaldoUsuarioRepository repository;
+
+    @Autowired
+    public SaldoServiceImpl(SaldoUsuarioRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    @Transactional
+    public void registrarLancamento(Lancamento lancamento) {
+        somar(lancamento.getUsuario().getId(), valorComSinal(lancamento.getTipo(), lancamento.getValor()));
+    }
+
+    @Override
+    @Transactional
+    public void registrarLancamentos(List<Lancamento> lancamentos) {
+        Map<Long, Dinheiro> valoresPorUsuario = new HashMap<>();
+
+        for (Lancamento lancamento : lancamentos) {
+            valoresPorUsuario.merge(lancamento.getUsuario().getId(),
+                    valorComSinal(lancamento.getTipo(), lancamento.getValor()), Dinheiro::somar);
+        }
+
+        valoresPorUsuario.forEach(this::somar);
+    }
+
+    @Override
+    @Transactional
+    public void atualizarLancamento(EstadoLancamento estadoAnterior, Lancamento lancamento) {
+        if (estadoAnterior == null) {
+            registrarLancamento(lancamento);
+            return;
+        }
+
+        Dinheiro valorAnterior = valorComSinal(estadoAnterior.getTipo(), estadoAnterior.getValor());
+        Dinheiro valorAtual = valorComSinal(lancamento.getTipo(), lancamento.getValor());
+        Long idUsuario = lancamento.getUsuario().getId();
+
+        if (Objects.equals(estadoAnterior.getIdUsuario(), idUsuario)) {
+            somar(idUsuario, valorAtual.subtrair(valorAnterior));
+        } else {
+            somar(estadoAnterior.getIdUsuario(), valorAnterior.negar());
+            somar(idUsuario, valorAtual);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void estornarLancamento(EstadoLancamento estadoAnterior) {
+        somar(estadoAnterior.getIdUsuario(), valorComSinal(estadoAnterior.getTipo(), estadoAnterior.getValor()).negar());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal obterSaldo(Long idUsuario) {
+        return repository.findById(idUsuario).map(SaldoUsuario::getValor).orElse(BigDecimal.ZERO);
+    }
+
+    @Override
+    @Transactional
+    public void reconstruirSaldos() {
+        repository.deleteAllInBatch();
+        repository.recalcularSaldos(TipoLancamento.RECEITA);
+    }
+
+    private void somar(Long idUsuario, Dinheiro valor) {
+        if (valor.signum() == 0) {
+            return;
+        }
+
+        // Na primeira escrita do usuário, a linha é criada zerada e o UPDATE é
+        // repetido; duas primeiras escritas simultâneas somam as duas.
+        if (repository.somarAoSaldo(idUsuario, valor.paraBigDecimal()) == 0) {
+            repository.criarSeAusente(idUsuario);
+            repository.somarAoSaldo(idUsuario, valor.paraBigDecimal());
+        }
+    }
+
+    private Dinheiro valorComSinal(TipoLancamento tipo, BigDecimal valor) {
+        Dinheiro dinheiro = Dinheiro.de(valor);
+        return tipo == TipoLancamento.DESPESA ? dinheiro.negar() : dinheiro;
+    }
+
+}
@@ -0,0 +1,268 @@
+package com.lucas.minhasfinancas.service.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.LancamentoService;
+import com.lucas.minhasfinancas.service.ResultadoLote;
+import com.lucas.minhasfinancas.service.SalvamentoAgrupadoService;
+
+/**
+ * Grava lançamentos avulsos em grupo. Com o modo habilitado, cada chamada
+ * entra em uma fila e aguarda; uma única thread junta os pedidos que chegam
+ * dentro da janela (ou até o tamanho máximo) e grava todos com
+ * {@link LancamentoService#salvarEmLote}, em uma transação e um commit, com
+ * INSERTs em lote. Cada chamador recebe o próprio lançamento gravado ou o
+ * próprio erro de validação. Desabilitado, ou com a fila cheia, a chamada
+ * grava na hora com {@link LancamentoService#salvar}. Com shards, cada
+ * grupo é dividido em um lote por shard. Um pedido que esgota a espera antes
+ * de o gravador pegá-lo é cancelado e nunca é gravado, de modo que o cliente
+ * pode repetir a chamada sem duplicar o lançamento.
+ */
+@Service
+public class SalvamentoAgrupadoServiceImpl implements SalvamentoAgrupadoService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalvamentoAgrupadoServiceImpl.class);
+
+    private final LancamentoService lancamentoService;
+    private final Shards shards;
+    private final boolean habilitado;
+    private final long janelaNanos;
+    private final int tamanhoMaximo;
+    private final long esperaMaximaMillis;
+    private final BlockingQueue<Pedido> fila;
+
+    private volatile boolean ativo;
+    private Thread gravador;
+
+    @Autowired
+    public SalvamentoAgrupadoServiceImpl(LancamentoService lancamentoService, Shards shards,
+            @Value("${minhasfinancas.salvar-agrupado.habilitado:false}") boolean habilitado,
+            @Value("${minhasfinancas.salvar-agrupado.janela-ms:5}") long janelaMillis,
+            @Value("${minhasfinancas.salvar-agrupado.tamanho-maximo:200}") int tamanhoMaximo,
+            @Value("${minhasfinancas.salvar-agrupado.capacidade-fila:10000}") int capacidadeFila,
+            @Value("${minhasfinancas.salvar-agrupado.espera-maxima-ms:30000}") long esperaMaximaMillis) {
+        this.lancamentoService = lancamentoService;
+        this.shards = shards;
+        this.habilitado = habilitado;
+        this.janelaNanos = TimeUnit.MILLISECONDS.toNanos(janelaMillis);
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.esperaMaximaMillis = esperaMaximaMillis;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+
+        ativo = true;
+        gravador = new Thread(this::gravarContinuamente, "salvamento-agrupado");
+        gravador.setDaemon(true);
+        gravador.start();
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        if (gravador == null) {
+            return;
+        }
+
+        ativo = false;
+        gravador.interrupt();
+        gravador.join(esperaMaximaMillis);
+    }
+
+    @Override
+    public Lancamento salvar(Lancamento lancamento) {
+        Pedido pedido = new Pedido(lancamento);
+
+        if (!ativo || !fila.offer(pedido)) {
+            return lancamentoService.salvar(lancamento);
+        }
+
+        // Enfileirado durante o encerramento, depois que a fila foi esvaziada.
+        if (!ativo && fila.remove(pedido)) {
+            return lancamentoService.salvar(lancamento);
+        }
+
+        try {
+            return aguardar(pedido, esperaMaximaMillis);
+
+        } catch (TimeoutException e) {
+            if (pedido.reservar()) {
+                fila.remove(pedido);
+                pedido.resultado.cancel(false);
+                throw new IllegalStateException("Tempo esgotado aguardando a gravação do lançamento.", e);
+            }
+        }
+
+        // O gravador já pegou o pedido: o resultado chega com o fim da transação dele.
+        try {
+            return aguardar(pedido, Long.MAX_VALUE);
+
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Lancamento aguardar(Pedido pedido, long esperaMillis) throws TimeoutException {
+        try {
+            return pedido.resultado.get(esperaMillis, TimeUnit.MILLISECONDS);
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Gravação do lançamento interrompida.", e);
+        }
+    }
+
+    private void gravarContinuamente() {
+        List<Pedido> grupo = new ArrayList<>(tamanhoMaximo);
+
+        while (ativo) {
+            try {
+                grupo.add(fila.take());
+                long limite = System.nanoTime() + janelaNanos;
+
+                while (grupo.size() < tamanhoMaximo) {
+                    Pedido proximo = fila.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+                    if (proximo == null) {
+                        break;
+                    }
+
+                    grupo.add(proximo);
+                }
+
+            } catch (InterruptedException e) {
+                // Encerramento: ativo já é false e o que foi juntado ainda é gravado.
+            }
+
+            gravar(grupo);
+            grupo.clear();
+        }
+
+        // Pedidos que já estavam na fila no encerramento ainda são gravados.
+        fila.drainTo(grupo);
+        gravar(grupo);
+    }
+
+    /** Pedidos que o chamador já cancelou por tempo esgotado ficam de fora. */
+    private void gravar(List<Pedido> pedidos) {
+        List<Pedido> grupo = pedidos.stream().filter(Pedido::reservar).collect(Collectors.toList());
+
+        if (grupo.isEmpty()) {
+            return;
+        }
+
+        List<List<Pedido>> lotes;
+
+        try {
+            lotes = new ArrayList<>(grupo.stream()
+                    .collect(Collectors.groupingBy(this::shard, LinkedHashMap::new, Collectors.toList())).values());
+
+        } catch (RuntimeException e) {
+            log.warn("Falha ao obter o shard dos lançamentos; gravando um a um.", e);
+            grupo.forEach(this::gravarSozinho);
+            return;
+        }
+
+        lotes.forEach(this::gravarLote);
+    }
+
+    private void gravarLote(List<Pedido> grupo) {
+        List<Lancamento> lancamentos = new ArrayList<>(grupo.size());
+        grupo.forEach(pedido -> lancamentos.add(pedido.lancamento));
+
+        ResultadoLote resultado;
+
+        try {
+            resultado = lancamentoService.salvarEmLote(lancamentos);
+
+        } catch (RuntimeException e) {
+            // Uma falha no lote não deve derrubar os outros pedidos: cada um é gravado sozinho.
+            log.warn("Falha ao gravar grupo de {} lançamentos; gravando um a um.", grupo.size(), e);
+            grupo.forEach(this::gravarSozinho);
+            return;
+        }
+
+        String[] erros = new String[grupo.size()];
+        resultado.getErros().forEach(erro -> erros[erro.getIndice()] = erro.getMensagem());
+        Iterator<Lancamento> salvos = resultado.getSalvos().iterator();
+
+        for (int i = 0; i < grupo.size(); i++) {
+            if (erros[i] != null) {
+                grupo.get(i).resultado.completeExceptionally(new RegraDeNegocioException(erros[i]));
+            } else {
+                grupo.get(i).resultado.complete(salvos.next());
+            }
+        }
+
+        log.debug("Grupo de {} lançamentos gravado em uma transação.", grupo.size());
+    }
+
+    /** Sem usuário, o lançamento é recusado na validação de qualquer lote. */
+    private int shard(Pedido pedido) {
+        Usuario usuario = pedido.lancamento.getUsuario();
+        return usuario == null || usuario.getId() == null ? 0 : shards.shardDoUsuario(usuario.getId());
+    }
+
+    private void gravarSozinho(Pedido pedido) {
+        try {
+            pedido.resultado.complete(lancamentoService.salvar(pedido.lancamento));
+        } catch (RuntimeException e) {
+            pedido.resultado.completeExceptionally(e);
+        }
+    }
+
+    private static class Pedido {
+
+        private final Lancamento lancamento;
+        private final CompletableFuture<Lancamento> resultado = new CompletableFuture<>();
+        private final AtomicBoolean reservado = new AtomicBoolean();
+
+        Pedido(Lancamento lancamento) {
+            this.lancamento = lancamento;
+        }
+
+        /**
+         * Disputado pelo gravador, antes de gravar, e pelo chamador, ao esgotar
+         * a espera: só quem reservar decide o destino do pedido.
+         */
+        boolean reservar() {
+            return reservado.compareAndSet(false, true);
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.lucas.minhasfinancas.service.impl;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache limitado, com expiração, dos usuários buscados por id e por email.
+ * Apenas usuários encontrados são guardados; buscas sem resultado sempre vão
+ * ao banco. Acertos, faltas e remoções são publicados como métricas cache.*.
+ */
+@Component
+public class UsuarioCache implements MeterBinder {
+
+    private final Cache<Long, Usuario> porId;
+    private final Cache<String, Usuario> porEmail;
+
+    public UsuarioCache(@Value("${minhasfinancas.cache.usuarios.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${minhasfinancas.cache.usuarios.expiracao-minutos:10}") long expiracaoMinutos) {
+        Duration expiracao = Duration.ofMinutes(expiracaoMinutos);
+
+        this.porId = Caffeine.newBuilder().maximumSize(tamanhoMaximo).expireAfterWrite(expiracao).recordStats()
+                .build();
+        this.porEmail = Caffeine.newBuilder().maximumSize(tamanhoMaximo).expireAfterWrite(expiracao).recordStats()
+                .build();
+    }
+
+    public Optional<Usuario> buscarPorId(Long id, Function<Long, Optional<Usuario>> carregar) {
+        Usuario usuario = porId.getIfPresent(id);
+
+        if (usuario != null) {
+            return Optional.of(usuario);
+        }
+
+        Optional<Usuario> carregado = carregar.apply(id);
+        carregado.ifPresent(this::guardar);
+        return carregado;
+    }
+
+    public Optional<Usuario> buscarPorEmail(String email, Function<String, Optional<Usuario>> carregar) {
+        Usuario usuario = porEmail.getIfPresent(email);
+
+        if (usuario != null) {
+            return Optional.of(usuario);
+        }
+
+        Optional<Usuario> carregado = carregar.apply(email);
+        carregado.ifPresent(this::guardar);
+        return carregado;
+    }
+
+    public boolean contem(Long id) {
+        return porId.getIfPresent(id) != null;
+    }
+
+    public void invalidar(Usuario usuario) {
+        if (usuario.getId() != null) {
+            porId.invalidate(usuario.getId());
+        }
+
+        if (usuario.getEmail() != null) {
+            porEmail.invalidate(usuario.getEmail());
+        }
+    }
+
+    public void invalidarTodos() {
+        porId.invalidateAll();
+        porEmail.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, porId, "usuarios.por-id");
+        CaffeineCacheMetrics.monitor(registry, porEmail, "usuarios.por-email");
+    }
+
+    public CacheStats estatisticasPorId() {
+        return porId.stats();
+    }
+
+    public CacheStats estatisticasPorEmail() {
+        return porEmail.stats();
+    }
+
+    private void guardar(Usuario usuario) {
+        if (usuario.getId() != null) {
+            porId.put(usuario.getId(), usuario);
+        }
+
+        if (usuario.getEmail() != null) {
+            porEmail.put(usuario.getEmail(), usuario);
+        }
+    }
+
+}
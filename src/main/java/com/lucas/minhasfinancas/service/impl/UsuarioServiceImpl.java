@@ -10,22 +10,27 @@ import com.lucas.minhasfinancas.exception.ErroAutenticacao;
 import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
 import com.lucas.minhasfinancas.model.entity.Usuario;
 import com.lucas.minhasfinancas.model.repository.UsuarioRepository;
+import com.lucas.minhasfinancas.roteamento.Shards;
 import com.lucas.minhasfinancas.service.UsuarioService;
 
 @Service
 public class UsuarioServiceImpl implements UsuarioService {
 
     private UsuarioRepository repository;
+    private UsuarioCache cache;
+    private Shards shards;
 
     @Autowired
-    public UsuarioServiceImpl(UsuarioRepository repository) {
+    public UsuarioServiceImpl(UsuarioRepository repository, UsuarioCache cache, Shards shards) {
         super();
         this.repository = repository;
+        this.cache = cache;
+        this.shards = shards;
     }
 
     @Override
     public Usuario autenticar(String email, String senha) {
-        Optional<Usuario> usuario = repository.findByEmail(email);
+        Optional<Usuario> usuario = cache.buscarPorEmail(email, this::carregarPorEmail);
 
         if (!usuario.isPresent()) {
             throw new ErroAutenticacao("Usuário não foi encontrado.");
@@ -38,16 +43,30 @@ public class UsuarioServiceImpl implements UsuarioService {
         return usuario.get();
     }
 
+    /**
+     * Com shards, o usuário é gravado no shard alocado pelo email e registrado
+     * no diretório, que recusa um email já cadastrado em qualquer shard.
+     */
     @Override
     @Transactional
     public Usuario salvarUsuario(Usuario usuario) {
         validarEmail(usuario.getEmail());
-        return repository.save(usuario);
+        int shard = shards.alocar(usuario.getEmail());
+        shards.usarShard(shard);
+        Usuario usuarioSalvo = repository.save(usuario);
+
+        if (shards.isHabilitado()) {
+            shards.diretorio().registrar(usuarioSalvo.getId(), usuarioSalvo.getEmail(), shard);
+        }
+
+        cache.invalidar(usuarioSalvo);
+        return usuarioSalvo;
     }
 
     @Override
     public void validarEmail(String email) {
-        boolean existeEmail = repository.existsByEmail(email);
+        boolean existeEmail = shards.isHabilitado() ? shards.diretorio().existeEmail(email)
+                : repository.existsByEmail(email);
 
         if (existeEmail) {
             throw new RegraDeNegocioException("Já existe um usuário cadastrado com esse email.");
@@ -56,7 +75,40 @@ public class UsuarioServiceImpl implements UsuarioService {
 
     @Override
     public Optional<Usuario> buscarPorId(Long id) {
-        return repository.findById(id);
+        return cache.buscarPorId(id, this::carregarPorId);
+    }
+
+    /**
+     * Referência ao usuário para ser usada como chave estrangeira, sem carregar
+     * seus dados. A existência é conferida no cache ou com um exists no banco.
+     */
+    @Override
+    public Optional<Usuario> obterReferencia(Long id) {
+        if (!cache.contem(id) && !existe(id)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(repository.getReferenceById(id));
+    }
+
+    private boolean existe(Long id) {
+        return shards.isHabilitado() ? shards.diretorio().obterShard(id).isPresent() : repository.existsById(id);
+    }
+
+    private Optional<Usuario> carregarPorId(Long id) {
+        if (!shards.isHabilitado()) {
+            return repository.findById(id);
+        }
+
+        return shards.noShard(shards.shardDoUsuario(id), true, () -> repository.findById(id));
+    }
+
+    private Optional<Usuario> carregarPorEmail(String email) {
+        if (!shards.isHabilitado()) {
+            return repository.findByEmail(email);
+        }
+
+        return shards.diretorio().buscarIdPorEmail(email).flatMap(this::carregarPorId);
     }
 
 }
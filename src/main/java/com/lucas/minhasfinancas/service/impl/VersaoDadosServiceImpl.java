@@ -0,0 +1,72 @@
+package com.lucas.minhasfinancas.service.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lucas.minhasfinancas.service.VersaoDadosService;
+
+/**
+ * Versão dos dados de cada usuário, usada como ETag nas consultas. Toda versão
+ * vem de um único contador, iniciado a partir do horário de início da
+ * aplicação, então um valor nunca se repete: nem para um usuário descartado do
+ * cache e carregado de novo, nem depois de um reinício. A versão fica só em
+ * memória e pressupõe uma única instância da aplicação.
+ */
+@Service
+public class VersaoDadosServiceImpl implements VersaoDadosService {
+
+    private final AtomicLong contador = new AtomicLong(System.currentTimeMillis() << 20);
+    private final Cache<Long, Long> versoes;
+
+    public VersaoDadosServiceImpl(
+            @Value("${minhasfinancas.versoes.usuarios-em-memoria:100000}") long usuariosEmMemoria) {
+        this.versoes = Caffeine.newBuilder().maximumSize(usuariosEmMemoria).build();
+    }
+
+    @Override
+    public long obterVersao(Long idUsuario) {
+        return versoes.get(idUsuario, id -> contador.incrementAndGet());
+    }
+
+    @Override
+    public void incrementar(Long idUsuario) {
+        incrementar(Collections.singleton(idUsuario));
+    }
+
+    /**
+     * Dentro de uma transação, a nova versão só é publicada depois do commit.
+     * Como a consulta lê a versão antes dos dados, a nova versão nunca é
+     * enviada junto com os dados anteriores à alteração.
+     */
+    @Override
+    public void incrementar(Collection<Long> idsUsuarios) {
+        Set<Long> ids = new HashSet<>(idsUsuarios);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publicar(ids);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publicar(ids);
+            }
+        });
+    }
+
+    private void publicar(Set<Long> ids) {
+        ids.forEach(id -> versoes.put(id, contador.incrementAndGet()));
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.lucas.minhasfinancas.admissao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class CompartimentosFilterTest {
+
+    @Test
+    public void deveAceitarEscritasComOCompartimentoDeLeituraSaturado() throws Exception {
+        // Cenário
+        CompartimentosFilter filtro = new CompartimentosFilter(true, 1, 0, 1, 0, 10);
+        AtomicReference<MockHttpServletResponse> leitura = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> escrita = new AtomicReference<>();
+
+        // Execução: durante uma busca, chegam outra busca e uma gravação.
+        executar(filtro, buscar(), () -> {
+            leitura.set(executar(filtro, buscar(), () -> { }));
+            escrita.set(executar(filtro, salvar(), () -> { }));
+        });
+
+        // Verificação
+        assertEquals(503, leitura.get().getStatus());
+        assertEquals("1", leitura.get().getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, escrita.get().getStatus());
+        assertEquals(1, filtro.getLeitura().recusadas());
+        assertEquals(0, filtro.getEscrita().recusadas());
+        assertEquals(0, filtro.getLeitura().emAndamento());
+    }
+
+    @Test
+    public void deveTratarAAutenticacaoComoLeitura() throws Exception {
+        // Cenário
+        CompartimentosFilter filtro = new CompartimentosFilter(true, 1, 0, 1, 0, 10);
+        AtomicReference<MockHttpServletResponse> autenticar = new AtomicReference<>();
+
+        // Execução: com a única vaga de escrita ocupada, chega uma autenticação.
+        executar(filtro, salvar(), () -> autenticar.set(executar(filtro,
+                new MockHttpServletRequest("POST", "/api/usuarios/autenticar"), () -> { })));
+
+        // Verificação
+        assertEquals(200, autenticar.get().getStatus());
+        assertEquals(0, filtro.getEscrita().recusadas());
+        assertEquals(0, filtro.getLeitura().emAndamento());
+    }
+
+    @Test
+    public void deveRecusarQuemEsperaNaFilaAlemDoTempoMaximo() throws Exception {
+        // Cenário
+        CompartimentosFilter filtro = new CompartimentosFilter(true, 1, 1, 1, 1, 50);
+        AtomicReference<MockHttpServletResponse> naFila = new AtomicReference<>();
+
+        // Execução
+        executar(filtro, buscar(), () -> naFila.set(executar(filtro, buscar(), () -> { })));
+
+        // Verificação
+        assertEquals(503, naFila.get().getStatus());
+        assertEquals(0, filtro.getLeitura().naFila());
+    }
+
+    @Test
+    public void deveManterAVagaAteOFimDeUmaRespostaAssincrona() throws Exception {
+        // Cenário
+        CompartimentosFilter filtro = new CompartimentosFilter(true, 2, 0, 2, 0, 10);
+        MockHttpServletRequest exportar = new MockHttpServletRequest("GET", "/api/lancamentos/exportar");
+        exportar.setAsyncSupported(true);
+
+        // Execução
+        filtro.doFilter(exportar, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                request.startAsync();
+            }
+        });
+        int duranteAExportacao = filtro.getLeitura().emAndamento();
+        exportar.getAsyncContext().complete();
+
+        // Verificação
+        assertEquals(1, duranteAExportacao);
+        assertEquals(0, filtro.getLeitura().emAndamento());
+    }
+
+    private static MockHttpServletRequest buscar() {
+        return new MockHttpServletRequest("GET", "/api/lancamentos/buscar");
+    }
+
+    private static MockHttpServletRequest salvar() {
+        return new MockHttpServletRequest("POST", "/api/lancamentos/salvarlancamento");
+    }
+
+    private static MockHttpServletResponse executar(CompartimentosFilter filtro, MockHttpServletRequest request,
+            Runnable processamento) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try {
+            filtro.doFilter(request, response, new MockFilterChain() {
+                @Override
+                public void doFilter(ServletRequest request, ServletResponse response) {
+                    processamento.run();
+                }
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+
+        return response;
+    }
+
+}
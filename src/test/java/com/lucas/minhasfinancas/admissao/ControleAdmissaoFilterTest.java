@@ -0,0 +1,125 @@
+package com.lucas.minhasfinancas.admissao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class ControleAdmissaoFilterTest {
+
+    @Test
+    public void deveRecusarComRetryAfterQuandoOBaldeDoUsuarioEsvazia() throws Exception {
+        // Cenário
+        ControleAdmissaoFilter filtro = new ControleAdmissaoFilter(true, true, 10, 1, 2, 300, 1000);
+
+        // Execução
+        MockHttpServletResponse primeira = executar(filtro, buscar("1"));
+        MockHttpServletResponse segunda = executar(filtro, buscar("1"));
+        MockHttpServletResponse terceira = executar(filtro, buscar("1"));
+        MockHttpServletResponse outroUsuario = executar(filtro, buscar("2"));
+
+        // Verificação
+        assertEquals(200, primeira.getStatus());
+        assertEquals(200, segunda.getStatus());
+        assertEquals(429, terceira.getStatus());
+        assertEquals("1", terceira.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, outroUsuario.getStatus());
+    }
+
+    @Test
+    public void deveRecusarAcimaDoLimiteDeRequisicoesSimultaneas() throws Exception {
+        // Cenário
+        ControleAdmissaoFilter filtro = new ControleAdmissaoFilter(true, false, 1, 100, 100, 300, 1000);
+        AtomicReference<MockHttpServletResponse> simultanea = new AtomicReference<>();
+
+        // Execução: a segunda requisição chega enquanto a primeira está em andamento.
+        MockHttpServletResponse primeira = new MockHttpServletResponse();
+        filtro.doFilter(buscar("1"), primeira, new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                try {
+                    simultanea.set(executar(filtro, buscar("2")));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        MockHttpServletResponse depois = executar(filtro, buscar("2"));
+
+        // Verificação
+        assertEquals(200, primeira.getStatus());
+        assertEquals(429, simultanea.get().getStatus());
+        assertEquals("1", simultanea.get().getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, depois.getStatus());
+        assertEquals(0, filtro.emAndamento());
+    }
+
+    @Test
+    public void deveIdentificarOClientePeloUsuarioOuPeloEndereco() {
+        MockHttpServletRequest consultarSaldo = new MockHttpServletRequest("GET", "/api/usuarios/consultarsaldo/7");
+        MockHttpServletRequest semUsuario = new MockHttpServletRequest("POST", "/api/lancamentos/salvarlancamento");
+        MockHttpServletRequest usuarioInvalido = buscar("abc");
+
+        assertEquals("usuario:1", ControleAdmissaoFilter.identificarCliente(buscar("1"), true));
+        assertEquals("usuario:7", ControleAdmissaoFilter.identificarCliente(consultarSaldo, true));
+        assertEquals("endereco:127.0.0.1", ControleAdmissaoFilter.identificarCliente(semUsuario, true));
+        assertEquals("endereco:127.0.0.1", ControleAdmissaoFilter.identificarCliente(usuarioInvalido, true));
+    }
+
+    @Test
+    public void deveUsarOBaldeDoEnderecoSemLimitePorUsuario() throws Exception {
+        // Cenário
+        ControleAdmissaoFilter filtro = new ControleAdmissaoFilter(true, false, 10, 1, 2, 300, 1000);
+        MockHttpServletRequest outroEndereco = buscar("4");
+        outroEndereco.setRemoteAddr("10.0.0.2");
+
+        // Execução: cada requisição informa um usuário diferente.
+        executar(filtro, buscar("1"));
+        executar(filtro, buscar("2"));
+        MockHttpServletResponse terceira = executar(filtro, buscar("3"));
+        MockHttpServletResponse deOutroEndereco = executar(filtro, outroEndereco);
+
+        // Verificação
+        assertEquals("endereco:127.0.0.1", ControleAdmissaoFilter.identificarCliente(buscar("1"), false));
+        assertEquals(429, terceira.getStatus());
+        assertEquals(200, deOutroEndereco.getStatus());
+    }
+
+    @Test
+    public void naoDeveLimitarForaDasApis() throws Exception {
+        // Cenário
+        ControleAdmissaoFilter filtro = new ControleAdmissaoFilter(true, false, 10, 1, 1, 300, 1000);
+        MockHttpServletRequest prometheus = new MockHttpServletRequest("GET", "/actuator/prometheus");
+
+        // Execução
+        executar(filtro, prometheus);
+        MockHttpServletResponse resposta = executar(filtro, prometheus);
+
+        // Verificação
+        assertEquals(200, resposta.getStatus());
+        assertNull(resposta.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    private static MockHttpServletRequest buscar(String usuario) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos/buscar");
+        request.setParameter("usuario", usuario);
+        return request;
+    }
+
+    private static MockHttpServletResponse executar(ControleAdmissaoFilter filtro, MockHttpServletRequest request)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+}
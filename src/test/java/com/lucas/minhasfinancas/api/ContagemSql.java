@@ -0,0 +1,30 @@
+package com.lucas.minhasfinancas.api;
+
+import org.assertj.core.api.Assertions;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.lucas.minhasfinancas.monitoramento.ContabilizacaoSqlFilter;
+
+/**
+ * Verificações sobre a quantidade de instruções SQL informada pelo
+ * {@link ContabilizacaoSqlFilter}, para que regressões como N+1 quebrem o build.
+ */
+public final class ContagemSql {
+
+    private ContagemSql() {
+    }
+
+    public static ResultMatcher noMaximo(int instrucoes) {
+        return resultado -> {
+            String cabecalho = resultado.getResponse().getHeader(ContabilizacaoSqlFilter.HEADER_INSTRUCOES);
+
+            Assertions.assertThat(cabecalho).as("cabeçalho %s", ContabilizacaoSqlFilter.HEADER_INSTRUCOES)
+                    .isNotNull();
+            Assertions.assertThat(Integer.parseInt(cabecalho))
+                    .as("instruções SQL em %s %s", resultado.getRequest().getMethod(),
+                            resultado.getRequest().getRequestURI())
+                    .isLessThanOrEqualTo(instrucoes);
+        };
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.lucas.minhasfinancas.api;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.minhasfinancas.api.dto.LancamentoDTO;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+import com.lucas.minhasfinancas.model.repository.FiltroLancamento;
+import com.lucas.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.lucas.minhasfinancas.monitoramento.ContabilizacaoSqlFilter;
+import com.lucas.minhasfinancas.service.LancamentoService;
+import com.lucas.minhasfinancas.service.UsuarioService;
+
+/**
+ * Orçamento de instruções SQL por endpoint.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ContagemSqlTest {
+
+    static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = usuarioService.salvarUsuario(Usuario.builder().nome("usuario")
+                .email("usuario" + System.nanoTime() + "@email.com").senha("senha").build());
+
+        for (int i = 0; i < 5; i++) {
+            Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+            lancamento.setUsuario(usuario);
+            lancamentoService.salvar(lancamento);
+        }
+    }
+
+    @Test
+    void deveConsultarSaldoDentroDoOrcamento() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/consultarsaldo/" + usuario.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(ContabilizacaoSqlFilter.HEADER_TEMPO))
+                .andExpect(ContagemSql.noMaximo(2));
+    }
+
+    @Test
+    void deveResponderNaoModificadoSemConsultarSaldoAteONovoLancamento() throws Exception {
+        String etag = mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/consultarsaldo/" + usuario.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/consultarsaldo/" + usuario.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(ContagemSql.noMaximo(1));
+
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(usuario);
+        lancamentoService.salvar(lancamento);
+
+        mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/consultarsaldo/" + usuario.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("120.00"));
+    }
+
+    @Test
+    void deveBuscarDentroDoOrcamentoIndependenteDaQuantidadeDeLancamentos() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos/buscar").param("usuario", usuario.getId().toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("length()").value(5))
+                .andExpect(ContagemSql.noMaximo(2));
+    }
+
+    @Test
+    void deveRepetirBuscaSemConsultarOBanco() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos/buscar").param("usuario", usuario.getId().toString())
+                .param("ano", "2022"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos/buscar").param("usuario", usuario.getId().toString())
+                .param("ano", "2022"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("length()").value(5))
+                .andExpect(ContagemSql.noMaximo(0));
+    }
+
+    @Test
+    void deveObterResumoAnualDentroDoOrcamentoIndependenteDaQuantidadeDeLancamentos() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos/resumoanual")
+                .param("usuario", usuario.getId().toString()).param("ano", "2022"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("meses[5].receitas").value(100))
+                .andExpect(MockMvcResultMatchers.jsonPath("meses[5].totais[0].quantidade").value(5))
+                .andExpect(ContagemSql.noMaximo(2));
+    }
+
+    @Test
+    void deveSalvarLancamentoDentroDoOrcamento() throws Exception {
+        LancamentoDTO dto = LancamentoDTO.builder().descricao("Salário").mes(6).ano(2022).valor(BigDecimal.TEN)
+                .usuario(usuario.getId()).tipo("RECEITA").build();
+
+        mvc.perform(MockMvcRequestBuilders.post("/api/lancamentos/salvarlancamento").contentType(JSON)
+                .content(new ObjectMapper().writeValueAsString(dto)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                // Três instruções são do registro de alteração (reserva da sequência do
+                // usuário, leitura dela e INSERT); a nona é a eventual reserva de um novo
+                // bloco da sequence.
+                .andExpect(ContagemSql.noMaximo(9));
+    }
+
+    @Test
+    void deveDeletarLancamentoDentroDoOrcamento() throws Exception {
+        Lancamento lancamento = lancamentoService.buscar(filtroDoUsuario()).get(0);
+
+        mvc.perform(MockMvcRequestBuilders.delete("/api/lancamentos/deletar/" + lancamento.getId()))
+                .andExpect(MockMvcResultMatchers.status().isNoContent())
+                // Três instruções são do registro da exclusão.
+                .andExpect(ContagemSql.noMaximo(9));
+    }
+
+    private FiltroLancamento filtroDoUsuario() {
+        return FiltroLancamento.builder().idUsuario(usuario.getId()).build();
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.lucas.minhasfinancas.api;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles("test")
+class MetricasTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void deveExporLatenciaDosEndpointsEDosRepositoriosNoFormatoPrometheus() throws Exception {
+        // Cenário
+        mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/consultarsaldo/999"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+
+        // Execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString(
+                        "http_server_requests_seconds_count{exception=\"None\",method=\"GET\",outcome=\"CLIENT_ERROR\",status=\"404\",uri=\"/api/usuarios/consultarsaldo/{id}\",}")))
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString(
+                        "quantile=\"0.99\"")))
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString(
+                        "spring_data_repository_invocations_seconds_max")))
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString(
+                        "cache_gets_total{cache=\"usuarios.por-id\"")));
+    }
+
+}
@@ -0,0 +1,495 @@
+package com.lucas.minhasfinancas.api.controller;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.minhasfinancas.api.dto.AtualizaStatusLoteDTO;
+import com.lucas.minhasfinancas.api.dto.LancamentoDTO;
+import com.lucas.minhasfinancas.model.entity.AlteracaoLancamento;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.ResumoMensal;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+import com.lucas.minhasfinancas.model.enums.OperacaoLancamento;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+import com.lucas.minhasfinancas.model.repository.CursorLancamento;
+import com.lucas.minhasfinancas.model.repository.FiltroLancamento;
+import com.lucas.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.lucas.minhasfinancas.model.repository.PaginaLancamento;
+import com.lucas.minhasfinancas.service.AlteracaoLancamentoService;
+import com.lucas.minhasfinancas.service.AnaliseService;
+import com.lucas.minhasfinancas.service.LancamentoService;
+import com.lucas.minhasfinancas.service.NotificacaoService;
+import com.lucas.minhasfinancas.service.ResultadoLote;
+import com.lucas.minhasfinancas.service.SaldoMensal;
+import com.lucas.minhasfinancas.service.SalvamentoAgrupadoService;
+import com.lucas.minhasfinancas.service.UsuarioService;
+import com.lucas.minhasfinancas.service.VersaoDadosService;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoController.class)
+@AutoConfigureMockMvc
+class LancamentoControllerTest {
+
+    static final String API = "/api/lancamentos";
+    static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private LancamentoService service;
+    @MockBean
+    private UsuarioService usuarioService;
+    @MockBean
+    private AnaliseService analiseService;
+    @MockBean
+    private VersaoDadosService versaoDadosService;
+    @MockBean
+    private SalvamentoAgrupadoService salvamentoAgrupadoService;
+    @MockBean
+    private AlteracaoLancamentoService alteracaoService;
+    @MockBean
+    private NotificacaoService notificacaoService;
+
+    @Test
+    void deveBuscarPaginaEInformarProximoCursor() throws Exception {
+        // Cenário
+        Usuario usuario = Usuario.builder().id(1L).build();
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(7L);
+        lancamento.setUsuario(usuario);
+        CursorLancamento proximo = CursorLancamento.de(lancamento);
+
+        Mockito.when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(usuario));
+        Mockito.when(service.buscarPagina(Mockito.any(FiltroLancamento.class), Mockito.isNull(), Mockito.eq(1)))
+                .thenReturn(new PaginaLancamento(Arrays.asList(lancamento), proximo));
+
+        // Execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/buscar"))
+                .param("usuario", "1")
+                .param("tamanho", "1")
+                .accept(JSON);
+
+        // Verificação
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(LancamentoController.HEADER_PROXIMO_CURSOR,
+                        proximo.codificar()))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].id").value(7))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].usuario").value(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveExportarLancamentosEmCsv() throws Exception {
+        // Cenário
+        Usuario usuario = Usuario.builder().id(1L).build();
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(7L);
+        lancamento.setUsuario(usuario);
+        lancamento.setDescricao("Salário \"extra\"");
+
+        Mockito.when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(usuario));
+        Mockito.doAnswer(invocacao -> {
+            invocacao.getArgument(1, Consumer.class).accept(lancamento);
+            return null;
+        }).when(service).exportar(Mockito.any(FiltroLancamento.class), Mockito.any());
+
+        // Execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/exportar"))
+                .param("usuario", "1")
+                .param("formato", "csv");
+
+        MvcResult resultado = mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        // Verificação
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("id,descricao,mes,ano,valor,usuario,tipo,status\n"
+                        + "7,\"Salário \"\"extra\"\"\",6,2022,20,1,RECEITA,PENDENTE\n"));
+    }
+
+    @Test
+    void deveRetornarBadRequestComFormatoDeExportacaoInvalido() throws Exception {
+        // Cenário
+        Mockito.when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+
+        // Execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/exportar"))
+                .param("usuario", "1")
+                .param("formato", "xml");
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Mockito.verify(service, Mockito.never()).exportar(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void deveSalvarLoteBuscandoCadaUsuarioUmaVezEReportandoErrosPorItem() throws Exception {
+        // Cenário
+        Usuario usuario = Usuario.builder().id(1L).build();
+        Mockito.when(usuarioService.obterReferencia(1L)).thenReturn(Optional.of(usuario));
+        Mockito.when(usuarioService.obterReferencia(2L)).thenReturn(Optional.empty());
+        Mockito.when(service.salvarEmLote(Mockito.anyList())).thenAnswer(invocacao -> {
+            List<Lancamento> lancamentos = invocacao.getArgument(0);
+            return new ResultadoLote(new ArrayList<>(lancamentos.subList(0, 1)),
+                    new ArrayList<>(Arrays.asList(new ResultadoLote.ErroLote(1, "Informe um Valor válido."))));
+        });
+
+        List<LancamentoDTO> dtos = Arrays.asList(
+                criarDTO(1L, "RECEITA"),
+                criarDTO(2L, "RECEITA"),
+                criarDTO(1L, "DESPESA"),
+                criarDTO(1L, "INVALIDO"));
+
+        // Execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/salvarlote"))
+                .accept(JSON)
+                .contentType(JSON)
+                .content(new ObjectMapper().writeValueAsString(dtos));
+
+        // Verificação
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("salvos.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("erros[0].indice").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("erros[1].indice").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("erros[1].mensagem").value("Informe um Valor válido."))
+                .andExpect(MockMvcResultMatchers.jsonPath("erros[2].indice").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("salvos[0].usuario").value(1));
+
+        Mockito.verify(usuarioService, Mockito.times(1)).obterReferencia(1L);
+        Mockito.verify(usuarioService, Mockito.never()).buscarPorId(Mockito.anyLong());
+    }
+
+    @Test
+    void naoDeveRepassarOIdInformadoNoLote() throws Exception {
+        // Cenário: o item traz o id de um lançamento já existente.
+        Usuario usuario = Usuario.builder().id(1L).build();
+        Mockito.when(usuarioService.obterReferencia(1L)).thenReturn(Optional.of(usuario));
+        Mockito.when(service.salvarEmLote(Mockito.anyList())).thenReturn(new ResultadoLote());
+
+        LancamentoDTO dto = criarDTO(1L, "RECEITA");
+        dto.setId(7L);
+
+        // Execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/salvarlote"))
+                .accept(JSON)
+                .contentType(JSON)
+                .content(new ObjectMapper().writeValueAsString(Arrays.asList(dto)));
+
+        mvc.perform(request);
+
+        // Verificação
+        ArgumentCaptor<List<Lancamento>> lancamentos = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(service).salvarEmLote(lancamentos.capture());
+        Assertions.assertEquals(1, lancamentos.getValue().size());
+        Assertions.assertNull(lancamentos.getValue().get(0).getId());
+    }
+
+    @Test
+    void deveManterOStatusGravadoAoAtualizarSemStatus() throws Exception {
+        // Cenário
+        Usuario usuario = Usuario.builder().id(1L).build();
+        Lancamento gravado = LancamentoRepositoryTest.criarLancamento();
+        gravado.setId(7L);
+        gravado.setStatus(StatusLancamento.EFETIVADO);
+        gravado.setUsuario(usuario);
+
+        Mockito.when(service.buscarPorId(7L)).thenReturn(Optional.of(gravado));
+        Mockito.when(usuarioService.obterReferencia(1L)).thenReturn(Optional.of(usuario));
+
+        // Execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.put(API.concat("/atualizarlancamento/7"))
+                .accept(JSON)
+                .contentType(JSON)
+                .content(new ObjectMapper().writeValueAsString(criarDTO(1L, "RECEITA")));
+
+        // Verificação
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("status").value("EFETIVADO"));
+
+        ArgumentCaptor<Lancamento> lancamento = ArgumentCaptor.forClass(Lancamento.class);
+        Mockito.verify(service).atualizar(lancamento.capture());
+        Assertions.assertEquals(7L, lancamento.getValue().getId());
+        Assertions.assertEquals(StatusLancamento.EFETIVADO, lancamento.getValue().getStatus());
+    }
+
+    @Test
+    void deveAtualizarStatusEmLoteERetornarQuantidadeAlterada() throws Exception {
+        // Cenário
+        Mockito.when(service.atualizarStatusEmLote(Arrays.asList(1L, 2L), StatusLancamento.EFETIVADO))
+                .thenReturn(2);
+
+        AtualizaStatusLoteDTO dto = AtualizaStatusLoteDTO.builder().ids(Arrays.asList(1L, 2L))
+                .status("EFETIVADO").build();
+
+        // Execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.put(API.concat("/atualizarstatuslote"))
+                .accept(JSON)
+                .contentType(JSON)
+                .content(new ObjectMapper().writeValueAsString(dto));
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("2"));
+    }
+
+    @Test
+    void deveRetornarBadRequestAoAtualizarStatusEmLoteSemLancamentosNemUsuario() throws Exception {
+        // Cenário
+        AtualizaStatusLoteDTO dto = AtualizaStatusLoteDTO.builder().mes(6).status("EFETIVADO").build();
+
+        // Execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.put(API.concat("/atualizarstatuslote"))
+                .accept(JSON)
+                .contentType(JSON)
+                .content(new ObjectMapper().writeValueAsString(dto));
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void deveRetornarBadRequestComCursorInvalido() throws Exception {
+        // Cenário
+        Mockito.when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+
+        // Execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/buscar"))
+                .param("usuario", "1")
+                .param("cursor", "invalido")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void deveRepassarFiltrosDePeriodoValorTipoEStatus() throws Exception {
+        // Cenário
+        Mockito.when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+
+        // Execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/buscar"))
+                .param("usuario", "1")
+                .param("anoInicial", "2021").param("mesInicial", "11")
+                .param("anoFinal", "2022").param("mesFinal", "2")
+                .param("valorMinimo", "10.50").param("valorMaximo", "100")
+                .param("tipo", "DESPESA").param("status", "EFETIVADO")
+                .accept(JSON);
+
+        mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk());
+
+        // Verificação
+        Mockito.verify(service).buscar(FiltroLancamento.builder().idUsuario(1L)
+                .anoInicial(2021).mesInicial(11).anoFinal(2022).mesFinal(2)
+                .valorMinimo(new BigDecimal("10.50")).valorMaximo(new BigDecimal("100"))
+                .tipo(TipoLancamento.DESPESA).status(StatusLancamento.EFETIVADO).build());
+    }
+
+    @Test
+    void deveRetornarBadRequestComTipoDeFiltroInvalido() throws Exception {
+        // Cenário
+        Mockito.when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+
+        // Execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/buscar"))
+                .param("usuario", "1")
+                .param("tipo", "OUTRO")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Mockito.verify(service, Mockito.never()).buscar(Mockito.any());
+    }
+
+    @Test
+    void deveMontarResumoAnualComTodosOsMeses() throws Exception {
+        // Cenário
+        Mockito.when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+        Mockito.when(service.obterResumoAnual(1L, 2022)).thenReturn(Arrays.asList(
+                new ResumoMensal(1L, 2022, 6, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO,
+                        BigDecimal.valueOf(100), 2L),
+                new ResumoMensal(1L, 2022, 6, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+                        BigDecimal.valueOf(30), 1L)));
+
+        // Execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/resumoanual"))
+                .param("usuario", "1")
+                .param("ano", "2022")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("meses.length()").value(12))
+                .andExpect(MockMvcResultMatchers.jsonPath("meses[0].saldo").value(0))
+                .andExpect(MockMvcResultMatchers.jsonPath("meses[5].receitas").value(100))
+                .andExpect(MockMvcResultMatchers.jsonPath("meses[5].despesas").value(30))
+                .andExpect(MockMvcResultMatchers.jsonPath("meses[5].saldo").value(70))
+                .andExpect(MockMvcResultMatchers.jsonPath("meses[5].totais[1].status").value("PENDENTE"));
+    }
+
+    @Test
+    void deveRetornarAlteracoesDepoisDoCursorComONovoCursor() throws Exception {
+        // Cenário
+        Mockito.when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+        Mockito.when(alteracaoService.buscarAlteracoes(1L, 40L, 2)).thenReturn(Arrays.asList(
+                AlteracaoLancamento.builder().idUsuario(1L).sequencia(41L).idLancamento(7L)
+                        .operacao(OperacaoLancamento.ALTERACAO_STATUS).status(StatusLancamento.EFETIVADO).build(),
+                AlteracaoLancamento.builder().idUsuario(1L).sequencia(42L).idLancamento(8L)
+                        .operacao(OperacaoLancamento.EXCLUSAO).build()));
+
+        // Execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/alteracoes"))
+                .param("usuario", "1")
+                .param("cursor", "40")
+                .param("tamanho", "2")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("alteracoes.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("alteracoes[0].operacao").value("ALTERACAO_STATUS"))
+                .andExpect(MockMvcResultMatchers.jsonPath("alteracoes[0].lancamento.status").value("EFETIVADO"))
+                .andExpect(MockMvcResultMatchers.jsonPath("alteracoes[1].lancamento.id").value(8))
+                .andExpect(MockMvcResultMatchers.jsonPath("cursor").value(42))
+                .andExpect(MockMvcResultMatchers.jsonPath("completo").value(false));
+    }
+
+    @Test
+    void deveAbrirAsNotificacoesDoUsuarioDeFormaAssincrona() throws Exception {
+        // Cenário
+        Mockito.when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+        Mockito.when(notificacaoService.inscrever(Mockito.eq(1L), Mockito.any())).thenReturn(new SseEmitter());
+
+        // Execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/notificacoes"))
+                .param("usuario", "1")
+                .accept(MediaType.TEXT_EVENT_STREAM);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    void deveRecusarNotificacoesComUmEventoDeErroQuandoUsuarioNaoExiste() throws Exception {
+        // Cenário
+        Mockito.when(usuarioService.buscarPorId(1L)).thenReturn(Optional.empty());
+
+        // Execução
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/notificacoes"))
+                .param("usuario", "1")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andReturn();
+
+        // Verificação
+        MockHttpServletResponse resposta = mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andReturn().getResponse();
+
+        Assertions.assertEquals("event:erro\ndata:Não foi possível abrir as notificações. Usuário não encontrado.\n\n",
+                resposta.getContentAsString(StandardCharsets.UTF_8));
+        Mockito.verifyNoInteractions(notificacaoService);
+    }
+
+    @Test
+    void deveResponderNaoModificadoQuandoVersaoDaBuscaNaoMudou() throws Exception {
+        // Cenário
+        Mockito.when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+        Mockito.when(versaoDadosService.obterVersao(1L)).thenReturn(42L);
+
+        // Execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/buscar"))
+                .param("usuario", "1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"42\"")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"42\""));
+        Mockito.verify(service, Mockito.never()).buscar(Mockito.any());
+    }
+
+    @Test
+    void deveObterSaldosMensaisDaAnalise() throws Exception {
+        // Cenário
+        Mockito.when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+        Mockito.when(analiseService.obterSaldosMensais(1L, 2022, 11, 2023, 1, StatusLancamento.EFETIVADO))
+                .thenReturn(Arrays.asList(
+                        new SaldoMensal(2022, 11, new BigDecimal("10.50"), BigDecimal.ZERO, new BigDecimal("10.50")),
+                        new SaldoMensal(2022, 12, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ONE.negate()),
+                        new SaldoMensal(2023, 1, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO)));
+
+        // Execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/analise/saldosmensais"))
+                .param("usuario", "1")
+                .param("anoInicial", "2022")
+                .param("mesInicial", "11")
+                .param("anoFinal", "2023")
+                .param("mesFinal", "1")
+                .param("status", "EFETIVADO")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("length()").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].saldo").value(10.5))
+                .andExpect(MockMvcResultMatchers.jsonPath("[1].saldo").value(-1))
+                .andExpect(MockMvcResultMatchers.jsonPath("[2].ano").value(2023));
+    }
+
+    @Test
+    void naoDeveTotalizarComFiltroInvalido() throws Exception {
+        // Cenário
+        Mockito.when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+
+        // Execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/analise/total"))
+                .param("usuario", "1")
+                .param("tipo", "INVALIDO")
+                .accept(JSON);
+
+        mvc.perform(request).andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Mockito.verifyNoInteractions(analiseService);
+    }
+
+    private LancamentoDTO criarDTO(Long usuario, String tipo) {
+        return LancamentoDTO.builder().descricao("Salário").mes(6).ano(2022).valor(BigDecimal.TEN)
+                .usuario(usuario).tipo(tipo).build();
+    }
+
+}
@@ -7,6 +7,9 @@ import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
 import com.lucas.minhasfinancas.model.entity.Usuario;
 import com.lucas.minhasfinancas.service.LancamentoService;
 import com.lucas.minhasfinancas.service.UsuarioService;
+import com.lucas.minhasfinancas.service.VersaoDadosService;
+import java.math.BigDecimal;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
@@ -14,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -38,6 +42,34 @@ class UsuarioControllerTest {
     private UsuarioService service;
     @MockBean
     private LancamentoService lancamentoService;
+    @MockBean
+    private VersaoDadosService versaoDadosService;
+
+    @Test
+    void deveConsultarSaldoInformandoAVersaoComoETag() throws Exception {
+        // Cenário
+        Mockito.when(service.buscarPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+        Mockito.when(versaoDadosService.obterVersao(1L)).thenReturn(7L);
+        Mockito.when(lancamentoService.obterSaldoPorUsuario(1L)).thenReturn(BigDecimal.TEN);
+
+        // Execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/consultarsaldo/1")).accept(JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"7\""))
+                .andExpect(MockMvcResultMatchers.content().string("10"));
+    }
+
+    @Test
+    void naoDeveConsultarSaldoQuandoVersaoNaoMudou() throws Exception {
+        // Cenário
+        Mockito.when(service.buscarPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+        Mockito.when(versaoDadosService.obterVersao(1L)).thenReturn(7L);
+
+        // Execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/consultarsaldo/1")).header(HttpHeaders.IF_NONE_MATCH,
+                "\"7\"")).andExpect(MockMvcResultMatchers.status().isNotModified());
+        Mockito.verify(lancamentoService, Mockito.never()).obterSaldoPorUsuario(Mockito.any());
+    }
 
     @Test
     void deveAutenticarUmUsuario() throws Exception {
@@ -2,9 +2,13 @@ package com.lucas.minhasfinancas.model.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +20,8 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.TrigramaLancamento;
+import com.lucas.minhasfinancas.model.entity.Usuario;
 import com.lucas.minhasfinancas.model.enums.StatusLancamento;
 import com.lucas.minhasfinancas.model.enums.TipoLancamento;
 
@@ -79,6 +85,264 @@ public class LancamentoRepositoryTest {
         assertTrue(lancamentoEncontrado.isPresent());
     }
 
+    @Test
+    public void deveBuscarPaginasOrdenadasPorAnoMesEId() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento dezembro = criarPersistirLancamento(usuario, 2021, 12);
+        Lancamento junhoA = criarPersistirLancamento(usuario, 2022, 6);
+        Lancamento junhoB = criarPersistirLancamento(usuario, 2022, 6);
+        Lancamento janeiro = criarPersistirLancamento(usuario, 2022, 1);
+
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(usuario.getId()).build();
+
+        PaginaLancamento primeira = repository.buscarPagina(filtro, null, 2);
+        PaginaLancamento segunda = repository.buscarPagina(filtro, primeira.getProximoCursor(), 2);
+
+        assertIterableEquals(Arrays.asList(dezembro, janeiro), primeira.getLancamentos());
+        assertIterableEquals(Arrays.asList(junhoA, junhoB), segunda.getLancamentos());
+        assertNull(segunda.getProximoCursor());
+    }
+
+    @Test
+    public void deveFiltrarPorPeriodoEntreAnos() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        criarPersistirLancamento(usuario, 2021, 10);
+        Lancamento novembro = criarPersistirLancamento(usuario, 2021, 11);
+        Lancamento dezembro = criarPersistirLancamento(usuario, 2021, 12);
+        Lancamento janeiro = criarPersistirLancamento(usuario, 2022, 1);
+        Lancamento fevereiro = criarPersistirLancamento(usuario, 2022, 2);
+        criarPersistirLancamento(usuario, 2022, 3);
+        // Mês dentro da faixa, mas em ano fora do período.
+        criarPersistirLancamento(usuario, 2020, 12);
+
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(usuario.getId())
+                .anoInicial(2021).mesInicial(11).anoFinal(2022).mesFinal(2).build();
+
+        assertIterableEquals(Arrays.asList(novembro, dezembro, janeiro, fevereiro),
+                repository.buscarPagina(filtro, null, 10).getLancamentos());
+    }
+
+    @Test
+    public void deveFiltrarPorFaixaDeValorTipoEStatus() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento esperado = criarPersistirLancamento(usuario, 2022, 6);
+        esperado.setValor(BigDecimal.valueOf(100));
+        esperado.setTipo(TipoLancamento.DESPESA);
+        esperado.setStatus(StatusLancamento.EFETIVADO);
+        Lancamento acimaDoMaximo = criarPersistirLancamento(usuario, 2022, 6);
+        acimaDoMaximo.setValor(BigDecimal.valueOf(100.01));
+        acimaDoMaximo.setTipo(TipoLancamento.DESPESA);
+        acimaDoMaximo.setStatus(StatusLancamento.EFETIVADO);
+        Lancamento outroStatus = criarPersistirLancamento(usuario, 2022, 6);
+        outroStatus.setValor(BigDecimal.valueOf(50));
+        outroStatus.setTipo(TipoLancamento.DESPESA);
+        Lancamento receita = criarPersistirLancamento(usuario, 2022, 6);
+        receita.setValor(BigDecimal.valueOf(50));
+        receita.setStatus(StatusLancamento.EFETIVADO);
+
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(usuario.getId())
+                .valorMinimo(BigDecimal.valueOf(20)).valorMaximo(BigDecimal.valueOf(100))
+                .tipo(TipoLancamento.DESPESA).status(StatusLancamento.EFETIVADO).build();
+
+        assertIterableEquals(Arrays.asList(esperado), repository.buscar(filtro));
+    }
+
+    @Test
+    public void deveFiltrarPaginaPorDescricaoSemDiferenciarMaiusculas() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento salario = criarPersistirLancamento(usuario, 2022, 6);
+        Lancamento aluguel = criarPersistirLancamento(usuario, 2022, 6);
+        aluguel.setDescricao("Aluguel");
+        indexar(salario, aluguel);
+
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(usuario.getId()).build();
+        filtro.setDescricao("LÁR");
+
+        PaginaLancamento pagina = repository.buscarPagina(filtro, null, 10);
+
+        assertIterableEquals(Arrays.asList(salario), pagina.getLancamentos());
+    }
+
+    @Test
+    public void deveBuscarPorDescricaoSomenteEntreLancamentosIndexados() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento indexado = criarPersistirLancamento(usuario, 2022, 6);
+        criarPersistirLancamento(usuario, 2022, 7);
+        indexar(indexado);
+
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(usuario.getId()).build();
+        filtro.setDescricao("sal");
+
+        assertIterableEquals(Arrays.asList(indexado), repository.buscar(filtro));
+    }
+
+    @Test
+    public void deveConfirmarCandidatosDoIndicePeloTrechoCompleto() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento contem = criarPersistirLancamento(usuario, 2022, 6);
+        contem.setDescricao("Conta de luz");
+        // Possui os trigramas "lu" e "luz" fora de ordem, mas não o trecho buscado.
+        Lancamento foraDeOrdem = criarPersistirLancamento(usuario, 2022, 6);
+        foraDeOrdem.setDescricao("Luz e conta");
+        indexar(contem, foraDeOrdem);
+
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(usuario.getId()).build();
+        filtro.setDescricao("TA DE LUZ");
+
+        assertIterableEquals(Arrays.asList(contem), repository.buscar(filtro));
+    }
+
+    @Test
+    public void deveTratarCuringasDoLikeComoTextoNaBuscaPorDescricao() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento desconto = criarPersistirLancamento(usuario, 2022, 6);
+        desconto.setDescricao("Desconto 10%");
+        Lancamento outro = criarPersistirLancamento(usuario, 2022, 6);
+        outro.setDescricao("Desconto 100");
+        indexar(desconto, outro);
+
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(usuario.getId()).build();
+        filtro.setDescricao("0%");
+
+        assertIterableEquals(Arrays.asList(desconto), repository.buscar(filtro));
+    }
+
+    @Test
+    public void devePercorrerLancamentosNaOrdemDaPaginacaoSemManterNaSessao() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento junho = criarPersistirLancamento(usuario, 2022, 6);
+        Lancamento janeiro = criarPersistirLancamento(usuario, 2022, 1);
+        em.flush();
+        em.clear();
+
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(usuario.getId()).build();
+
+        List<Lancamento> lidos = new ArrayList<>();
+        repository.percorrer(filtro, lidos::add);
+
+        assertEquals(Arrays.asList(janeiro.getId(), junho.getId()),
+                Arrays.asList(lidos.get(0).getId(), lidos.get(1).getId()));
+        assertFalse(em.getEntityManager().contains(lidos.get(0)));
+        assertFalse(em.getEntityManager().contains(lidos.get(1)));
+    }
+
+    @Test
+    public void deveAtualizarStatusPorIdsEmUmUnicoUpdate() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento pendente = criarPersistirLancamento(usuario, 2022, 6);
+        Lancamento efetivado = criarPersistirLancamento(usuario, 2022, 6);
+        efetivado.setStatus(StatusLancamento.EFETIVADO);
+        Lancamento foraDoLote = criarPersistirLancamento(usuario, 2022, 6);
+
+        int alterados = repository.atualizarStatus(Arrays.asList(pendente.getId(), efetivado.getId()),
+                StatusLancamento.EFETIVADO);
+
+        assertEquals(1, alterados);
+        assertEquals(StatusLancamento.EFETIVADO, em.find(Lancamento.class, pendente.getId()).getStatus());
+        assertEquals(StatusLancamento.PENDENTE, em.find(Lancamento.class, foraDoLote.getId()).getStatus());
+    }
+
+    @Test
+    public void deveAtualizarStatusPorUsuarioMesEAno() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento junho = criarPersistirLancamento(usuario, 2022, 6);
+        Lancamento julho = criarPersistirLancamento(usuario, 2022, 7);
+
+        int alterados = repository.atualizarStatus(usuario.getId(), 6, 2022, StatusLancamento.CANCELADO);
+
+        assertEquals(1, alterados);
+        assertEquals(StatusLancamento.CANCELADO, em.find(Lancamento.class, junho.getId()).getStatus());
+        assertEquals(StatusLancamento.PENDENTE, em.find(Lancamento.class, julho.getId()).getStatus());
+    }
+
+    @Test
+    public void deveAlterarStatusDeLancamentosGravadosSemStatusPorIds() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento semStatus = criarPersistirLancamento(usuario, 2022, 6);
+        semStatus.setStatus(null);
+        Lancamento efetivado = criarPersistirLancamento(usuario, 2022, 6);
+        efetivado.setStatus(StatusLancamento.EFETIVADO);
+        List<Long> ids = Arrays.asList(semStatus.getId(), efetivado.getId());
+        em.flush();
+
+        List<IdentificacaoLancamento> listados = repository.listarParaStatus(ids, StatusLancamento.EFETIVADO);
+        List<TotalLancamentos> totais = repository.totalizarParaStatus(ids, StatusLancamento.EFETIVADO);
+        int alterados = repository.atualizarStatus(ids, StatusLancamento.EFETIVADO);
+
+        assertEquals(1, listados.size());
+        assertEquals(semStatus.getId(), listados.get(0).getId());
+        assertEquals(1, totais.size());
+        assertNull(totais.get(0).getStatus());
+        assertEquals(1L, totais.get(0).getQuantidade());
+        assertEquals(1, alterados);
+        assertEquals(StatusLancamento.EFETIVADO, em.find(Lancamento.class, semStatus.getId()).getStatus());
+    }
+
+    @Test
+    public void deveAlterarStatusDeLancamentosGravadosSemStatusPorUsuarioMesEAno() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento semStatus = criarPersistirLancamento(usuario, 2022, 6);
+        semStatus.setStatus(null);
+        Lancamento cancelado = criarPersistirLancamento(usuario, 2022, 6);
+        cancelado.setStatus(StatusLancamento.CANCELADO);
+        em.flush();
+
+        List<Long> listados = repository.listarParaStatus(usuario.getId(), 6, 2022, StatusLancamento.CANCELADO);
+        List<TotalLancamentos> totais = repository.totalizarParaStatus(usuario.getId(), 6, 2022,
+                StatusLancamento.CANCELADO);
+        int alterados = repository.atualizarStatus(usuario.getId(), 6, 2022, StatusLancamento.CANCELADO);
+
+        assertEquals(Arrays.asList(semStatus.getId()), listados);
+        assertEquals(1, totais.size());
+        assertEquals(1L, totais.get(0).getQuantidade());
+        assertEquals(1, alterados);
+        assertEquals(StatusLancamento.CANCELADO, em.find(Lancamento.class, semStatus.getId()).getStatus());
+    }
+
+    @Test
+    public void naoDeveCarregarUsuarioAoLerLancamento() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento lancamento = criarPersistirLancamento(usuario, 2022, 6);
+        em.flush();
+        em.clear();
+
+        Lancamento lido = repository.findById(lancamento.getId()).get();
+
+        assertEquals(usuario.getId(), lido.getUsuario().getId());
+        assertFalse(Hibernate.isInitialized(lido.getUsuario()));
+    }
+
+    @Test
+    public void deveSalvarLancamentoComReferenciaAoUsuario() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        em.flush();
+        em.clear();
+
+        Lancamento lancamento = criarLancamento();
+        lancamento.setUsuario(em.getEntityManager().getReference(Usuario.class, usuario.getId()));
+        repository.saveAndFlush(lancamento);
+
+        assertFalse(Hibernate.isInitialized(lancamento.getUsuario()));
+    }
+
+    private Lancamento criarPersistirLancamento(Usuario usuario, int ano, int mes) {
+        Lancamento lancamento = criarLancamento();
+        lancamento.setUsuario(usuario);
+        lancamento.setAno(ano);
+        lancamento.setMes(mes);
+        em.persist(lancamento);
+        return lancamento;
+    }
+
+    private void indexar(Lancamento... lancamentos) {
+        for (Lancamento lancamento : lancamentos) {
+            for (String trigrama : TrigramaLancamento.extrair(lancamento.getDescricao())) {
+                em.persist(new TrigramaLancamento(new TrigramaLancamento.Chave(trigrama, lancamento.getId()),
+                        lancamento.getUsuario().getId()));
+            }
+        }
+    }
+
     private Lancamento criarPersistirLancamento() {
         Lancamento lancamento = criarLancamento();
         em.persist(lancamento);
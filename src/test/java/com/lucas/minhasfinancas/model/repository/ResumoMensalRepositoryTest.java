@@ -0,0 +1,129 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.ResumoMensal;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+public class ResumoMensalRepositoryTest {
+
+    @Autowired
+    private ResumoMensalRepository repository;
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    public void deveSomarAoResumoExistente() {
+        em.persist(new ResumoMensal(1L, 2022, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                BigDecimal.valueOf(10), 1L));
+
+        int alterados = repository.somar(1L, 2022, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                BigDecimal.valueOf(5), 1L);
+        em.clear();
+
+        List<ResumoMensal> resumos = repository.buscarPorAno(1L, 2022);
+        assertEquals(1, alterados);
+        assertEquals(0, BigDecimal.valueOf(15).compareTo(resumos.get(0).getTotal()));
+        assertEquals(2L, resumos.get(0).getQuantidade());
+    }
+
+    @Test
+    public void deveBuscarResumoDoAnoSemGruposVazios() {
+        em.persist(new ResumoMensal(1L, 2022, 7, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                BigDecimal.valueOf(10), 1L));
+        em.persist(new ResumoMensal(1L, 2022, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+                BigDecimal.valueOf(10), 1L));
+        em.persist(new ResumoMensal(1L, 2022, 3, TipoLancamento.DESPESA, StatusLancamento.CANCELADO,
+                BigDecimal.ZERO, 0L));
+        em.persist(new ResumoMensal(1L, 2021, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+                BigDecimal.valueOf(10), 1L));
+
+        List<ResumoMensal> resumos = repository.buscarPorAno(1L, 2022);
+
+        assertEquals(2, resumos.size());
+        assertEquals(3, resumos.get(0).getMes());
+        assertEquals(7, resumos.get(1).getMes());
+    }
+
+    @Test
+    public void deveRecalcularResumosAPartirDosLancamentos() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        persistirLancamento(usuario, 6, 100);
+        persistirLancamento(usuario, 6, 30);
+        persistirLancamento(usuario, 7, 5);
+
+        repository.recalcularResumos();
+
+        List<ResumoMensal> resumos = repository.buscarPorAno(usuario.getId(), 2022);
+        assertEquals(2, resumos.size());
+        assertEquals(0, BigDecimal.valueOf(130).compareTo(resumos.get(0).getTotal()));
+        assertEquals(2L, resumos.get(0).getQuantidade());
+    }
+
+    @Test
+    public void deveRecalcularLancamentosSemStatusComoPendentes() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        persistirLancamento(usuario, 6, 100);
+        persistirLancamento(usuario, 6, 30).setStatus(null);
+        em.flush();
+
+        repository.recalcularResumos();
+
+        List<ResumoMensal> resumos = repository.buscarPorAno(usuario.getId(), 2022);
+        assertEquals(1, resumos.size());
+        assertEquals(StatusLancamento.PENDENTE, resumos.get(0).getStatus());
+        assertEquals(0, BigDecimal.valueOf(130).compareTo(resumos.get(0).getTotal()));
+        assertEquals(2L, resumos.get(0).getQuantidade());
+    }
+
+    @Test
+    public void deveTotalizarLancamentosQueMudaraoDeStatus() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        persistirLancamento(usuario, 6, 100);
+        persistirLancamento(usuario, 6, 30);
+        Lancamento efetivado = persistirLancamento(usuario, 6, 5);
+        efetivado.setStatus(StatusLancamento.EFETIVADO);
+        em.flush();
+
+        List<TotalLancamentos> totais = lancamentoRepository.totalizarParaStatus(usuario.getId(), 6, 2022,
+                StatusLancamento.EFETIVADO);
+
+        assertEquals(1, totais.size());
+        assertEquals(StatusLancamento.PENDENTE, totais.get(0).getStatus());
+        assertEquals(0, BigDecimal.valueOf(130).compareTo(totais.get(0).getTotal()));
+        assertEquals(2L, totais.get(0).getQuantidade());
+    }
+
+    private Lancamento persistirLancamento(Usuario usuario, int mes, int valor) {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(usuario);
+        lancamento.setMes(mes);
+        lancamento.setValor(BigDecimal.valueOf(valor));
+        return em.persist(lancamento);
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.lucas.minhasfinancas.model.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.SaldoUsuario;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+public class SaldoUsuarioRepositoryTest {
+
+    @Autowired
+    private SaldoUsuarioRepository repository;
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    public void deveSomarValorAoSaldoExistente() {
+        em.persist(new SaldoUsuario(1L, BigDecimal.valueOf(10)));
+
+        int alterados = repository.somarAoSaldo(1L, BigDecimal.valueOf(-4));
+        em.clear();
+
+        assertEquals(1, alterados);
+        assertEquals(0, BigDecimal.valueOf(6).compareTo(em.find(SaldoUsuario.class, 1L).getValor()));
+    }
+
+    @Test
+    public void naoDeveAlterarSaldoInexistente() {
+        int alterados = repository.somarAoSaldo(1L, BigDecimal.TEN);
+
+        assertEquals(0, alterados);
+    }
+
+    @Test
+    public void deveRecalcularSaldosAPartirDosLancamentos() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        persistirLancamento(usuario, TipoLancamento.RECEITA, 100);
+        persistirLancamento(usuario, TipoLancamento.DESPESA, 30);
+
+        repository.recalcularSaldos(TipoLancamento.RECEITA);
+
+        SaldoUsuario saldo = em.find(SaldoUsuario.class, usuario.getId());
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(saldo.getValor()));
+    }
+
+    @Test
+    public void deveObterEstadoGravadoIgnorandoAlteracoesPendentes() {
+        Usuario usuario = em.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento lancamento = persistirLancamento(usuario, TipoLancamento.RECEITA, 100);
+        em.flush();
+
+        lancamento.setValor(BigDecimal.valueOf(5));
+        EstadoLancamento estado = lancamentoRepository.obterEstado(lancamento.getId()).get();
+
+        assertEquals(usuario.getId(), estado.getIdUsuario());
+        assertEquals(TipoLancamento.RECEITA, estado.getTipo());
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(estado.getValor()));
+    }
+
+    private Lancamento persistirLancamento(Usuario usuario, TipoLancamento tipo, int valor) {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(usuario);
+        lancamento.setTipo(tipo);
+        lancamento.setValor(BigDecimal.valueOf(valor));
+        return em.persist(lancamento);
+    }
+
+}
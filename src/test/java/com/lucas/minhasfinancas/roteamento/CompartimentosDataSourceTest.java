@@ -0,0 +1,31 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class CompartimentosDataSourceTest {
+
+    @Test
+    public void deveUsarOPoolDeLeituraSoEmTransacoesSomenteLeitura() {
+        // Cenário
+        CompartimentosDataSource compartimentos = new CompartimentosDataSource(Mockito.mock(DataSource.class),
+                Mockito.mock(DataSource.class));
+
+        // Execução e verificação
+        assertEquals(CompartimentosDataSource.ESCRITA, compartimentos.determineCurrentLookupKey());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try {
+            assertEquals(CompartimentosDataSource.LEITURA, compartimentos.determineCurrentLookupKey());
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+}
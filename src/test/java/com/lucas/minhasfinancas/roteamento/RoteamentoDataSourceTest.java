@@ -0,0 +1,64 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.lucas.minhasfinancas.service.LancamentoService;
+
+/**
+ * Primário e réplica são dois bancos H2 distintos; a réplica recebe à mão um
+ * saldo que o primário não tem, para mostrar de onde cada leitura veio.
+ */
+@SpringBootTest(properties = { "minhasfinancas.replicas.habilitado=true",
+        "minhasfinancas.replicas.urls=" + RoteamentoDataSourceTest.URL_REPLICA,
+        "minhasfinancas.replicas.janela-leitura-propria-ms=60000" })
+@ActiveProfiles("test")
+class RoteamentoDataSourceTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas";
+    static final Long ID_USUARIO = 900L;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private LeituraAposEscrita leituraAposEscrita;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", "sa"));
+        replica.execute("CREATE TABLE IF NOT EXISTS financas.saldo_usuario "
+                + "(id_usuario BIGINT PRIMARY KEY, valor NUMERIC(16, 2))");
+        replica.update("MERGE INTO financas.saldo_usuario KEY (id_usuario) VALUES (?, ?)", ID_USUARIO,
+                new BigDecimal("42.00"));
+    }
+
+    @Test
+    void deveLerDaReplicaEmTransacaoSomenteLeitura() {
+        assertEquals(new BigDecimal("42.00"), lancamentoService.obterSaldoPorUsuario(ID_USUARIO));
+    }
+
+    @Test
+    void deveLerDoPrimarioLogoDepoisDeUmaEscritaDoUsuario() {
+        // Cenário
+        leituraAposEscrita.registrarEscrita(Collections.singleton(ID_USUARIO + 1));
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", "sa"));
+        replica.update("MERGE INTO financas.saldo_usuario KEY (id_usuario) VALUES (?, ?)", ID_USUARIO + 1,
+                new BigDecimal("42.00"));
+
+        // Execução e verificação
+        assertEquals(BigDecimal.ZERO, lancamentoService.obterSaldoPorUsuario(ID_USUARIO + 1));
+        assertEquals(new BigDecimal("42.00"), lancamentoService.obterSaldoPorUsuario(ID_USUARIO));
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.lucas.minhasfinancas.roteamento;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+import com.lucas.minhasfinancas.service.LancamentoService;
+import com.lucas.minhasfinancas.service.UsuarioService;
+
+/**
+ * Dois bancos H2: o shard 0 é o banco de teste, com o esquema criado pelo
+ * Hibernate, e o shard 1 recebe uma cópia do esquema com a sequence e a
+ * identidade em outra faixa, como nos shards de produção. Como o esquema do
+ * shard 1 só é criado depois da subida, a verificação das faixas na subida
+ * fica desligada e é feita pelos próprios testes.
+ */
+@SpringBootTest(properties = { "minhasfinancas.shards.habilitado=true",
+        "minhasfinancas.shards.urls=" + ShardsTest.URL_SHARD_1, "minhasfinancas.shards.verificar-faixas-ids=false" })
+@ActiveProfiles("test")
+class ShardsTest {
+
+    static final String URL_SHARD_0 = "jdbc:h2:mem:db;MODE=PostgreSQL;DB_CLOSE_DELAY=1;INIT=CREATE SCHEMA IF NOT EXISTS financas";
+    static final String URL_SHARD_1 = "jdbc:h2:mem:shard1;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas";
+
+    private static final JdbcTemplate SHARD_0 = new JdbcTemplate(new DriverManagerDataSource(URL_SHARD_0, "sa", "sa"));
+    private static final JdbcTemplate SHARD_1 = new JdbcTemplate(new DriverManagerDataSource(URL_SHARD_1, "sa", "sa"));
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private MigracaoShards migracaoShards;
+
+    @Autowired
+    private Shards shards;
+
+    @BeforeEach
+    void criarEsquemaDoShard1() {
+        if (!SHARD_1.queryForList("SELECT table_name FROM information_schema.tables WHERE table_schema = 'FINANCAS'")
+                .isEmpty()) {
+            return;
+        }
+
+        List<String> ddl = SHARD_0.queryForList("SCRIPT NODATA NOSETTINGS SCHEMA FINANCAS", String.class);
+        ddl.stream().filter(instrucao -> !instrucao.startsWith("CREATE SCHEMA")).forEach(SHARD_1::execute);
+        SHARD_0.execute("ALTER SEQUENCE financas.lancamento_seq MAXVALUE 999999999");
+        SHARD_1.execute("ALTER SEQUENCE financas.lancamento_seq START WITH 1000000050 RESTART WITH 1000000050 "
+                + "MINVALUE 1000000050");
+        SHARD_1.execute("ALTER TABLE financas.usuario ALTER COLUMN id RESTART WITH 1000000001");
+    }
+
+    @Test
+    void deveGravarOsDadosDoUsuarioNoShardAlocadoPeloEmail() {
+        // Cenário
+        Usuario usuario = usuarioService.salvarUsuario(criarUsuario(emailNoShard(1, "gravar")));
+
+        // Execução
+        Lancamento lancamento = lancamentoService.salvar(criarLancamento(usuario, "100.00"));
+
+        // Verificação
+        assertEquals(1, contar(SHARD_1, "lancamento", lancamento.getId()));
+        assertEquals(0, contar(SHARD_0, "lancamento", lancamento.getId()));
+        assertEquals(new BigDecimal("100.00"), lancamentoService.obterSaldoPorUsuario(usuario.getId()));
+        assertEquals(usuario.getId(), usuarioService.autenticar(usuario.getEmail(), "senha").getId());
+        assertEquals(usuario.getId(),
+                lancamentoService.buscarPorId(lancamento.getId()).get().getUsuario().getId());
+    }
+
+    @Test
+    void deveRecusarEmailCadastradoEmOutroShard() {
+        // Cenário
+        String email = emailNoShard(0, "repetido");
+        usuarioService.salvarUsuario(criarUsuario(email));
+
+        // Execução e verificação
+        assertThrows(RegraDeNegocioException.class, () -> usuarioService.validarEmail(email));
+    }
+
+    @Test
+    void deveMoverOsDadosDoUsuarioParaOutroShard() {
+        // Cenário
+        Usuario usuario = usuarioService.salvarUsuario(criarUsuario(emailNoShard(1, "mover")));
+        Lancamento lancamento = lancamentoService.salvar(criarLancamento(usuario, "35.50"));
+
+        // Execução
+        migracaoShards.mover(usuario.getId(), 0);
+
+        // Verificação
+        assertEquals(0, contar(SHARD_1, "lancamento", lancamento.getId()));
+        assertEquals(1, contar(SHARD_0, "lancamento", lancamento.getId()));
+        assertEquals(0, shards.shardDoUsuario(usuario.getId()));
+        assertEquals(new BigDecimal("35.50"), lancamentoService.obterSaldoPorUsuario(usuario.getId()));
+        assertTrue(lancamentoService.buscarPorId(lancamento.getId()).isPresent());
+    }
+
+    @Test
+    void deveAceitarShardsComFaixasDeIdsDisjuntas() {
+        FaixasIdsShards.verificar(Arrays.asList(SHARD_0.getDataSource(), SHARD_1.getDataSource()));
+    }
+
+    @Test
+    void deveRecusarShardsComFaixasDeIdsQueSeCruzam() {
+        assertThrows(IllegalStateException.class,
+                () -> FaixasIdsShards.verificar(Arrays.asList(SHARD_1.getDataSource(), SHARD_1.getDataSource())));
+    }
+
+    private String emailNoShard(int shard, String prefixo) {
+        return IntStream.iterate(0, i -> i + 1).mapToObj(i -> prefixo + i + "@email.com")
+                .filter(email -> shards.alocar(email) == shard).findFirst().get();
+    }
+
+    private static int contar(JdbcTemplate shard, String tabela, Long id) {
+        return shard.queryForObject("SELECT COUNT(*) FROM financas." + tabela + " WHERE id = ?", Integer.class, id);
+    }
+
+    private static Usuario criarUsuario(String email) {
+        return Usuario.builder().nome("usuario").email(email).senha("senha").build();
+    }
+
+    private static Lancamento criarLancamento(Usuario usuario, String valor) {
+        return Lancamento.builder().descricao("lancamento").mes(1).ano(2023).usuario(usuario)
+                .valor(new BigDecimal(valor)).tipo(TipoLancamento.RECEITA).build();
+    }
+
+}
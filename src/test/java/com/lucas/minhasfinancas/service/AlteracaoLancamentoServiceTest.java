@@ -0,0 +1,130 @@
+package com.lucas.minhasfinancas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+import com.lucas.minhasfinancas.model.entity.AlteracaoLancamento;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+import com.lucas.minhasfinancas.model.enums.OperacaoLancamento;
+import com.lucas.minhasfinancas.model.repository.AlteracaoLancamentoRepository;
+import com.lucas.minhasfinancas.model.repository.EstadoLancamento;
+import com.lucas.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.lucas.minhasfinancas.model.repository.SequenciaAlteracaoRepository;
+import com.lucas.minhasfinancas.roteamento.LeituraAposEscrita;
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.impl.AlteracaoLancamentoServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class AlteracaoLancamentoServiceTest {
+
+    @SpyBean
+    AlteracaoLancamentoServiceImpl service;
+
+    @MockBean
+    AlteracaoLancamentoRepository repository;
+
+    @MockBean
+    SequenciaAlteracaoRepository sequenciaRepository;
+
+    @MockBean
+    Shards shards;
+
+    @MockBean
+    LeituraAposEscrita leituraAposEscrita;
+
+    @MockBean
+    NotificacaoService notificacaoService;
+
+    @Test
+    public void deveNumerarOLoteComAsSequenciasReservadasEmUmUpdate() {
+        // Cenário
+        Mockito.when(sequenciaRepository.avancar(1L, 2)).thenReturn(1);
+        Mockito.when(sequenciaRepository.obterUltima(1L)).thenReturn(7L);
+
+        // Execução
+        service.registrarInclusoes(Arrays.asList(criarLancamento(1L, 10L), criarLancamento(1L, 11L)));
+
+        // Verificação
+        List<AlteracaoLancamento> gravadas = capturarGravadas();
+        assertEquals(6L, gravadas.get(0).getSequencia());
+        assertEquals(7L, gravadas.get(1).getSequencia());
+        assertEquals(OperacaoLancamento.INCLUSAO, gravadas.get(0).getOperacao());
+        assertEquals(10L, gravadas.get(0).getIdLancamento());
+        Mockito.verify(notificacaoService).notificar(gravadas);
+    }
+
+    @Test
+    public void deveIniciarASequenciaDoUsuarioNaPrimeiraAlteracao() {
+        // Cenário
+        Mockito.when(sequenciaRepository.avancar(1L, 1)).thenReturn(0, 1);
+        Mockito.when(sequenciaRepository.obterUltima(1L)).thenReturn(1L);
+
+        // Execução
+        service.registrarInclusao(criarLancamento(1L, 10L));
+
+        // Verificação
+        InOrder ordem = Mockito.inOrder(sequenciaRepository);
+        ordem.verify(sequenciaRepository).criarSeAusente(1L);
+        ordem.verify(sequenciaRepository).avancar(1L, 1);
+        Mockito.verify(sequenciaRepository, Mockito.never()).save(Mockito.any());
+        assertEquals(1L, capturarGravadas().get(0).getSequencia());
+    }
+
+    @Test
+    public void deveRegistrarExclusaoEInclusaoQuandoOLancamentoMudaDeUsuario() {
+        // Cenário
+        EstadoLancamento anterior = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(anterior.getIdUsuario()).thenReturn(2L);
+        Mockito.when(sequenciaRepository.avancar(Mockito.anyLong(), Mockito.anyLong())).thenReturn(1);
+        Mockito.when(sequenciaRepository.obterUltima(Mockito.anyLong())).thenReturn(1L);
+
+        // Execução
+        service.registrarAtualizacao(anterior, criarLancamento(1L, 10L));
+
+        // Verificação
+        List<AlteracaoLancamento> gravadas = capturarGravadas();
+        assertEquals(OperacaoLancamento.EXCLUSAO, gravadas.get(0).getOperacao());
+        assertEquals(2L, gravadas.get(0).getIdUsuario());
+        assertEquals(OperacaoLancamento.INCLUSAO, gravadas.get(1).getOperacao());
+        assertEquals(1L, gravadas.get(1).getIdUsuario());
+    }
+
+    @Test
+    public void deveRecusarPaginaDeAlteracoesMaiorQueOLimite() {
+        Assertions.assertThrows(RegraDeNegocioException.class, () -> service.buscarAlteracoes(1L, 0,
+                AlteracaoLancamentoServiceImpl.TAMANHO_MAXIMO_PAGINA + 1));
+
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AlteracaoLancamento> capturarGravadas() {
+        ArgumentCaptor<List<AlteracaoLancamento>> gravadas = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(repository).saveAll(gravadas.capture());
+        return gravadas.getValue();
+    }
+
+    private static Lancamento criarLancamento(Long idUsuario, Long id) {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(id);
+        lancamento.setUsuario(Usuario.builder().id(idUsuario).build());
+        return lancamento;
+    }
+
+}
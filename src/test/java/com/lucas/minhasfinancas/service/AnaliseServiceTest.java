@@ -0,0 +1,173 @@
+package com.lucas.minhasfinancas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+import com.lucas.minhasfinancas.model.repository.FiltroLancamento;
+import com.lucas.minhasfinancas.model.repository.LancamentoRepository;
+import com.lucas.minhasfinancas.model.repository.ValoresLancamento;
+import com.lucas.minhasfinancas.roteamento.LeituraAposEscrita;
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.impl.AnaliseServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class AnaliseServiceTest {
+
+    @SpyBean
+    AnaliseServiceImpl service;
+
+    @MockBean
+    LancamentoRepository repository;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    @MockBean
+    LeituraAposEscrita leituraAposEscrita;
+
+    @MockBean
+    Shards shards;
+
+    @Test
+    public void deveCarregarColunasUmaVezAteSerInvalidado() {
+        // Cenário
+        Mockito.when(repository.percorrerValores(1L)).thenAnswer(invocacao -> valores());
+
+        // Execução
+        service.obterColunas(1L);
+        ColunasLancamentos colunas = service.obterColunas(1L);
+        service.invalidar(1L);
+        service.obterColunas(1L);
+
+        // Verificação
+        assertEquals(4, colunas.getTamanho());
+        Mockito.verify(repository, Mockito.times(2)).percorrerValores(1L);
+    }
+
+    @Test
+    public void deveTotalizarPorPeriodoTipoEFaixaDeValor() {
+        // Cenário
+        Mockito.when(repository.percorrerValores(2L)).thenAnswer(invocacao -> valores());
+
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(2L).anoInicial(2022).mesInicial(12)
+                .anoFinal(2023).mesFinal(1).tipo(TipoLancamento.DESPESA).valorMinimo(new BigDecimal("0.01"))
+                .valorMaximo(new BigDecimal("40.005")).build();
+
+        // Execução
+        BigDecimal total = service.totalizar(filtro);
+
+        // Verificação
+        assertEquals(new BigDecimal("25.25"), total);
+    }
+
+    @Test
+    public void naoDeveTotalizarPorDescricao() {
+        // Cenário
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(3L).descricao("mercado").build();
+
+        // Execução e verificação
+        assertThrows(RegraDeNegocioException.class, () -> service.totalizar(filtro));
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void deveObterSaldosDeCadaMesDoPeriodo() {
+        // Cenário
+        Mockito.when(repository.percorrerValores(4L)).thenAnswer(invocacao -> valores());
+
+        // Execução
+        List<SaldoMensal> saldos = service.obterSaldosMensais(4L, 2022, 11, 2023, 1, null);
+
+        // Verificação
+        assertEquals(Arrays.asList(
+                new SaldoMensal(2022, 11, BigDecimal.valueOf(0, 2), BigDecimal.valueOf(0, 2),
+                        BigDecimal.valueOf(0, 2)),
+                new SaldoMensal(2022, 12, new BigDecimal("1000.00"), new BigDecimal("25.25"),
+                        new BigDecimal("974.75")),
+                new SaldoMensal(2023, 1, BigDecimal.valueOf(0, 2), new BigDecimal("350.00"),
+                        new BigDecimal("-350.00"))), saldos);
+    }
+
+    @Test
+    public void naoDeveObterSaldosDePeriodoInvertido() {
+        assertThrows(RegraDeNegocioException.class, () -> service.obterSaldosMensais(5L, 2023, 1, 2022, 12, null));
+    }
+
+    @Test
+    public void deveObterMaioresLancamentosNaOrdemDoValor() {
+        // Cenário
+        Mockito.when(repository.percorrerValores(6L)).thenAnswer(invocacao -> valores());
+        Lancamento aluguel = Lancamento.builder().id(30L).build();
+        Lancamento mercado = Lancamento.builder().id(20L).build();
+        Mockito.when(repository.findAllById(Arrays.asList(30L, 20L))).thenReturn(Arrays.asList(mercado, aluguel));
+
+        // Execução
+        List<Lancamento> maiores = service.obterMaiores(6L, TipoLancamento.DESPESA, 2);
+
+        // Verificação
+        assertEquals(Arrays.asList(aluguel, mercado), maiores);
+    }
+
+    @Test
+    public void deveLerTipoEStatusAusentesComoNulosSemSomarNosMeses() {
+        // Cenário
+        ColunasLancamentos colunas = ColunasLancamentos.construtor()
+                .adicionar(1L, 1000, ColunasLancamentos.anoMes(2022, 12), null, null)
+                .adicionar(2L, 250, ColunasLancamentos.anoMes(2022, 12), TipoLancamento.DESPESA,
+                        StatusLancamento.PENDENTE)
+                .construir();
+        int dezembro = ColunasLancamentos.anoMes(2022, 12);
+
+        // Execução
+        long[][] meses = colunas.somarPorMes(dezembro, dezembro, ColunasLancamentos.QUALQUER);
+
+        // Verificação
+        assertNull(colunas.getTipo(0));
+        assertNull(colunas.getStatus(0));
+        assertEquals(0, meses[0][0]);
+        assertEquals(250, meses[0][1]);
+        assertEquals(250, colunas.somar(dezembro, dezembro, Long.MIN_VALUE, Long.MAX_VALUE,
+                ColunasLancamentos.codigo(TipoLancamento.DESPESA), ColunasLancamentos.QUALQUER));
+    }
+
+    private Stream<ValoresLancamento> valores() {
+        return Stream.of(
+                valor(10L, "1000.00", 2022, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO),
+                valor(20L, "25.25", 2022, 12, TipoLancamento.DESPESA, StatusLancamento.PENDENTE),
+                valor(30L, "350.00", 2023, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE),
+                valor(40L, "5.00", 2023, 2, TipoLancamento.DESPESA, StatusLancamento.CANCELADO));
+    }
+
+    private ValoresLancamento valor(Long id, String valor, Integer ano, Integer mes, TipoLancamento tipo,
+            StatusLancamento status) {
+        ValoresLancamento valores = Mockito.mock(ValoresLancamento.class);
+        Mockito.when(valores.getId()).thenReturn(id);
+        Mockito.when(valores.getValor()).thenReturn(new BigDecimal(valor));
+        Mockito.when(valores.getAno()).thenReturn(ano);
+        Mockito.when(valores.getMes()).thenReturn(mes);
+        Mockito.when(valores.getTipo()).thenReturn(tipo);
+        Mockito.when(valores.getStatus()).thenReturn(status);
+        return valores;
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.lucas.minhasfinancas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+public class DinheiroTest {
+
+    @Test
+    public void deveConverterDeEParaBigDecimalSemPerda() {
+        // Cenário
+        BigDecimal valor = new BigDecimal("1234.5");
+
+        // Execução
+        Dinheiro dinheiro = Dinheiro.de(valor);
+
+        // Verificação
+        assertEquals(123450L, dinheiro.getCentavos());
+        assertEquals(new BigDecimal("1234.50"), dinheiro.paraBigDecimal());
+        assertEquals(0, valor.compareTo(dinheiro.paraBigDecimal()));
+        assertEquals(Dinheiro.deCentavos(5), Dinheiro.de(new BigDecimal("0.0500")));
+    }
+
+    @Test
+    public void deveRecusarValorComMaisDeDuasCasasDecimais() {
+        assertThrows(ArithmeticException.class, () -> Dinheiro.de(new BigDecimal("10.005")));
+    }
+
+    @Test
+    public void deveRecusarValorForaDaFaixaDeUmLong() {
+        assertThrows(ArithmeticException.class, () -> Dinheiro.de(new BigDecimal("92233720368547758.08")));
+    }
+
+    @Test
+    public void deveSomarSubtrairENegar() {
+        // Cenário
+        Dinheiro receita = Dinheiro.de(new BigDecimal("100.10"));
+        Dinheiro despesa = Dinheiro.de(new BigDecimal("0.15"));
+
+        // Execução e verificação
+        assertEquals(new BigDecimal("100.25"), receita.somar(despesa).paraBigDecimal());
+        assertEquals(new BigDecimal("99.95"), receita.subtrair(despesa).paraBigDecimal());
+        assertEquals(new BigDecimal("-0.15"), despesa.negar().paraBigDecimal());
+        assertEquals(Dinheiro.ZERO, despesa.subtrair(despesa));
+    }
+
+    @Test
+    public void deveDetectarEstouroNasOperacoes() {
+        // Cenário
+        Dinheiro maximo = Dinheiro.deCentavos(Long.MAX_VALUE);
+        Dinheiro minimo = Dinheiro.deCentavos(Long.MIN_VALUE);
+
+        // Execução e verificação
+        assertThrows(ArithmeticException.class, () -> maximo.somar(Dinheiro.deCentavos(1)));
+        assertThrows(ArithmeticException.class, () -> minimo.subtrair(Dinheiro.deCentavos(1)));
+        assertThrows(ArithmeticException.class, () -> minimo.negar());
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.lucas.minhasfinancas.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.TrigramaLancamento;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+import com.lucas.minhasfinancas.model.repository.LancamentoRepository;
+import com.lucas.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.lucas.minhasfinancas.model.repository.TrigramaLancamentoRepository;
+import com.lucas.minhasfinancas.service.impl.IndiceDescricaoServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class IndiceDescricaoServiceTest {
+
+    @SpyBean
+    IndiceDescricaoServiceImpl service;
+
+    @MockBean
+    TrigramaLancamentoRepository repository;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @MockBean
+    EntityManager entityManager;
+
+    @Test
+    public void deveExtrairTrigramasDistintosEmMinusculas() {
+        Assertions.assertThat(TrigramaLancamento.extrair("AnaNa"))
+                .containsExactly("ana", "nan");
+        Assertions.assertThat(TrigramaLancamento.extrair("ab")).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deveIndexarCadaTrigramaDaDescricaoComOUsuario() {
+        // Cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(7L);
+        lancamento.setDescricao("Luz");
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+
+        // Execução
+        service.indexar(lancamento);
+
+        // Verificação
+        ArgumentCaptor<List<TrigramaLancamento>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(repository).saveAll(captor.capture());
+        Assertions.assertThat(captor.getValue()).containsExactly(
+                new TrigramaLancamento(new TrigramaLancamento.Chave("luz", 7L), 1L));
+    }
+
+    @Test
+    public void deveRemoverEntradasAntigasAoReindexar() {
+        // Cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(7L);
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+
+        // Execução
+        service.reindexar(lancamento);
+
+        // Verificação
+        Mockito.inOrder(repository).verify(repository).removerDoLancamento(7L);
+        Mockito.verify(repository).saveAll(Mockito.anyList());
+    }
+
+    @Test
+    public void deveReconstruirIndiceAPartirDosLancamentos() {
+        // Cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(7L);
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+
+        Mockito.doAnswer(invocacao -> {
+            invocacao.<java.util.function.Consumer<Lancamento>>getArgument(1).accept(lancamento);
+            return null;
+        }).when(lancamentoRepository).percorrer(Mockito.any(), Mockito.any());
+
+        // Execução
+        service.reconstruirIndice();
+
+        // Verificação
+        Mockito.verify(repository).deleteAllInBatch();
+        Mockito.verify(repository).saveAll(Arrays.asList(
+                new TrigramaLancamento(new TrigramaLancamento.Chave("sal", 7L), 1L),
+                new TrigramaLancamento(new TrigramaLancamento.Chave("alá", 7L), 1L),
+                new TrigramaLancamento(new TrigramaLancamento.Chave("lár", 7L), 1L),
+                new TrigramaLancamento(new TrigramaLancamento.Chave("ári", 7L), 1L),
+                new TrigramaLancamento(new TrigramaLancamento.Chave("rio", 7L), 1L)));
+        Mockito.verify(entityManager, Mockito.never()).clear();
+    }
+
+    @Test
+    public void deveLimparOContextoDePersistenciaACadaBlocoDaReconstrucao() {
+        // Cenário: 100 lançamentos de 5 trigramas completam um bloco de 500.
+        Mockito.doAnswer(invocacao -> {
+            for (long id = 1; id <= 100; id++) {
+                Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+                lancamento.setId(id);
+                lancamento.setUsuario(Usuario.builder().id(1L).build());
+                invocacao.<java.util.function.Consumer<Lancamento>>getArgument(1).accept(lancamento);
+            }
+            return null;
+        }).when(lancamentoRepository).percorrer(Mockito.any(), Mockito.any());
+
+        List<Integer> blocos = new ArrayList<>();
+        Mockito.when(repository.saveAll(Mockito.anyList())).thenAnswer(invocacao -> {
+            blocos.add(invocacao.<List<?>>getArgument(0).size());
+            return invocacao.getArgument(0);
+        });
+
+        // Execução
+        service.reconstruirIndice();
+
+        // Verificação
+        Assertions.assertThat(blocos).containsExactly(500, 0);
+        InOrder ordem = Mockito.inOrder(repository, entityManager);
+        ordem.verify(repository).flush();
+        ordem.verify(entityManager).clear();
+    }
+
+}
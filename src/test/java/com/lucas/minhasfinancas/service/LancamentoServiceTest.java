@@ -1,29 +1,43 @@
 package com.lucas.minhasfinancas.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
-import org.springframework.data.domain.Example;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
 import com.lucas.minhasfinancas.model.entity.Lancamento;
 import com.lucas.minhasfinancas.model.entity.Usuario;
 import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.repository.EstadoLancamento;
+import com.lucas.minhasfinancas.model.repository.FiltroLancamento;
 import com.lucas.minhasfinancas.model.repository.LancamentoRepository;
 import com.lucas.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.lucas.minhasfinancas.model.repository.PaginaLancamento;
+import com.lucas.minhasfinancas.model.repository.TotalLancamentos;
+import com.lucas.minhasfinancas.roteamento.LeituraAposEscrita;
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.impl.AposEscritaLancamentos;
+import com.lucas.minhasfinancas.service.impl.BuscaLancamentoCache;
+import com.lucas.minhasfinancas.service.impl.ConsultasCompartilhadas;
 import com.lucas.minhasfinancas.service.impl.LancamentoServiceImpl;
 
 @ExtendWith(SpringExtension.class)
@@ -36,15 +50,53 @@ public class LancamentoServiceTest {
     @MockBean
     LancamentoRepository repository;
 
+    @MockBean
+    SaldoService saldoService;
+
+    @MockBean
+    IndiceDescricaoService indiceDescricaoService;
+
+    @MockBean
+    ResumoService resumoService;
+
+    @MockBean
+    AlteracaoLancamentoService alteracaoService;
+
+    @MockBean
+    AnaliseService analiseService;
+
+    @MockBean
+    VersaoDadosService versaoDadosService;
+
+    @SpyBean
+    AposEscritaLancamentos aposEscrita;
+
+    @SpyBean
+    BuscaLancamentoCache buscaCache;
+
+    @SpyBean
+    ConsultasCompartilhadas consultas;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    @MockBean
+    LeituraAposEscrita leituraAposEscrita;
+
+    @SpyBean
+    Shards shards;
+
     @Test
     public void deveSalvarUmLancamento() {
         // Cenário
         Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
+        lancamentoASalvar.setUsuario(Usuario.builder().id(1L).build());
         Mockito.doNothing().when(service).validarLancamento(lancamentoASalvar);
 
         Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
         lancamentoSalvo.setId(1L);
         lancamentoSalvo.setStatus(StatusLancamento.PENDENTE);
+        lancamentoSalvo.setUsuario(Usuario.builder().id(1L).build());
 
         Mockito.when(repository.save(lancamentoASalvar)).thenReturn(lancamentoSalvo);
 
@@ -54,6 +106,32 @@ public class LancamentoServiceTest {
         // Verificação
         assertEquals(lancamento.getId(), lancamentoSalvo.getId());
         assertEquals(lancamento.getStatus(), StatusLancamento.PENDENTE);
+        Mockito.verify(saldoService).registrarLancamento(lancamentoSalvo);
+        Mockito.verify(indiceDescricaoService).indexar(lancamentoSalvo);
+        Mockito.verify(analiseService).invalidar(1L);
+        Mockito.verify(versaoDadosService).incrementar(1L);
+    }
+
+    @Test
+    public void deveIgnorarOIdInformadoAoSalvar() {
+        // Cenário
+        Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
+        lancamentoASalvar.setId(7L);
+        lancamentoASalvar.setUsuario(Usuario.builder().id(1L).build());
+        Mockito.doNothing().when(service).validarLancamento(lancamentoASalvar);
+        Mockito.when(repository.save(Mockito.any(Lancamento.class))).thenAnswer(invocacao -> {
+            Lancamento novo = invocacao.getArgument(0);
+            assertNull(novo.getId());
+            novo.setId(1L);
+            return novo;
+        });
+
+        // Execução
+        Lancamento lancamento = service.salvar(lancamentoASalvar);
+
+        // Verificação
+        assertEquals(1L, lancamento.getId());
+        Mockito.verify(repository).save(Mockito.any(Lancamento.class));
     }
 
     @Test
@@ -69,12 +147,37 @@ public class LancamentoServiceTest {
         Mockito.verify(repository, Mockito.never()).save(lancamentoASalvar);
     }
 
+    @Test
+    public void deveSalvarItensValidosDoLoteEReportarOsInvalidos() {
+        // Cenário
+        Lancamento valido = LancamentoRepositoryTest.criarLancamento();
+        valido.setUsuario(Usuario.builder().id(1L).build());
+        Lancamento invalido = LancamentoRepositoryTest.criarLancamento();
+        invalido.setDescricao(null);
+        invalido.setUsuario(Usuario.builder().id(1L).build());
+
+        Mockito.when(repository.saveAll(Mockito.anyList())).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        // Execução
+        ResultadoLote resultado = service.salvarEmLote(Arrays.asList(invalido, valido));
+
+        // Verificação
+        Assertions.assertThat(resultado.getSalvos()).containsExactly(valido);
+        Assertions.assertThat(resultado.getErros()).hasSize(1);
+        assertEquals(0, resultado.getErros().get(0).getIndice());
+        assertEquals("Informe uma Descrição válida.", resultado.getErros().get(0).getMensagem());
+        assertEquals(StatusLancamento.PENDENTE, valido.getStatus());
+        Mockito.verify(repository).flush();
+        Mockito.verify(saldoService).registrarLancamentos(Arrays.asList(valido));
+    }
+
     @Test
     public void deveAtualizarUmLancamento() {
         // Cenário
         Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
         lancamentoSalvo.setId(1L);
         lancamentoSalvo.setStatus(StatusLancamento.PENDENTE);
+        lancamentoSalvo.setUsuario(Usuario.builder().id(1L).build());
         Mockito.doNothing().when(service).validarLancamento(lancamentoSalvo);
 
         Mockito.when(repository.save(lancamentoSalvo)).thenReturn(lancamentoSalvo);
@@ -84,6 +187,93 @@ public class LancamentoServiceTest {
 
         // Verificação
         Mockito.verify(repository, Mockito.times(1)).save(lancamentoSalvo);
+        Mockito.verify(saldoService).atualizarLancamento(null, lancamentoSalvo);
+    }
+
+    @Test
+    public void deveManterOStatusGravadoAoAtualizarSemStatus() {
+        // Cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1L);
+        lancamento.setStatus(null);
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        Mockito.doNothing().when(service).validarLancamento(lancamento);
+
+        EstadoLancamento estado = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(estado.getIdUsuario()).thenReturn(1L);
+        Mockito.when(estado.getStatus()).thenReturn(StatusLancamento.EFETIVADO);
+        Mockito.when(repository.obterEstado(1L)).thenReturn(Optional.of(estado));
+        Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+
+        // Execução
+        service.atualizar(lancamento);
+
+        // Verificação
+        assertEquals(StatusLancamento.EFETIVADO, lancamento.getStatus());
+        Mockito.verify(resumoService).atualizarLancamento(estado, lancamento);
+    }
+
+    @Test
+    public void deveAjustarSaldoComEstadoAnteriorAoAtualizar() {
+        // Cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1L);
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        Mockito.doNothing().when(service).validarLancamento(lancamento);
+
+        EstadoLancamento estadoAnterior = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(repository.obterEstado(1L)).thenReturn(Optional.of(estadoAnterior));
+        Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+
+        // Execução
+        service.atualizar(lancamento);
+
+        // Verificação
+        Mockito.verify(saldoService).atualizarLancamento(estadoAnterior, lancamento);
+    }
+
+    @Test
+    public void deveDescartarAnaliseDosDoisUsuariosAoTrocarODonoDoLancamento() {
+        // Cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1L);
+        lancamento.setUsuario(Usuario.builder().id(2L).build());
+        Mockito.doNothing().when(service).validarLancamento(lancamento);
+
+        EstadoLancamento estadoAnterior = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(estadoAnterior.getIdUsuario()).thenReturn(1L);
+        Mockito.when(repository.obterEstado(1L)).thenReturn(Optional.of(estadoAnterior));
+        Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+
+        // Execução
+        service.atualizar(lancamento);
+
+        // Verificação
+        Mockito.verify(analiseService).invalidar(1L);
+        Mockito.verify(analiseService).invalidar(2L);
+    }
+
+    @Test
+    public void deveReindexarDescricaoSomenteQuandoAlterada() {
+        // Cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1L);
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        Mockito.doNothing().when(service).validarLancamento(lancamento);
+        Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+
+        EstadoLancamento estadoAnterior = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(estadoAnterior.getIdUsuario()).thenReturn(1L);
+        Mockito.when(estadoAnterior.getDescricao()).thenReturn("Salário");
+        Mockito.when(repository.obterEstado(1L)).thenReturn(Optional.of(estadoAnterior));
+
+        // Execução
+        service.atualizar(lancamento);
+        lancamento.setDescricao("Salário de junho");
+        service.atualizar(lancamento);
+
+        // Verificação
+        Mockito.verify(indiceDescricaoService, Mockito.times(1)).reindexar(lancamento);
     }
 
     @Test
@@ -102,10 +292,31 @@ public class LancamentoServiceTest {
         Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
         lancamento.setId(1L);
 
+        EstadoLancamento estadoAnterior = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(repository.obterEstado(1L)).thenReturn(Optional.of(estadoAnterior));
+        Mockito.when(repository.excluir(1L)).thenReturn(1);
+
         // Execução e Verificação
         service.deletar(lancamento);
 
-        Mockito.verify(repository).deleteById(lancamento.getId());
+        Mockito.verify(repository).excluir(lancamento.getId());
+        Mockito.verify(repository, Mockito.never()).findById(Mockito.anyLong());
+        Mockito.verify(saldoService).estornarLancamento(estadoAnterior);
+    }
+
+    @Test
+    public void naoDeveEstornarSaldoDeLancamentoJaRemovido() {
+        // Cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1L);
+
+        Mockito.when(repository.obterEstado(1L)).thenReturn(Optional.of(Mockito.mock(EstadoLancamento.class)));
+        Mockito.when(repository.excluir(1L)).thenReturn(0);
+
+        // Execução e Verificação
+        service.deletar(lancamento);
+
+        Mockito.verify(saldoService, Mockito.never()).estornarLancamento(Mockito.any());
     }
 
     @Test
@@ -125,16 +336,80 @@ public class LancamentoServiceTest {
         Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
         lancamento.setId(1L);
 
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(1L).descricao("Sal").build();
+
         List<Lancamento> lancamentos = Arrays.asList(lancamento);
-        Mockito.when(repository.findAll(Mockito.any(Example.class))).thenReturn(lancamentos);
+        Mockito.when(repository.buscar(filtro)).thenReturn(lancamentos);
 
         // Execucao
-        List<Lancamento> resultado = service.buscar(lancamento);
+        List<Lancamento> resultado = service.buscar(filtro);
 
         // Verificacao
         Assertions.assertThat(resultado).isNotEmpty().hasSize(1).contains(lancamento);
     }
 
+    @Test
+    public void deveReutilizarResultadoDaBuscaAteAVersaoDosDadosMudar() {
+        // Cenário
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(9L).ano(2022).build();
+        Mockito.when(repository.buscar(filtro)).thenReturn(Arrays.asList(LancamentoRepositoryTest.criarLancamento()));
+        Mockito.when(versaoDadosService.obterVersao(9L)).thenReturn(1L);
+
+        // Execução
+        service.buscar(filtro);
+        service.buscar(filtro);
+        Mockito.when(versaoDadosService.obterVersao(9L)).thenReturn(2L);
+        List<Lancamento> resultado = service.buscar(filtro);
+
+        // Verificação
+        Assertions.assertThat(resultado).hasSize(1);
+        Mockito.verify(repository, Mockito.times(2)).buscar(filtro);
+    }
+
+    @Test
+    public void deveUsarOMesmoResultadoParaFiltrosEquivalentes() {
+        // Cenário
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(10L).descricao("Sal")
+                .valorMinimo(BigDecimal.TEN).anoInicial(2022).build();
+        FiltroLancamento equivalente = FiltroLancamento.builder().idUsuario(10L).descricao("SAL")
+                .valorMinimo(new BigDecimal("10.00")).anoInicial(2022).mesInicial(1).build();
+        Mockito.when(repository.buscar(filtro)).thenReturn(Arrays.asList(LancamentoRepositoryTest.criarLancamento()));
+
+        // Execução
+        List<Lancamento> primeiro = service.buscar(filtro);
+        List<Lancamento> segundo = service.buscar(equivalente);
+
+        // Verificação
+        assertEquals(primeiro, segundo);
+        Mockito.verify(repository, Mockito.never()).buscar(equivalente);
+    }
+
+    @Test
+    public void deveBuscarPaginaDeLancamentos() {
+        // Cenário
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(1L).build();
+        PaginaLancamento pagina = new PaginaLancamento(Arrays.asList(LancamentoRepositoryTest.criarLancamento()), null);
+        Mockito.when(repository.buscarPagina(filtro, null, 10)).thenReturn(pagina);
+
+        // Execucao
+        PaginaLancamento resultado = service.buscarPagina(filtro, null, 10);
+
+        // Verificacao
+        Assertions.assertThat(resultado).isSameAs(pagina);
+    }
+
+    @Test
+    public void naoDeveBuscarPaginaComTamanhoInvalido() {
+        // Cenário
+        FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(1L).build();
+
+        // Execucao e Verificacao
+        assertThrows(RegraDeNegocioException.class, () -> service.buscarPagina(filtro, null, 0));
+        assertThrows(RegraDeNegocioException.class,
+                () -> service.buscarPagina(filtro, null, LancamentoServiceImpl.TAMANHO_MAXIMO_PAGINA + 1));
+        Mockito.verify(repository, Mockito.never()).buscarPagina(Mockito.any(), Mockito.any(), Mockito.anyInt());
+    }
+
     @Test
     public void deveAtualizarStatusDoLancamento() {
         // Cenário
@@ -152,6 +427,50 @@ public class LancamentoServiceTest {
         Mockito.verify(service).atualizar(lancamento);
     }
 
+    @Test
+    public void deveAtualizarStatusEmLotePorIds() {
+        // Cenário
+        List<Long> ids = Arrays.asList(1L, 2L);
+        Mockito.when(repository.atualizarStatus(ids, StatusLancamento.EFETIVADO)).thenReturn(2);
+
+        // Execucao
+        int alterados = service.atualizarStatusEmLote(ids, StatusLancamento.EFETIVADO);
+
+        // Verificacao
+        assertEquals(2, alterados);
+        Mockito.verify(repository, Mockito.never()).findById(Mockito.anyLong());
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void deveAtualizarStatusEmLotePorUsuarioMesEAno() {
+        // Cenário
+        Mockito.when(repository.atualizarStatus(1L, 6, 2022, StatusLancamento.EFETIVADO)).thenReturn(3);
+
+        // Execucao
+        int alterados = service.atualizarStatusEmLote(1L, 6, 2022, StatusLancamento.EFETIVADO);
+
+        // Verificacao
+        assertEquals(3, alterados);
+    }
+
+    @Test
+    public void deveMoverTotaisDoResumoAntesDeAtualizarStatusEmLote() {
+        // Cenário
+        List<Long> ids = Arrays.asList(1L, 2L);
+        List<TotalLancamentos> totais = Arrays.asList(Mockito.mock(TotalLancamentos.class));
+        Mockito.when(repository.totalizarParaStatus(ids, StatusLancamento.EFETIVADO)).thenReturn(totais);
+
+        // Execucao
+        service.atualizarStatusEmLote(ids, StatusLancamento.EFETIVADO);
+
+        // Verificacao
+        InOrder ordem = Mockito.inOrder(repository, resumoService);
+        ordem.verify(repository).totalizarParaStatus(ids, StatusLancamento.EFETIVADO);
+        ordem.verify(repository).atualizarStatus(ids, StatusLancamento.EFETIVADO);
+        ordem.verify(resumoService).alterarStatus(totais, StatusLancamento.EFETIVADO);
+    }
+
     @Test
     public void deveObterLancamentoPorId() {
         // Cenário
@@ -186,6 +505,64 @@ public class LancamentoServiceTest {
         Assertions.assertThat(lancamentoBuscado.isPresent()).isFalse();
     }
 
+    @Test
+    public void deveObterSaldoDaTabelaDeSaldos() {
+        // Cenário
+        Mockito.when(saldoService.obterSaldo(1L)).thenReturn(BigDecimal.valueOf(100));
+
+        // Execucao
+        BigDecimal saldo = service.obterSaldoPorUsuario(1L);
+
+        // Verificacao
+        assertEquals(BigDecimal.valueOf(100), saldo);
+        Mockito.verify(repository, Mockito.never()).obterSaldoPorTipoDeLancamentoEUsuario(Mockito.any(),
+                Mockito.any());
+    }
+
+    @Test
+    public void deveCompartilharLeituraDoSaldoEntreConsultasSimultaneas() throws Exception {
+        // Cenário
+        CountDownLatch leituraIniciada = new CountDownLatch(1);
+        CountDownLatch liberarLeitura = new CountDownLatch(1);
+        Mockito.when(versaoDadosService.obterVersao(5L)).thenReturn(3L);
+        Mockito.when(saldoService.obterSaldo(5L)).thenAnswer(invocacao -> {
+            leituraIniciada.countDown();
+            liberarLeitura.await(5, TimeUnit.SECONDS);
+            return BigDecimal.TEN;
+        });
+        long compartilhadasAntes = consultas.quantidadeCompartilhadas();
+
+        // Execução
+        CompletableFuture<BigDecimal> primeira = CompletableFuture.supplyAsync(() -> service.obterSaldoPorUsuario(5L));
+        leituraIniciada.await(5, TimeUnit.SECONDS);
+        CompletableFuture<BigDecimal> segunda = CompletableFuture.supplyAsync(() -> service.obterSaldoPorUsuario(5L));
+
+        while (consultas.quantidadeCompartilhadas() == compartilhadasAntes && !segunda.isDone()) {
+            Thread.sleep(10);
+        }
+        liberarLeitura.countDown();
+
+        // Verificação
+        assertEquals(BigDecimal.TEN, primeira.get(5, TimeUnit.SECONDS));
+        assertEquals(BigDecimal.TEN, segunda.get(5, TimeUnit.SECONDS));
+        Mockito.verify(saldoService, Mockito.times(1)).obterSaldo(5L);
+    }
+
+    @Test
+    public void naoDeveCompartilharLeituraDoSaldoDeOutraVersao() {
+        // Cenário
+        Mockito.when(versaoDadosService.obterVersao(6L)).thenReturn(1L, 2L);
+        Mockito.when(saldoService.obterSaldo(6L)).thenReturn(BigDecimal.ONE, BigDecimal.TEN);
+
+        // Execução
+        service.obterSaldoPorUsuario(6L);
+        BigDecimal saldo = service.obterSaldoPorUsuario(6L);
+
+        // Verificação
+        assertEquals(BigDecimal.TEN, saldo);
+        Mockito.verify(consultas).executar(Mockito.eq(Arrays.asList("obterSaldo", 6L, 2L)), Mockito.any());
+    }
+
     @Test
     public void deveLancarExcecaoAoValidarCampos() {
         // Cenário
@@ -266,11 +643,35 @@ public class LancamentoServiceTest {
         Assertions.assertThat(erro).isInstanceOf(RegraDeNegocioException.class)
                 .hasMessage("Informe um Valor válido.");
 
-        lancamento.setValor(BigDecimal.valueOf(150));
+        lancamento.setValor(new BigDecimal("150.005"));
+
+        // Valor com mais de duas casas decimais
+        erro = Assertions.catchThrowable(() -> service.validarLancamento(lancamento));
+        Assertions.assertThat(erro).isInstanceOf(RegraDeNegocioException.class)
+                .hasMessage("Informe um Valor com no máximo duas casas decimais.");
+
+        lancamento.setValor(new BigDecimal("150.500"));
 
         // Tipo de lancamento null
         erro = Assertions.catchThrowable(() -> service.validarLancamento(lancamento));
         Assertions.assertThat(erro).isInstanceOf(RegraDeNegocioException.class)
                 .hasMessage("Informe um Tipo de Lançamento.");
     }
+    @Test
+    public void deveLancarErroAoBuscarComFiltroInconsistente() {
+        // Cenário
+        FiltroLancamento periodoInvertido = FiltroLancamento.builder().idUsuario(1L)
+                .anoInicial(2022).mesInicial(3).anoFinal(2022).mesFinal(2).build();
+        FiltroLancamento mesSemAno = FiltroLancamento.builder().idUsuario(1L).mesInicial(3).build();
+        FiltroLancamento valorInvertido = FiltroLancamento.builder().idUsuario(1L)
+                .valorMinimo(BigDecimal.TEN).valorMaximo(BigDecimal.ONE).build();
+
+        // Execução e Verificação
+        assertThrows(RegraDeNegocioException.class, () -> service.buscar(periodoInvertido));
+        assertThrows(RegraDeNegocioException.class, () -> service.buscar(mesSemAno));
+        assertThrows(RegraDeNegocioException.class, () -> service.exportar(valorInvertido, lancamento -> {
+        }));
+        Mockito.verifyNoInteractions(repository);
+    }
+
 }
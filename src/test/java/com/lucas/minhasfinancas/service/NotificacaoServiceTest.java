@@ -0,0 +1,240 @@
+package com.lucas.minhasfinancas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+import com.lucas.minhasfinancas.model.entity.AlteracaoLancamento;
+import com.lucas.minhasfinancas.model.enums.OperacaoLancamento;
+import com.lucas.minhasfinancas.roteamento.LeituraAposEscrita;
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.impl.NotificacaoServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = { "minhasfinancas.notificacoes.capacidade-por-inscrito=2",
+        "minhasfinancas.notificacoes.maximo-por-usuario=2", "minhasfinancas.notificacoes.threads-envio=1",
+        "minhasfinancas.notificacoes.envio-tempo-limite-ms=200" })
+public class NotificacaoServiceTest {
+
+    @SpyBean
+    NotificacaoServiceImpl service;
+
+    @MockBean
+    SaldoService saldoService;
+
+    @MockBean
+    Shards shards;
+
+    @MockBean
+    LeituraAposEscrita leituraAposEscrita;
+
+    @BeforeEach
+    public void lerSaldoNoShard() {
+        Mockito.when(shards.noShard(Mockito.anyInt(), Mockito.anyBoolean(), Mockito.any()))
+                .thenAnswer(invocacao -> invocacao.getArgument(2, Supplier.class).get());
+    }
+
+    @Test
+    public void deveEnviarOSaldoAoInscreverEAsAlteracoesDepoisDoCommit() throws Exception {
+        // Cenário
+        Mockito.when(saldoService.obterSaldo(1L)).thenReturn(BigDecimal.TEN, new BigDecimal("25.00"));
+        EmissorDeTeste emissor = new EmissorDeTeste(null);
+        AlteracaoLancamento alteracao = alteracao(1L, 7L);
+
+        // Execução
+        service.inscrever(1L, emissor, notificacao -> notificacao);
+        Notificacao inicial = emissor.enviados.poll(5, TimeUnit.SECONDS);
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            service.notificar(Collections.singletonList(alteracao));
+            assertNull(emissor.enviados.poll(200, TimeUnit.MILLISECONDS));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Verificação
+        assertEquals(BigDecimal.TEN, inicial.getSaldo());
+        assertTrue(inicial.getAlteracoes().isEmpty());
+
+        Notificacao aposCommit = emissor.enviados.poll(5, TimeUnit.SECONDS);
+        assertEquals(new BigDecimal("25.00"), aposCommit.getSaldo());
+        assertEquals(Collections.singletonList(alteracao), aposCommit.getAlteracoes());
+    }
+
+    @Test
+    public void deveEncerrarOInscritoQueNaoAcompanhaAsNotificacoes() throws Exception {
+        // Cenário
+        Mockito.when(saldoService.obterSaldo(2L)).thenReturn(BigDecimal.ONE);
+        CountDownLatch liberar = new CountDownLatch(1);
+        EmissorDeTeste lento = new EmissorDeTeste(liberar);
+        long descartadosAntes = service.quantidadeDescartados();
+
+        // Execução
+        service.inscrever(2L, lento, notificacao -> notificacao);
+
+        for (long sequencia = 1; sequencia <= 4; sequencia++) {
+            service.notificar(Collections.singletonList(alteracao(2L, sequencia)));
+        }
+
+        // Verificação: o emissor só é fechado quando o envio travado termina.
+        try {
+            assertTrue(aguardar(() -> service.quantidadeDescartados() == descartadosAntes + 1));
+        } finally {
+            liberar.countDown();
+        }
+
+        assertTrue(lento.encerrado.await(5, TimeUnit.SECONDS));
+
+        // Sem inscritos, a próxima alteração não lê o saldo.
+        Mockito.clearInvocations(saldoService);
+        service.notificar(Collections.singletonList(alteracao(2L, 5L)));
+        Mockito.verifyNoInteractions(saldoService);
+    }
+
+    @Test
+    public void deveContinuarEntregandoAosOutrosInscritosComUmEnvioTravado() throws Exception {
+        // Cenário: um único thread de envio, preso no inscrito que não lê a conexão.
+        Mockito.when(saldoService.obterSaldo(5L)).thenReturn(BigDecimal.ONE);
+        Mockito.when(saldoService.obterSaldo(6L)).thenReturn(BigDecimal.TEN);
+        CountDownLatch liberar = new CountDownLatch(1);
+        EmissorDeTeste travado = new EmissorDeTeste(liberar);
+        EmissorDeTeste outro = new EmissorDeTeste(null);
+        long descartadosAntes = service.quantidadeDescartados();
+
+        try {
+            // Execução
+            service.inscrever(5L, travado, notificacao -> notificacao);
+            assertTrue(travado.iniciado.await(5, TimeUnit.SECONDS));
+            service.inscrever(6L, outro, notificacao -> notificacao);
+
+            // Verificação
+            Notificacao recebida = outro.enviados.poll(5, TimeUnit.SECONDS);
+            assertEquals(BigDecimal.TEN, recebida.getSaldo());
+            assertTrue(aguardar(() -> service.quantidadeDescartados() == descartadosAntes + 1));
+            assertEquals(1, service.quantidadeEnviosTravados());
+        } finally {
+            liberar.countDown();
+        }
+
+        assertTrue(travado.encerrado.await(5, TimeUnit.SECONDS));
+        assertTrue(aguardar(() -> service.quantidadeEnviosTravados() == 0));
+    }
+
+    @Test
+    public void naoDeveRegistrarNadaNaTransacaoSemInscritosDoUsuario() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // Execução
+            service.notificar(Collections.singletonList(alteracao(3L, 1L)));
+
+            // Verificação
+            assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Mockito.verifyNoInteractions(saldoService);
+    }
+
+    @Test
+    public void deveRecusarInscricoesAlemDoMaximoPorUsuario() {
+        // Cenário
+        service.inscrever(4L, new EmissorDeTeste(null), notificacao -> notificacao);
+        service.inscrever(4L, new EmissorDeTeste(null), notificacao -> notificacao);
+
+        // Execução e verificação
+        Assertions.assertThrows(RegraDeNegocioException.class,
+                () -> service.inscrever(4L, new EmissorDeTeste(null), notificacao -> notificacao));
+    }
+
+    private static boolean aguardar(BooleanSupplier condicao) throws InterruptedException {
+        for (int tentativa = 0; tentativa < 100 && !condicao.getAsBoolean(); tentativa++) {
+            Thread.sleep(50);
+        }
+
+        return condicao.getAsBoolean();
+    }
+
+    private static AlteracaoLancamento alteracao(Long idUsuario, Long sequencia) {
+        return AlteracaoLancamento.builder().idUsuario(idUsuario).sequencia(sequencia).idLancamento(10L)
+                .operacao(OperacaoLancamento.EXCLUSAO).build();
+    }
+
+    /**
+     * Emissor que guarda as notificações enviadas. Com uma trava, o envio fica
+     * parado até a liberação, como em um cliente que não lê a conexão; assim
+     * como a escrita bloqueante no socket, ignora interrupções.
+     */
+    private static class EmissorDeTeste extends SseEmitter {
+
+        private final BlockingQueue<Notificacao> enviados = new LinkedBlockingQueue<>();
+        private final CountDownLatch iniciado = new CountDownLatch(1);
+        private final CountDownLatch encerrado = new CountDownLatch(1);
+        private final CountDownLatch trava;
+
+        EmissorDeTeste(CountDownLatch trava) {
+            this.trava = trava;
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            iniciado.countDown();
+            boolean interrompido = false;
+
+            while (trava != null && trava.getCount() > 0) {
+                try {
+                    trava.await();
+                } catch (InterruptedException e) {
+                    interrompido = true;
+                }
+            }
+
+            if (interrompido) {
+                Thread.currentThread().interrupt();
+            }
+
+            evento.build().forEach(dado -> {
+                if (dado.getData() instanceof Notificacao) {
+                    enviados.add((Notificacao) dado.getData());
+                }
+            });
+        }
+
+        @Override
+        public void complete() {
+            encerrado.countDown();
+        }
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.lucas.minhasfinancas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lucas.minhasfinancas.model.entity.AlteracaoLancamento;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.ResumoMensal;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+import com.lucas.minhasfinancas.model.repository.AlteracaoLancamentoRepository;
+import com.lucas.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.lucas.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.lucas.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.lucas.minhasfinancas.model.repository.SequenciaAlteracaoRepository;
+import com.lucas.minhasfinancas.roteamento.LeituraAposEscrita;
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.impl.AlteracaoLancamentoServiceImpl;
+import com.lucas.minhasfinancas.service.impl.ResumoServiceImpl;
+import com.lucas.minhasfinancas.service.impl.SaldoServiceImpl;
+
+/**
+ * Duas primeiras escritas simultâneas do mesmo usuário: a primeira segura a
+ * transação aberta depois de criar a linha e a segunda precisa criá-la também.
+ * Sem upsert, a segunda viola a chave primária no commit da primeira.
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+@Import({ SaldoServiceImpl.class, ResumoServiceImpl.class, AlteracaoLancamentoServiceImpl.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PrimeirasEscritasConcorrentesTest {
+
+    private static final Long ID_USUARIO = 9001L;
+
+    @Autowired
+    SaldoService saldoService;
+
+    @Autowired
+    SaldoUsuarioRepository saldoRepository;
+
+    @Autowired
+    ResumoService resumoService;
+
+    @Autowired
+    ResumoMensalRepository resumoRepository;
+
+    @Autowired
+    AlteracaoLancamentoService alteracaoService;
+
+    @Autowired
+    AlteracaoLancamentoRepository alteracaoRepository;
+
+    @Autowired
+    SequenciaAlteracaoRepository sequenciaRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @MockBean
+    Shards shards;
+
+    @MockBean
+    LeituraAposEscrita leituraAposEscrita;
+
+    @MockBean
+    NotificacaoService notificacaoService;
+
+    @AfterEach
+    public void limpar() {
+        saldoRepository.deleteAllInBatch();
+        resumoRepository.deleteAllInBatch();
+        alteracaoRepository.deleteAllInBatch();
+        sequenciaRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void deveSomarAsDuasPrimeirasEscritasSimultaneasAoSaldo() throws Exception {
+        // Execução
+        executarEmParalelo(() -> saldoService.registrarLancamento(criarLancamento(10)),
+                () -> saldoService.registrarLancamento(criarLancamento(5)));
+
+        // Verificação
+        assertEquals(0, BigDecimal.valueOf(15).compareTo(saldoRepository.findById(ID_USUARIO).get().getValor()));
+    }
+
+    @Test
+    public void deveSomarAsDuasPrimeirasEscritasSimultaneasAoResumo() throws Exception {
+        // Execução
+        executarEmParalelo(() -> resumoService.registrarLancamento(criarLancamento(10)),
+                () -> resumoService.registrarLancamento(criarLancamento(5)));
+
+        // Verificação
+        List<ResumoMensal> resumos = resumoRepository.buscarPorAno(ID_USUARIO, 2022);
+        assertEquals(1, resumos.size());
+        assertEquals(0, BigDecimal.valueOf(15).compareTo(resumos.get(0).getTotal()));
+        assertEquals(2L, resumos.get(0).getQuantidade());
+    }
+
+    @Test
+    public void deveReservarSequenciasDistintasNasDuasPrimeirasAlteracoesSimultaneas() throws Exception {
+        // Execução
+        executarEmParalelo(() -> alteracaoService.registrarInclusao(criarLancamento(10)),
+                () -> alteracaoService.registrarInclusao(criarLancamento(5)));
+
+        // Verificação
+        List<Long> sequencias = alteracaoRepository
+                .findByIdUsuarioAndSequenciaGreaterThanOrderBySequencia(ID_USUARIO, 0L, PageRequest.of(0, 10))
+                .stream().map(AlteracaoLancamento::getSequencia).collect(Collectors.toList());
+        assertEquals(List.of(1L, 2L), sequencias);
+        assertEquals(2L, sequenciaRepository.obterUltima(ID_USUARIO));
+    }
+
+    /**
+     * Executa a primeira escrita e, com a transação dela ainda aberta, inicia
+     * a segunda; só então deixa a primeira terminar.
+     */
+    private void executarEmParalelo(Runnable primeira, Runnable segunda) throws Exception {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        CountDownLatch primeiraGravou = new CountDownLatch(1);
+        CountDownLatch liberarPrimeira = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<?> resultadoPrimeira = executor.submit(() -> transacao.executeWithoutResult(status -> {
+                primeira.run();
+                primeiraGravou.countDown();
+                aguardar(liberarPrimeira);
+            }));
+            aguardar(primeiraGravou);
+
+            Future<?> resultadoSegunda = executor.submit(() -> transacao.executeWithoutResult(status -> segunda.run()));
+            Thread.sleep(200);
+            liberarPrimeira.countDown();
+
+            resultadoPrimeira.get(10, TimeUnit.SECONDS);
+            resultadoSegunda.get(10, TimeUnit.SECONDS);
+
+        } finally {
+            liberarPrimeira.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Lancamento criarLancamento(int valor) {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(Usuario.builder().id(ID_USUARIO).build());
+        lancamento.setValor(BigDecimal.valueOf(valor));
+        return lancamento;
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.lucas.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+import com.lucas.minhasfinancas.model.enums.StatusLancamento;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+import com.lucas.minhasfinancas.model.repository.EstadoLancamento;
+import com.lucas.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.lucas.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.lucas.minhasfinancas.model.repository.TotalLancamentos;
+import com.lucas.minhasfinancas.service.impl.ResumoServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ResumoServiceTest {
+
+    @SpyBean
+    ResumoServiceImpl service;
+
+    @MockBean
+    ResumoMensalRepository repository;
+
+    @Test
+    public void deveCriarResumoQuandoMesAindaNaoPossuiLancamentos() {
+        // Cenário
+        Lancamento lancamento = criarLancamento();
+        Mockito.when(repository.somar(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any())).thenReturn(0, 1);
+
+        // Execução
+        service.registrarLancamento(lancamento);
+
+        // Verificação
+        InOrder ordem = Mockito.inOrder(repository);
+        ordem.verify(repository).criarSeAusente(1L, 2022, 6, "RECEITA", "PENDENTE");
+        ordem.verify(repository).somar(1L, 2022, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                new BigDecimal("20.00"), 1L);
+        Mockito.verify(repository, Mockito.times(2)).somar(1L, 2022, 6, TipoLancamento.RECEITA,
+                StatusLancamento.PENDENTE, new BigDecimal("20.00"), 1L);
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void deveAgruparLoteAntesDeSomar() {
+        // Cenário
+        Mockito.when(repository.somar(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any())).thenReturn(1);
+
+        // Execução
+        service.registrarLancamentos(Arrays.asList(criarLancamento(), criarLancamento()));
+
+        // Verificação
+        Mockito.verify(repository).somar(1L, 2022, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                new BigDecimal("40.00"), 2L);
+    }
+
+    @Test
+    public void deveMoverLancamentoEntreMesesAoAtualizar() {
+        // Cenário
+        EstadoLancamento anterior = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(anterior.getIdUsuario()).thenReturn(1L);
+        Mockito.when(anterior.getAno()).thenReturn(2022);
+        Mockito.when(anterior.getMes()).thenReturn(5);
+        Mockito.when(anterior.getTipo()).thenReturn(TipoLancamento.RECEITA);
+        Mockito.when(anterior.getStatus()).thenReturn(StatusLancamento.PENDENTE);
+        Mockito.when(anterior.getValor()).thenReturn(BigDecimal.valueOf(15));
+        Mockito.when(repository.somar(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any())).thenReturn(1);
+
+        // Execução
+        service.atualizarLancamento(anterior, criarLancamento());
+
+        // Verificação
+        Mockito.verify(repository).somar(1L, 2022, 5, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                new BigDecimal("-15.00"), -1L);
+        Mockito.verify(repository).somar(1L, 2022, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                new BigDecimal("20.00"), 1L);
+    }
+
+    @Test
+    public void deveAjustarSomenteValorQuandoGrupoNaoMuda() {
+        // Cenário
+        EstadoLancamento anterior = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(anterior.getIdUsuario()).thenReturn(1L);
+        Mockito.when(anterior.getAno()).thenReturn(2022);
+        Mockito.when(anterior.getMes()).thenReturn(6);
+        Mockito.when(anterior.getTipo()).thenReturn(TipoLancamento.RECEITA);
+        Mockito.when(anterior.getStatus()).thenReturn(StatusLancamento.PENDENTE);
+        Mockito.when(anterior.getValor()).thenReturn(BigDecimal.valueOf(15));
+        Mockito.when(repository.somar(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any())).thenReturn(1);
+
+        // Execução
+        service.atualizarLancamento(anterior, criarLancamento());
+
+        // Verificação
+        Mockito.verify(repository).somar(1L, 2022, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                new BigDecimal("5.00"), 0L);
+        Mockito.verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    public void deveTratarComoPendenteOLancamentoGravadoSemStatusAoAtualizar() {
+        // Cenário
+        EstadoLancamento anterior = criarEstadoSemStatus();
+        Mockito.when(repository.somar(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any())).thenReturn(0, 1);
+
+        // Execução
+        service.atualizarLancamento(anterior, criarLancamento());
+
+        // Verificação
+        InOrder ordem = Mockito.inOrder(repository);
+        ordem.verify(repository).criarSeAusente(1L, 2022, 6, "RECEITA", "PENDENTE");
+        ordem.verify(repository).somar(1L, 2022, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                new BigDecimal("5.00"), 0L);
+    }
+
+    @Test
+    public void deveTratarComoPendenteOLancamentoGravadoSemStatusAoExcluir() {
+        // Cenário
+        EstadoLancamento anterior = criarEstadoSemStatus();
+        Mockito.when(repository.somar(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any())).thenReturn(1);
+
+        // Execução
+        service.estornarLancamento(anterior);
+
+        // Verificação
+        Mockito.verify(repository).somar(1L, 2022, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                new BigDecimal("-15.00"), -1L);
+        Mockito.verify(repository, Mockito.never()).criarSeAusente(Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void deveMoverTotaisParaONovoStatus() {
+        // Cenário
+        TotalLancamentos total = Mockito.mock(TotalLancamentos.class);
+        Mockito.when(total.getIdUsuario()).thenReturn(1L);
+        Mockito.when(total.getAno()).thenReturn(2022);
+        Mockito.when(total.getMes()).thenReturn(6);
+        Mockito.when(total.getTipo()).thenReturn(TipoLancamento.DESPESA);
+        Mockito.when(total.getStatus()).thenReturn(StatusLancamento.PENDENTE);
+        Mockito.when(total.getTotal()).thenReturn(BigDecimal.valueOf(70));
+        Mockito.when(total.getQuantidade()).thenReturn(3L);
+        Mockito.when(repository.somar(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any())).thenReturn(1);
+
+        // Execução
+        service.alterarStatus(Arrays.asList(total), StatusLancamento.EFETIVADO);
+
+        // Verificação
+        Mockito.verify(repository).somar(1L, 2022, 6, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+                new BigDecimal("-70.00"), -3L);
+        Mockito.verify(repository).somar(1L, 2022, 6, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO,
+                new BigDecimal("70.00"), 3L);
+    }
+
+    private EstadoLancamento criarEstadoSemStatus() {
+        EstadoLancamento anterior = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(anterior.getIdUsuario()).thenReturn(1L);
+        Mockito.when(anterior.getAno()).thenReturn(2022);
+        Mockito.when(anterior.getMes()).thenReturn(6);
+        Mockito.when(anterior.getTipo()).thenReturn(TipoLancamento.RECEITA);
+        Mockito.when(anterior.getValor()).thenReturn(BigDecimal.valueOf(15));
+        return anterior;
+    }
+
+    private Lancamento criarLancamento() {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        return lancamento;
+    }
+
+}
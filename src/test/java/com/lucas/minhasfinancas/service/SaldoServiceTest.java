@@ -0,0 +1,145 @@
+package com.lucas.minhasfinancas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.entity.Usuario;
+import com.lucas.minhasfinancas.model.enums.TipoLancamento;
+import com.lucas.minhasfinancas.model.repository.EstadoLancamento;
+import com.lucas.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.lucas.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.lucas.minhasfinancas.service.impl.SaldoServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class SaldoServiceTest {
+
+    @SpyBean
+    SaldoServiceImpl service;
+
+    @MockBean
+    SaldoUsuarioRepository repository;
+
+    @Test
+    public void deveSomarReceitaAoSaldoExistente() {
+        // Cenário
+        Lancamento lancamento = criarLancamento(1L, TipoLancamento.RECEITA, 20);
+        Mockito.when(repository.somarAoSaldo(1L, new BigDecimal("20.00"))).thenReturn(1);
+
+        // Execução
+        service.registrarLancamento(lancamento);
+
+        // Verificação
+        Mockito.verify(repository).somarAoSaldo(1L, new BigDecimal("20.00"));
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void deveCriarSaldoQuandoUsuarioNaoPossuiSaldo() {
+        // Cenário
+        Lancamento lancamento = criarLancamento(1L, TipoLancamento.DESPESA, 20);
+        Mockito.when(repository.somarAoSaldo(Mockito.anyLong(), Mockito.any())).thenReturn(0, 1);
+
+        // Execução
+        service.registrarLancamento(lancamento);
+
+        // Verificação
+        InOrder ordem = Mockito.inOrder(repository);
+        ordem.verify(repository).somarAoSaldo(1L, new BigDecimal("-20.00"));
+        ordem.verify(repository).criarSeAusente(1L);
+        ordem.verify(repository).somarAoSaldo(1L, new BigDecimal("-20.00"));
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void deveAplicarApenasADiferencaAoAtualizar() {
+        // Cenário
+        EstadoLancamento estadoAnterior = criarEstado(1L, TipoLancamento.RECEITA, 20);
+        Lancamento lancamento = criarLancamento(1L, TipoLancamento.DESPESA, 5);
+        Mockito.when(repository.somarAoSaldo(Mockito.anyLong(), Mockito.any())).thenReturn(1);
+
+        // Execução
+        service.atualizarLancamento(estadoAnterior, lancamento);
+
+        // Verificação
+        Mockito.verify(repository).somarAoSaldo(1L, new BigDecimal("-25.00"));
+    }
+
+    @Test
+    public void deveMoverValorEntreUsuariosAoAtualizar() {
+        // Cenário
+        EstadoLancamento estadoAnterior = criarEstado(1L, TipoLancamento.RECEITA, 20);
+        Lancamento lancamento = criarLancamento(2L, TipoLancamento.RECEITA, 20);
+        Mockito.when(repository.somarAoSaldo(Mockito.anyLong(), Mockito.any())).thenReturn(1);
+
+        // Execução
+        service.atualizarLancamento(estadoAnterior, lancamento);
+
+        // Verificação
+        Mockito.verify(repository).somarAoSaldo(1L, new BigDecimal("-20.00"));
+        Mockito.verify(repository).somarAoSaldo(2L, new BigDecimal("20.00"));
+    }
+
+    @Test
+    public void naoDeveAlterarSaldoQuandoValorNaoMuda() {
+        // Cenário
+        EstadoLancamento estadoAnterior = criarEstado(1L, TipoLancamento.RECEITA, 20);
+        Lancamento lancamento = criarLancamento(1L, TipoLancamento.RECEITA, 20);
+
+        // Execução
+        service.atualizarLancamento(estadoAnterior, lancamento);
+
+        // Verificação
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void deveEstornarLancamentoDeletado() {
+        // Cenário
+        EstadoLancamento estadoAnterior = criarEstado(1L, TipoLancamento.DESPESA, 20);
+        Mockito.when(repository.somarAoSaldo(Mockito.anyLong(), Mockito.any())).thenReturn(1);
+
+        // Execução
+        service.estornarLancamento(estadoAnterior);
+
+        // Verificação
+        Mockito.verify(repository).somarAoSaldo(1L, new BigDecimal("20.00"));
+    }
+
+    @Test
+    public void deveRetornarZeroQuandoUsuarioNaoPossuiSaldo() {
+        // Cenário
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.empty());
+
+        // Execução e Verificação
+        assertEquals(BigDecimal.ZERO, service.obterSaldo(1L));
+    }
+
+    private Lancamento criarLancamento(Long idUsuario, TipoLancamento tipo, int valor) {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(Usuario.builder().id(idUsuario).build());
+        lancamento.setTipo(tipo);
+        lancamento.setValor(BigDecimal.valueOf(valor));
+        return lancamento;
+    }
+
+    private EstadoLancamento criarEstado(Long idUsuario, TipoLancamento tipo, int valor) {
+        EstadoLancamento estado = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(estado.getIdUsuario()).thenReturn(idUsuario);
+        Mockito.when(estado.getTipo()).thenReturn(tipo);
+        Mockito.when(estado.getValor()).thenReturn(BigDecimal.valueOf(valor));
+        return estado;
+    }
+}
@@ -0,0 +1,148 @@
+package com.lucas.minhasfinancas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
+import com.lucas.minhasfinancas.model.entity.Lancamento;
+import com.lucas.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.impl.SalvamentoAgrupadoServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = { "minhasfinancas.salvar-agrupado.habilitado=true",
+        "minhasfinancas.salvar-agrupado.janela-ms=5000", "minhasfinancas.salvar-agrupado.tamanho-maximo=3",
+        "minhasfinancas.salvar-agrupado.espera-maxima-ms=1000" })
+public class SalvamentoAgrupadoServiceTest {
+
+    @SpyBean
+    SalvamentoAgrupadoServiceImpl service;
+
+    @MockBean
+    LancamentoService lancamentoService;
+
+    @MockBean
+    Shards shards;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deveGravarPedidosConcorrentesEmUmLoteDevolvendoOResultadoDeCada() throws Exception {
+        // Cenário
+        Mockito.when(lancamentoService.salvarEmLote(Mockito.anyList())).thenAnswer(invocacao -> {
+            List<Lancamento> lancamentos = invocacao.getArgument(0);
+            ResultadoLote resultado = new ResultadoLote();
+
+            for (int i = 0; i < lancamentos.size(); i++) {
+                if (lancamentos.get(i).getDescricao() == null) {
+                    resultado.getErros().add(new ResultadoLote.ErroLote(i, "Informe uma Descrição válida."));
+                } else {
+                    lancamentos.get(i).setId(100L + i);
+                    resultado.getSalvos().add(lancamentos.get(i));
+                }
+            }
+
+            return resultado;
+        });
+
+        Lancamento invalido = LancamentoRepositoryTest.criarLancamento();
+        invalido.setDescricao(null);
+
+        // Execução
+        List<Future<Lancamento>> resultados = salvarAoMesmoTempo(LancamentoRepositoryTest.criarLancamento(),
+                invalido, LancamentoRepositoryTest.criarLancamento());
+
+        // Verificação
+        assertNotNull(resultados.get(0).get(5, TimeUnit.SECONDS).getId());
+        assertNotNull(resultados.get(2).get(5, TimeUnit.SECONDS).getId());
+        Assertions.assertThatThrownBy(() -> resultados.get(1).get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RegraDeNegocioException.class)
+                .hasRootCauseMessage("Informe uma Descrição válida.");
+
+        ArgumentCaptor<List<Lancamento>> lote = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(lancamentoService).salvarEmLote(lote.capture());
+        assertEquals(3, lote.getValue().size());
+        Mockito.verify(lancamentoService, Mockito.never()).salvar(Mockito.any());
+    }
+
+    @Test
+    public void deveGravarUmAUmQuandoOLoteFalhar() throws Exception {
+        // Cenário
+        Mockito.when(lancamentoService.salvarEmLote(Mockito.anyList())).thenThrow(new IllegalStateException());
+        Mockito.when(lancamentoService.salvar(Mockito.any())).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        // Execução
+        List<Future<Lancamento>> resultados = salvarAoMesmoTempo(LancamentoRepositoryTest.criarLancamento(),
+                LancamentoRepositoryTest.criarLancamento(), LancamentoRepositoryTest.criarLancamento());
+
+        // Verificação
+        for (Future<Lancamento> resultado : resultados) {
+            assertNotNull(resultado.get(5, TimeUnit.SECONDS));
+        }
+
+        Mockito.verify(lancamentoService, Mockito.times(3)).salvar(Mockito.any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void naoDeveGravarOPedidoQueEsgotouAEspera() throws Exception {
+        // Cenário
+        Mockito.when(lancamentoService.salvarEmLote(Mockito.anyList())).thenAnswer(invocacao -> {
+            ResultadoLote resultado = new ResultadoLote();
+            resultado.getSalvos().addAll(invocacao.getArgument(0));
+            return resultado;
+        });
+        Lancamento esgotado = LancamentoRepositoryTest.criarLancamento();
+        esgotado.setDescricao("Esgotado");
+
+        // Execução: sozinho, o pedido espera a janela de 5 s e esgota a espera de 1 s.
+        Assertions.assertThatThrownBy(() -> service.salvar(esgotado)).isInstanceOf(IllegalStateException.class)
+                .hasMessage("Tempo esgotado aguardando a gravação do lançamento.");
+
+        // Dois pedidos completam o grupo do que esgotou a espera.
+        List<Future<Lancamento>> resultados = salvarAoMesmoTempo(LancamentoRepositoryTest.criarLancamento(),
+                LancamentoRepositoryTest.criarLancamento());
+
+        // Verificação
+        for (Future<Lancamento> resultado : resultados) {
+            assertNotNull(resultado.get(5, TimeUnit.SECONDS));
+        }
+
+        ArgumentCaptor<List<Lancamento>> lote = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(lancamentoService).salvarEmLote(lote.capture());
+        assertEquals(2, lote.getValue().size());
+        Assertions.assertThat(lote.getValue()).doesNotContain(esgotado);
+        Mockito.verify(lancamentoService, Mockito.never()).salvar(Mockito.any());
+    }
+
+    private List<Future<Lancamento>> salvarAoMesmoTempo(Lancamento... lancamentos) {
+        ExecutorService executor = Executors.newFixedThreadPool(lancamentos.length);
+        List<Future<Lancamento>> resultados = new ArrayList<>();
+
+        for (Lancamento lancamento : lancamentos) {
+            resultados.add(executor.submit(() -> service.salvar(lancamento)));
+        }
+
+        executor.shutdown();
+        return resultados;
+    }
+
+}
@@ -2,6 +2,7 @@ package com.lucas.minhasfinancas.service;
 
 import java.util.Optional;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +16,8 @@ import com.lucas.minhasfinancas.exception.ErroAutenticacao;
 import com.lucas.minhasfinancas.exception.RegraDeNegocioException;
 import com.lucas.minhasfinancas.model.entity.Usuario;
 import com.lucas.minhasfinancas.model.repository.UsuarioRepository;
+import com.lucas.minhasfinancas.roteamento.Shards;
+import com.lucas.minhasfinancas.service.impl.UsuarioCache;
 import com.lucas.minhasfinancas.service.impl.UsuarioServiceImpl;
 
 @ExtendWith(SpringExtension.class)
@@ -27,6 +30,17 @@ public class UsuarioServiceTest {
     @MockBean
     UsuarioRepository repository;
 
+    @SpyBean
+    UsuarioCache cache;
+
+    @MockBean
+    Shards shards;
+
+    @AfterEach
+    public void limparCache() {
+        cache.invalidarTodos();
+    }
+
     @Test()
     public void deveValidarEmail() {
         Assertions.assertDoesNotThrow(() -> {
@@ -102,6 +116,78 @@ public class UsuarioServiceTest {
         Assertions.assertEquals("Senha incorreta.", exception.getMessage());
     }
 
+    @Test
+    public void deveBuscarUsuarioPorIdNoBancoApenasUmaVez() {
+        // Cenário
+        Usuario usuario = Usuario.builder().id(1L).email("usuario@gmail.com").build();
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.of(usuario));
+
+        // Ação
+        service.buscarPorId(1L);
+        Optional<Usuario> usuarioEmCache = service.buscarPorId(1L);
+
+        // Verificação
+        Assertions.assertSame(usuario, usuarioEmCache.get());
+        Mockito.verify(repository, Mockito.times(1)).findById(1L);
+        Assertions.assertEquals(1, cache.estatisticasPorId().hitCount());
+        Assertions.assertEquals(1, cache.estatisticasPorId().missCount());
+    }
+
+    @Test
+    public void naoDeveGuardarEmCacheUsuarioNaoEncontrado() {
+        // Cenário
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.empty());
+
+        // Ação
+        service.buscarPorId(1L);
+        service.buscarPorId(1L);
+
+        // Verificação
+        Mockito.verify(repository, Mockito.times(2)).findById(1L);
+    }
+
+    @Test
+    public void deveInvalidarCacheAoSalvarUsuario() {
+        // Cenário
+        Usuario usuario = Usuario.builder().id(1L).email("usuario@gmail.com").senha("senha").build();
+        Mockito.when(repository.findByEmail("usuario@gmail.com")).thenReturn(Optional.of(usuario));
+        Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+        Mockito.when(repository.save(Mockito.any(Usuario.class))).thenReturn(usuario);
+
+        // Ação
+        service.autenticar("usuario@gmail.com", "senha");
+        service.salvarUsuario(usuario);
+        service.autenticar("usuario@gmail.com", "senha");
+
+        // Verificação
+        Mockito.verify(repository, Mockito.times(2)).findByEmail("usuario@gmail.com");
+    }
+
+    @Test
+    public void deveObterReferenciaSemCarregarUsuario() {
+        // Cenário
+        Usuario referencia = Usuario.builder().id(1L).build();
+        Mockito.when(repository.existsById(1L)).thenReturn(true);
+        Mockito.when(repository.getReferenceById(1L)).thenReturn(referencia);
+
+        // Ação
+        Optional<Usuario> resultado = service.obterReferencia(1L);
+
+        // Verificação
+        Assertions.assertSame(referencia, resultado.get());
+        Mockito.verify(repository, Mockito.never()).findById(Mockito.anyLong());
+    }
+
+    @Test
+    public void naoDeveObterReferenciaDeUsuarioInexistente() {
+        // Cenário
+        Mockito.when(repository.existsById(1L)).thenReturn(false);
+
+        // Ação e Verificação
+        Assertions.assertFalse(service.obterReferencia(1L).isPresent());
+        Mockito.verify(repository, Mockito.never()).getReferenceById(Mockito.anyLong());
+    }
+
     // Possibilidade 1 do cadastro de um usuário
     @Test
     public void deveCadastrarUsuario() {